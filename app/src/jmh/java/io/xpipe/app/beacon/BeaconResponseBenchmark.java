@@ -0,0 +1,57 @@
+package io.xpipe.app.beacon;
+
+import io.xpipe.beacon.api.ConnectionInfoExchange;
+import io.xpipe.core.StorePath;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of a larger beacon response with the pretty printed and the compact encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeaconResponseBenchmark {
+
+    @Param({"10", "1000"})
+    int connections;
+
+    private ConnectionInfoExchange.Response response;
+
+    @Setup
+    public void setup() {
+        var infos = new ArrayList<ConnectionInfoExchange.InfoResponse>();
+        for (int i = 0; i < connections; i++) {
+            infos.add(ConnectionInfoExchange.InfoResponse.builder()
+                    .connection(UUID.randomUUID())
+                    .category(StorePath.create("connections", "servers"))
+                    .name(StorePath.create("host-" + i))
+                    .type("ssh")
+                    .rawData(Map.of("host", "host-" + i + ".example.com", "port", 22, "user", "root"))
+                    .usageCategory("shell")
+                    .lastUsed(Instant.now())
+                    .lastModified(Instant.now())
+                    .state(Map.of("osType", "linux", "running", true))
+                    .cache(Map.of())
+                    .build());
+        }
+        response = ConnectionInfoExchange.Response.builder().infos(infos).build();
+    }
+
+    @Benchmark
+    public byte[] pretty() throws IOException {
+        return BeaconRequestHandler.serializeResponse(response, false);
+    }
+
+    @Benchmark
+    public byte[] compact() throws IOException {
+        return BeaconRequestHandler.serializeResponse(response, true);
+    }
+}
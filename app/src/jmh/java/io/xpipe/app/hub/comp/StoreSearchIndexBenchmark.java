@@ -0,0 +1,83 @@
+package io.xpipe.app.hub.comp;
+
+import io.xpipe.app.ext.DataStore;
+import io.xpipe.app.storage.DataStoreEntry;
+import io.xpipe.app.storage.TestStoreEntries;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the search over many entries, which is evaluated whenever the filter changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreSearchIndexBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int entries;
+
+    private StoreSearchIndex index;
+    private List<DataStoreEntry> all;
+
+    @Setup
+    public void setup() {
+        // Creates a tree of hosts that each have a few containers
+        var parents = new HashMap<DataStoreEntry, DataStoreEntry>();
+        all = new ArrayList<>(entries);
+        DataStoreEntry host = null;
+        for (int i = 0; i < entries; i++) {
+            var name = i % 10 == 0 ? "host-" + i : "container-" + i;
+            var entry = TestStoreEntries.create(new TestStore(name), name);
+            if (i % 10 == 0) {
+                host = entry;
+            } else {
+                parents.put(entry, host);
+            }
+            all.add(entry);
+        }
+
+        index = new StoreSearchIndex(e -> Optional.ofNullable(parents.get(e)));
+        all.forEach(index::update);
+    }
+
+    @Benchmark
+    public StoreSearchIndex.Result queryFew() {
+        return index.query("container-12");
+    }
+
+    @Benchmark
+    public StoreSearchIndex.Result queryMany() {
+        return index.query("container");
+    }
+
+    @Benchmark
+    public StoreSearchIndex.Result queryShort() {
+        return index.query("c");
+    }
+
+    @Benchmark
+    public StoreSearchIndex.Result queryNone() {
+        return index.query("unknown");
+    }
+
+    @Benchmark
+    public boolean updateUnchanged() {
+        return index.update(all.get(entries / 2));
+    }
+
+    @Benchmark
+    public boolean updateChanged() {
+        var entry = all.get(entries / 2);
+        index.remove(entry);
+        return index.update(entry);
+    }
+
+    private record TestStore(String value) implements DataStore {}
+}
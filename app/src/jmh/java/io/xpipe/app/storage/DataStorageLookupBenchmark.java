@@ -0,0 +1,85 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.ext.DataStore;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of entries and categories in vaults of different sizes, which happen very frequently, e.g. for
+ * every reference to another entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataStorageLookupBenchmark {
+
+    private static final int ENTRIES_PER_CATEGORY = 100;
+
+    @Param({"1000", "12000", "50000"})
+    public int entries;
+
+    private DataStorage storage;
+    private UUID[] entryIds;
+    private String[] names;
+    private DataStore[] equalStores;
+    private UUID[] categoryIds;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        // The storage is not loaded, so only the added elements exist
+        storage = new ImpersistentStorage(Path.of("storage"));
+        entryIds = new UUID[entries];
+        names = new String[entries];
+        equalStores = new DataStore[entries];
+        categoryIds = new UUID[entries / ENTRIES_PER_CATEGORY];
+        for (int i = 0; i < categoryIds.length; i++) {
+            var cat = DataStoreCategory.createNew(null, "category-" + i);
+            storage.putStoreCategoryInternal(cat);
+            categoryIds[i] = cat.getUuid();
+        }
+
+        for (int i = 0; i < entries; i++) {
+            var name = "entry-" + i;
+            var entry = TestStoreEntries.create(new TestStore(name), name);
+            storage.putStoreEntryInternal(entry, false);
+            entryIds[i] = entry.getUuid();
+            names[i] = name;
+            // Equal, but not the identical store instance
+            equalStores[i] = new TestStore(name);
+        }
+    }
+
+    private int next() {
+        // Cycle through all elements so that the lookups are not always served by the same bucket
+        counter = (counter + 1) % entries;
+        return counter;
+    }
+
+    @Benchmark
+    public Optional<DataStoreEntry> entryById() {
+        return storage.getStoreEntryIfPresent(entryIds[next()]);
+    }
+
+    @Benchmark
+    public Optional<DataStoreEntry> entryByName() {
+        return storage.getStoreEntryIfPresent(names[next()]);
+    }
+
+    @Benchmark
+    public Optional<DataStoreEntry> entryByStore() {
+        return storage.getStoreEntryIfPresent(equalStores[next()], false);
+    }
+
+    @Benchmark
+    public Optional<DataStoreCategory> categoryById() {
+        return storage.getStoreCategoryIfPresent(categoryIds[next() % categoryIds.length]);
+    }
+
+    private record TestStore(String value) implements DataStore {}
+}
@@ -0,0 +1,64 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.ext.DataStoreState;
+import io.xpipe.app.ext.StatefulDataStore;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the state accesses of stateful stores, which happen very frequently, e.g. on every status check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StoreStateBenchmark {
+
+    private TestStore store;
+    private DataStoreEntry entry;
+
+    @Setup
+    public void setup() {
+        store = new TestStore();
+        entry = TestStoreEntries.create(store);
+        // Initializes the default state
+        entry.getStorePersistentState();
+    }
+
+    @Benchmark
+    public Class<?> stateClass() {
+        return store.getStateClass();
+    }
+
+    @Benchmark
+    public TestStore.TestState defaultState() {
+        return store.createDefaultState();
+    }
+
+    @Benchmark
+    public TestStore.TestState getState() {
+        return entry.getStorePersistentState();
+    }
+
+    @Benchmark
+    public void setUnchangedState() {
+        // A changed state would trigger a save of the storage, which is not running here
+        entry.setStorePersistentState(TestStore.TestState.builder().build());
+    }
+
+    public static class TestStore implements StatefulDataStore<TestStore.TestState> {
+
+        @Getter
+        @EqualsAndHashCode(callSuper = true)
+        @SuperBuilder(toBuilder = true)
+        @Jacksonized
+        public static class TestState extends DataStoreState {
+            String value;
+        }
+    }
+}
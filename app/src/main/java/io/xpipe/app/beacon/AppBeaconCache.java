@@ -1,51 +1,119 @@
 package io.xpipe.app.beacon;
 
 import io.xpipe.app.ext.ShellStore;
+import io.xpipe.app.storage.DataStoreEntry;
 import io.xpipe.app.storage.DataStoreEntryRef;
+import io.xpipe.app.util.GlobalTimer;
 import io.xpipe.beacon.BeaconClientException;
 
 import lombok.Value;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.time.Duration;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Value
 public class AppBeaconCache {
 
-    Set<BeaconShellSession> shellSessions = new HashSet<>();
+    // Finished jobs and their output blobs are only kept for a limited time if nobody retrieves them
+    private static final Duration JOB_RETENTION = Duration.ofMinutes(10);
+    // Running jobs that are not queried anymore have likely been abandoned by their client
+    private static final Duration JOB_ABANDON_TIMEOUT = Duration.ofHours(1);
 
-    public BeaconShellSession getShellSession(UUID uuid) throws BeaconClientException {
-        var found = shellSessions.stream()
-                .filter(beaconShellSession ->
-                        beaconShellSession.getEntry().getUuid().equals(uuid))
-                .findFirst();
-        if (found.isEmpty()) {
+    Map<UUID, BeaconShellPool> shellPools = new ConcurrentHashMap<>();
+    Map<UUID, BeaconShellJob> shellJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Checks out a shell of a previously started shell session. The returned session has to be closed after use.
+     */
+    public BeaconShellSession getShellSession(UUID uuid) throws Exception {
+        return getShellSession(uuid, false);
+    }
+
+    /**
+     * Checks out a shell either for a normal request or for a background job, which are limited separately.
+     */
+    public BeaconShellSession getShellSession(UUID uuid, boolean job) throws Exception {
+        var pool = shellPools.get(uuid);
+        if (pool == null) {
             throw new BeaconClientException("No active shell session known for id " + uuid);
         }
-        return found.get();
+        return pool.checkout(job);
+    }
+
+    public BeaconShellJob getShellJob(UUID uuid) throws BeaconClientException {
+        var found = shellJobs.get(uuid);
+        if (found == null) {
+            throw new BeaconClientException("No shell job known for id " + uuid);
+        }
+        found.touch();
+        return found;
+    }
+
+    /**
+     * Removes a job. If its output has been handed out to the client, the output blobs are kept for a while longer
+     * so that they can still be used.
+     */
+    public void removeShellJob(BeaconShellJob job, boolean keepOutput) {
+        shellJobs.remove(job.getId(), job);
+        if (keepOutput) {
+            GlobalTimer.delay(job::releaseOutput, JOB_RETENTION);
+        } else {
+            job.releaseOutput();
+        }
     }
 
+    /**
+     * Checks out a shell for a connection and starts a new shell session if needed.
+     * The returned session has to be closed after use.
+     */
     public BeaconShellSession getOrStart(DataStoreEntryRef<ShellStore> ref) throws Exception {
-        var existing = AppBeaconServer.get().getCache().getShellSessions().stream()
-                .filter(beaconShellSession -> beaconShellSession.getEntry().equals(ref.get()))
-                .findFirst();
-        var control = (existing.isPresent()
-                ? existing.get().getControl()
-                : ref.getStore().standaloneControl().start());
-        control.setNonInteractive();
-        control.start();
-
-        var d = control.getShellDialect().getDumbMode();
-        if (!d.supportsAnyPossibleInteraction()) {
-            control.close();
-            d.throwIfUnsupported();
+        return getOrStart(ref.get());
+    }
+
+    public BeaconShellSession getOrStart(DataStoreEntry entry) throws Exception {
+        var pool = shellPools.computeIfAbsent(entry.getUuid(), ignored -> new BeaconShellPool(entry));
+        try {
+            return pool.checkout();
+        } catch (Exception ex) {
+            // Don't keep pools around for connections that couldn't be started at all
+            if (pool.isEmpty()) {
+                shellPools.remove(entry.getUuid(), pool);
+            }
+            throw ex;
+        }
+    }
+
+    public void stopShellSession(UUID uuid) throws BeaconClientException {
+        var pool = shellPools.remove(uuid);
+        if (pool == null) {
+            throw new BeaconClientException("No active shell session known for id " + uuid);
         }
+        pool.close();
+    }
 
-        if (existing.isEmpty()) {
-            AppBeaconServer.get().getCache().getShellSessions().add(new BeaconShellSession(ref.get(), control));
+    public void evictIdle() {
+        var now = System.currentTimeMillis();
+        for (var job : shellJobs.values()) {
+            if (job.isRunning()) {
+                if (now - job.getLastAccessed() > JOB_ABANDON_TIMEOUT.toMillis()) {
+                    // The job returns its shell to the pool once the command has been killed
+                    job.cancel();
+                    removeShellJob(job, false);
+                }
+            } else if (now - job.getFinishedAt() > JOB_RETENTION.toMillis()) {
+                removeShellJob(job, false);
+            }
         }
+        shellPools.values().forEach(BeaconShellPool::evictIdle);
+    }
 
-        return new BeaconShellSession(ref.get(), control);
+    public void close() {
+        shellJobs.values().forEach(BeaconShellJob::cancel);
+        shellJobs.values().forEach(BeaconShellJob::releaseOutput);
+        shellJobs.clear();
+        shellPools.values().forEach(BeaconShellPool::close);
+        shellPools.clear();
     }
 }
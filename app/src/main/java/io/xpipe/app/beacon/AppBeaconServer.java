@@ -4,6 +4,8 @@ import io.xpipe.app.beacon.mcp.AppMcpServer;
 import io.xpipe.app.issue.ErrorEventFactory;
 import io.xpipe.app.issue.TrackEvent;
 import io.xpipe.app.util.DocumentationLink;
+import io.xpipe.app.util.GlobalTimer;
+import io.xpipe.app.util.ThreadHelper;
 import io.xpipe.beacon.BeaconConfig;
 import io.xpipe.beacon.BeaconInterface;
 import io.xpipe.core.OsType;
@@ -18,7 +20,9 @@ import java.net.Inet4Address;
 import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -33,13 +37,15 @@ public class AppBeaconServer {
     @Getter
     private final boolean propertyPort;
 
-    @Getter
-    private final Set<BeaconSession> sessions = new HashSet<>();
+    private final Map<String, BeaconSession> sessions = new ConcurrentHashMap<>();
 
     @Getter
     private final AppBeaconCache cache = new AppBeaconCache();
 
-    private boolean running;
+    @Getter
+    private final List<BeaconRequestHandler<?>> handlers = new ArrayList<>();
+
+    private volatile boolean running;
     private ExecutorService executor;
     private HttpServer server;
 
@@ -85,13 +91,7 @@ public class AppBeaconServer {
         if (INSTANCE != null) {
             INSTANCE.stop();
             INSTANCE.deleteAuthSecret();
-            for (BeaconShellSession ss : INSTANCE.getCache().getShellSessions()) {
-                try {
-                    ss.getControl().close();
-                } catch (Exception ex) {
-                    ErrorEventFactory.fromThrowable(ex).omit().expected().handle();
-                }
-            }
+            INSTANCE.getCache().close();
             INSTANCE = null;
         }
     }
@@ -101,7 +101,15 @@ public class AppBeaconServer {
     }
 
     public void addSession(BeaconSession session) {
-        this.sessions.add(session);
+        this.sessions.put(session.getToken(), session);
+    }
+
+    public Collection<BeaconSession> getSessions() {
+        return sessions.values();
+    }
+
+    public Optional<BeaconSession> getSession(String token) {
+        return Optional.ofNullable(sessions.get(token));
     }
 
     private void stop() {
@@ -137,19 +145,22 @@ public class AppBeaconServer {
     }
 
     private void start() throws IOException {
-        executor = Executors.newFixedThreadPool(5, r -> {
-            Thread t = Executors.defaultThreadFactory().newThread(r);
-            t.setDaemon(true);
-            t.setName("http handler");
-            t.setUncaughtExceptionHandler((t1, e) -> {
-                ErrorEventFactory.fromThrowable(e).handle();
-            });
-            return t;
-        });
+        // Handlers can block for a long time, e.g. while waiting for a terminal or a command
+        // Every request therefore gets its own virtual thread, the limits are applied per endpoint instead
+        var factory = Thread.ofVirtual()
+                .name("http handler-", 0)
+                .uncaughtExceptionHandler((t1, e) -> {
+                    ErrorEventFactory.fromThrowable(e).handle();
+                })
+                .factory();
+        executor = Executors.newThreadPerTaskExecutor(factory);
         server = HttpServer.create(
-                new InetSocketAddress(Inet4Address.getByAddress(new byte[] {0x7f, 0x00, 0x00, 0x01}), port), 10);
+                new InetSocketAddress(Inet4Address.getByAddress(new byte[] {0x7f, 0x00, 0x00, 0x01}), port), 50);
+        handlers.clear();
         BeaconInterface.getAll().forEach(beaconInterface -> {
-            server.createContext(beaconInterface.getPath(), new BeaconRequestHandler<>(beaconInterface));
+            var handler = new BeaconRequestHandler<>(beaconInterface);
+            handlers.add(handler);
+            server.createContext(beaconInterface.getPath(), handler);
         });
         server.setExecutor(executor);
 
@@ -166,6 +177,15 @@ public class AppBeaconServer {
 
         server.start();
         running = true;
+
+        GlobalTimer.scheduleUntil(Duration.ofMinutes(1), false, () -> {
+            if (!running) {
+                return true;
+            }
+
+            ThreadHelper.runAsync(() -> cache.evictIdle());
+            return false;
+        });
     }
 
     private void handleCatchAll(HttpExchange exchange) throws IOException {
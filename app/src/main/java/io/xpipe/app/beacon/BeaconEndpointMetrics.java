@@ -0,0 +1,80 @@
+package io.xpipe.app.beacon;
+
+import io.xpipe.beacon.api.DaemonMetricsExchange;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and a latency histogram for a single beacon endpoint.
+ */
+public class BeaconEndpointMetrics {
+
+    /**
+     * The inclusive upper bounds of the latency buckets in milliseconds.
+     * The last bucket contains all requests that took longer than the largest bound.
+     */
+    public static final long[] BUCKET_BOUNDS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final String path;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public BeaconEndpointMetrics(String path) {
+        this.path = path;
+    }
+
+    public void onQueued() {
+        queued.incrementAndGet();
+    }
+
+    public void onDequeued(boolean accepted) {
+        queued.decrementAndGet();
+        if (accepted) {
+            active.incrementAndGet();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    public void onCompleted(long nanos, boolean success) {
+        active.decrementAndGet();
+        requests.increment();
+        if (!success) {
+            failures.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+
+        var millis = nanos / 1_000_000;
+        var index = Arrays.binarySearch(BUCKET_BOUNDS, millis);
+        buckets.incrementAndGet(index >= 0 ? index : -index - 1);
+    }
+
+    public DaemonMetricsExchange.Endpoint toEndpoint() {
+        var counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return DaemonMetricsExchange.Endpoint.builder()
+                .path(path)
+                .requests(requests.sum())
+                .failures(failures.sum())
+                .rejected(rejected.sum())
+                .active(active.get())
+                .queued(queued.get())
+                .totalMillis(totalNanos.sum() / 1_000_000)
+                .maxMillis(maxNanos.get() / 1_000_000)
+                .buckets(Arrays.stream(counts).boxed().toList())
+                .build();
+    }
+}
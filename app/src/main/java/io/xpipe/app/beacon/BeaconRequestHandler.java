@@ -1,5 +1,6 @@
 package io.xpipe.app.beacon;
 
+import io.xpipe.app.core.AppProperties;
 import io.xpipe.app.core.mode.OperationMode;
 import io.xpipe.app.issue.ErrorEventFactory;
 import io.xpipe.app.issue.TrackEvent;
@@ -8,8 +9,10 @@ import io.xpipe.app.util.ThreadHelper;
 import io.xpipe.beacon.*;
 import io.xpipe.core.JacksonMapper;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import lombok.Getter;
 import lombok.SneakyThrows;
 
 import java.io.IOException;
@@ -17,17 +20,55 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class BeaconRequestHandler<T> implements HttpHandler {
 
+    private static final long QUEUE_TIMEOUT_SECONDS = 60;
+
     private final BeaconInterface<T> beaconInterface;
+    private final Semaphore permits;
+
+    @Getter
+    private final BeaconEndpointMetrics metrics;
 
     public BeaconRequestHandler(BeaconInterface<T> beaconInterface) {
         this.beaconInterface = beaconInterface;
+        this.permits = new Semaphore(beaconInterface.getMaxConcurrentRequests(), true);
+        this.metrics = new BeaconEndpointMetrics(beaconInterface.getPath());
     }
 
     @Override
     public void handle(HttpExchange exchange) {
+        // Limit the requests per endpoint so that a single busy endpoint can't occupy all resources
+        metrics.onQueued();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(QUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            acquired = false;
+        }
+        metrics.onDequeued(acquired);
+        if (!acquired) {
+            writeError(
+                    exchange,
+                    new BeaconClientErrorResponse("Too many concurrent requests for " + beaconInterface.getPath()),
+                    429);
+            return;
+        }
+
+        var start = System.nanoTime();
+        try {
+            handleRequest(exchange);
+        } finally {
+            permits.release();
+            var code = exchange.getResponseCode();
+            metrics.onCompleted(System.nanoTime() - start, code >= 200 && code < 400);
+        }
+    }
+
+    private void handleRequest(HttpExchange exchange) {
         if (OperationMode.isInShutdown() && !beaconInterface.acceptInShutdown()) {
             writeError(exchange, new BeaconClientErrorResponse("Daemon is currently in shutdown"), 400);
             return;
@@ -46,28 +87,30 @@ public class BeaconRequestHandler<T> implements HttpHandler {
             return;
         }
 
+        var auth = exchange.getRequestHeaders().getFirst("Authorization");
+        var session = auth != null
+                ? AppBeaconServer.get().getSession(auth.replace("Bearer ", "")).orElse(null)
+                : null;
         if (!AppPrefs.get().disableApiAuthentication().get() && beaconInterface.requiresAuthentication()) {
-            var auth = exchange.getRequestHeaders().getFirst("Authorization");
             if (auth == null) {
                 writeError(exchange, new BeaconClientErrorResponse("Missing Authorization header"), 401);
                 return;
             }
 
-            var token = auth.replace("Bearer ", "");
-            var session = AppBeaconServer.get().getSessions().stream()
-                    .filter(s -> s.getToken().equals(token))
-                    .findFirst()
-                    .orElse(null);
             if (session == null) {
                 writeError(exchange, new BeaconClientErrorResponse("Unknown token"), 403);
                 return;
             }
         }
 
-        handleAuthenticatedRequest(exchange);
+        handleAuthenticatedRequest(exchange, session != null && session.isCompactEncoding());
+    }
+
+    private static boolean isTraceEnabled() {
+        return "trace".equals(AppProperties.get().getLogLevel());
     }
 
-    private void handleAuthenticatedRequest(HttpExchange exchange) {
+    private void handleAuthenticatedRequest(HttpExchange exchange, boolean compact) {
         T object;
         Object response;
         try {
@@ -86,7 +129,9 @@ public class BeaconRequestHandler<T> implements HttpHandler {
                         object = createRawDataRequest(beaconInterface, read);
                     } else {
                         var tree = JacksonMapper.getDefault().readTree(read);
-                        TrackEvent.trace("Parsed raw request:\n" + tree.toPrettyString());
+                        if (isTraceEnabled()) {
+                            TrackEvent.trace("Parsed raw request:\n" + tree.toPrettyString());
+                        }
                         var emptyRequestClass = tree.isEmpty()
                                 && beaconInterface.getRequestClass().getDeclaredFields().length == 0;
                         object = emptyRequestClass
@@ -139,16 +184,27 @@ public class BeaconRequestHandler<T> implements HttpHandler {
             return;
         }
 
+        byte[] bytes = null;
         try {
             var emptyResponseClass = beaconInterface.getResponseClass().getDeclaredFields().length == 0;
             if (!emptyResponseClass && response != null) {
-                TrackEvent.trace("Sending response:\n" + response);
-                TrackEvent.trace("Sending raw response:\n"
-                        + JacksonMapper.getCensored().valueToTree(response).toPrettyString());
-                var bytes = JacksonMapper.getDefault()
-                        .valueToTree(response)
-                        .toPrettyString()
-                        .getBytes(StandardCharsets.UTF_8);
+                if (isTraceEnabled()) {
+                    TrackEvent.trace("Sending response:\n" + response);
+                    TrackEvent.trace("Sending raw response:\n"
+                            + JacksonMapper.getCensored().valueToTree(response).toPrettyString());
+                }
+                // Serialize before sending any headers, so that a failure can still be reported as an error
+                bytes = serializeResponse(response, compact);
+            }
+        } catch (Throwable other) {
+            var event = ErrorEventFactory.fromThrowable(other).handle();
+            var link = event.getLink();
+            writeError(exchange, new BeaconServerErrorResponse(other, link), 500);
+            return;
+        }
+
+        try {
+            if (bytes != null) {
                 exchange.sendResponseHeaders(200, bytes.length);
                 try (OutputStream os = exchange.getResponseBody()) {
                     os.write(bytes);
@@ -168,6 +224,13 @@ public class BeaconRequestHandler<T> implements HttpHandler {
         }
     }
 
+    static byte[] serializeResponse(Object response, boolean compact) throws IOException {
+        var writer = compact
+                ? JacksonMapper.getDefault().writer().without(SerializationFeature.INDENT_OUTPUT)
+                : JacksonMapper.getDefault().writerWithDefaultPrettyPrinter();
+        return writer.writeValueAsBytes(response);
+    }
+
     private void writeError(HttpExchange exchange, Object errorMessage, int code) {
         try {
             var bytes =
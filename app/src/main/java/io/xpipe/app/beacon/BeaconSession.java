@@ -9,4 +9,5 @@ public class BeaconSession {
 
     BeaconClientInformation clientInformation;
     String token;
+    boolean compactEncoding;
 }
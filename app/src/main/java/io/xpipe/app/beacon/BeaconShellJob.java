@@ -0,0 +1,155 @@
+package io.xpipe.app.beacon;
+
+import io.xpipe.app.issue.ErrorEventFactory;
+import io.xpipe.app.process.CommandControl;
+import io.xpipe.app.process.ShellControl;
+import io.xpipe.app.util.ThreadHelper;
+import io.xpipe.core.FailableBiConsumer;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A command that is executed in the background. Its output is collected until it is retrieved by the client.
+ */
+public class BeaconShellJob {
+
+    @Getter
+    private final UUID id = UUID.randomUUID();
+
+    @Getter
+    private final BeaconShellOutput stdout = new BeaconShellOutput();
+
+    @Getter
+    private final BeaconShellOutput stderr = new BeaconShellOutput();
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile CommandControl command;
+    private volatile boolean cancelled;
+
+    @Getter
+    private volatile Long exitCode;
+
+    @Getter
+    private volatile String error;
+
+    @Getter
+    private volatile long finishedAt;
+
+    @Getter
+    private volatile long lastAccessed = System.currentTimeMillis();
+
+    public static BeaconShellJob start(BeaconShellSession session, String command) {
+        var job = new BeaconShellJob();
+        ThreadHelper.runAsync(() -> {
+            try (session) {
+                job.run(session.getControl(), command);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Reads stdout and stderr of a started command concurrently and passes the decoded output to the consumer as it
+     * arrives. The consumer receives true as the first argument for stderr output.
+     */
+    public static long execute(CommandControl command, FailableBiConsumer<Boolean, String, IOException> consumer)
+            throws Exception {
+        var errException = new AtomicReference<Exception>();
+        var errThread = ThreadHelper.runAsync(() -> {
+            try {
+                forward(command.getStderr(), command.getCharset(), true, consumer);
+            } catch (Exception e) {
+                errException.set(e);
+            }
+        });
+        forward(command.getStdout(), command.getCharset(), false, consumer);
+        errThread.join();
+        if (errException.get() != null) {
+            throw errException.get();
+        }
+
+        command.close();
+        return command.getExitCode();
+    }
+
+    private static void forward(
+            InputStream in,
+            Charset charset,
+            boolean stderr,
+            FailableBiConsumer<Boolean, String, IOException> consumer)
+            throws IOException {
+        // The reader takes care of characters that are split across reads
+        var reader = new InputStreamReader(in, charset);
+        var buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            if (read > 0) {
+                consumer.accept(stderr, new String(buffer, 0, read));
+            }
+        }
+    }
+
+    private void run(ShellControl control, String commandString) {
+        try (var cc = control.command(commandString).start()) {
+            command = cc;
+            if (cancelled) {
+                cc.kill();
+                return;
+            }
+
+            exitCode = execute(cc, (err, text) -> (err ? stderr : stdout).append(text));
+        } catch (Exception ex) {
+            if (!cancelled) {
+                error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+                ErrorEventFactory.fromThrowable(ex).omit().expected().handle();
+            }
+        } finally {
+            try {
+                stdout.finish();
+                stderr.finish();
+            } catch (IOException ex) {
+                ErrorEventFactory.fromThrowable(ex).omit().expected().handle();
+            }
+            finishedAt = System.currentTimeMillis();
+            done.countDown();
+        }
+    }
+
+    public void touch() {
+        lastAccessed = System.currentTimeMillis();
+    }
+
+    public boolean isRunning() {
+        return done.getCount() > 0;
+    }
+
+    public boolean await(Duration timeout) throws InterruptedException {
+        return done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void cancel() {
+        cancelled = true;
+        var cc = command;
+        if (cc != null) {
+            cc.kill();
+        }
+    }
+
+    /**
+     * Deletes the collected output, including blobs that have already been handed out.
+     */
+    public void releaseOutput() {
+        stdout.release();
+        stderr.release();
+    }
+}
@@ -0,0 +1,96 @@
+package io.xpipe.app.beacon;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Collects the output of a command. Only the beginning is kept in memory, once the output exceeds that size,
+ * the complete output is written into a blob file instead.
+ */
+public class BeaconShellOutput {
+
+    private static final int MAX_INLINE_LENGTH = 1024 * 1024;
+
+    private final StringBuilder inline = new StringBuilder();
+    private Path file;
+    private Writer fileWriter;
+    private UUID blob;
+    private boolean released;
+
+    public synchronized void append(String text) throws IOException {
+        if (released) {
+            return;
+        }
+
+        if (fileWriter == null && inline.length() + text.length() > MAX_INLINE_LENGTH) {
+            file = BlobManager.get().newBlobFile();
+            fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            fileWriter.write(inline.toString());
+        }
+
+        if (fileWriter != null) {
+            fileWriter.write(text);
+            var remaining = MAX_INLINE_LENGTH - inline.length();
+            if (remaining > 0) {
+                inline.append(text, 0, Math.min(remaining, text.length()));
+            }
+        } else {
+            inline.append(text);
+        }
+    }
+
+    /**
+     * Closes a possibly existing blob file and registers it with the blob manager.
+     */
+    public synchronized void finish() throws IOException {
+        if (fileWriter == null || blob != null || released) {
+            return;
+        }
+
+        fileWriter.close();
+        blob = UUID.randomUUID();
+        BlobManager.get().register(blob, file);
+    }
+
+    /**
+     * Deletes the blob or the unfinished blob file of this output. Any output that arrives afterward is discarded.
+     */
+    public synchronized void release() {
+        released = true;
+        inline.setLength(0);
+        if (blob != null) {
+            // The blob manager might have already been reset during shutdown
+            var manager = BlobManager.get();
+            if (manager != null) {
+                manager.remove(blob);
+            }
+            return;
+        }
+
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } catch (IOException ignored) {
+            }
+            FileUtils.deleteQuietly(file.toFile());
+        }
+    }
+
+    public synchronized String getInline() {
+        return inline.toString();
+    }
+
+    /**
+     * The id of the blob containing the complete output if it was too large to be kept in memory.
+     */
+    public synchronized Optional<UUID> getBlob() {
+        return Optional.ofNullable(blob);
+    }
+}
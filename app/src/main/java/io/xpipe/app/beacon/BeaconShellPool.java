@@ -0,0 +1,263 @@
+package io.xpipe.app.beacon;
+
+import io.xpipe.app.ext.ShellStore;
+import io.xpipe.app.issue.ErrorEventFactory;
+import io.xpipe.app.storage.DataStoreEntry;
+import io.xpipe.beacon.BeaconClientException;
+import io.xpipe.beacon.api.DaemonMetricsExchange;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Multiple shell controls for the same connection, so that independent requests don't have to wait for each other.
+ * Controls are started on demand up to a maximum count. Idle controls are reused in last-in-first-out order so that
+ * sequential requests usually end up in the same shell.
+ */
+public class BeaconShellPool {
+
+    private static final int MAX_SIZE = 4;
+    // Jobs keep their shell for a long time, so they get their own controls that don't count towards the normal size
+    private static final int MAX_JOB_SIZE = 4;
+    private static final Duration CHECKOUT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+    private static final Duration MAX_LIFETIME = Duration.ofHours(2);
+    private static final Duration HEALTH_CHECK_INTERVAL = Duration.ofSeconds(30);
+
+    private final DataStoreEntry entry;
+    private final Deque<BeaconShellSession> idle = new ArrayDeque<>();
+    private final List<BeaconShellSession> all = new ArrayList<>();
+    private int starting;
+    private int jobs;
+    private int waiting;
+    private boolean closed;
+    private long checkouts;
+    private long started;
+    private long evicted;
+
+    public BeaconShellPool(DataStoreEntry entry) {
+        this.entry = entry;
+    }
+
+    public BeaconShellSession checkout() throws Exception {
+        return checkout(false);
+    }
+
+    /**
+     * Checks out a control, waiting for a limited time if all controls are in use.
+     * Controls for jobs are limited separately so that long-running jobs can't block other requests.
+     */
+    public BeaconShellSession checkout(boolean job) throws Exception {
+        var deadline = System.currentTimeMillis() + CHECKOUT_TIMEOUT.toMillis();
+        while (true) {
+            BeaconShellSession candidate = null;
+            long idleSince = 0;
+            synchronized (this) {
+                while (true) {
+                    if (closed) {
+                        throw new IllegalStateException("Shell session for " + entry.getName() + " has been stopped");
+                    }
+
+                    var jobAvailable = !job || jobs < MAX_JOB_SIZE;
+                    if (jobAvailable && !idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                        idleSince = candidate.getLastUsed();
+                        candidate.setCheckedOut(true, job);
+                        if (job) {
+                            jobs++;
+                        }
+                        break;
+                    }
+
+                    var canStart = job ? jobAvailable : all.size() + starting - jobs < MAX_SIZE;
+                    if (canStart) {
+                        starting++;
+                        if (job) {
+                            jobs++;
+                        }
+                        break;
+                    }
+
+                    var remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new BeaconClientException("All shell sessions for " + entry.getName()
+                                + " are busy, try again later");
+                    }
+
+                    waiting++;
+                    try {
+                        wait(remaining);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            }
+
+            if (candidate == null) {
+                return startNew(job);
+            }
+
+            if (isHealthy(candidate, idleSince)) {
+                synchronized (this) {
+                    checkouts++;
+                }
+                return candidate;
+            }
+
+            remove(candidate);
+        }
+    }
+
+    private BeaconShellSession startNew(boolean job) throws Exception {
+        BeaconShellSession session;
+        try {
+            var control = ((ShellStore) entry.getStore()).standaloneControl().start();
+            control.setNonInteractive();
+            control.start();
+
+            var d = control.getShellDialect().getDumbMode();
+            if (!d.supportsAnyPossibleInteraction()) {
+                control.close();
+                d.throwIfUnsupported();
+            }
+
+            session = new BeaconShellSession(entry, control, this);
+            session.setCheckedOut(true, job);
+        } catch (Exception ex) {
+            synchronized (this) {
+                starting--;
+                if (job) {
+                    jobs--;
+                }
+                notifyAll();
+            }
+            throw ex;
+        }
+
+        synchronized (this) {
+            starting--;
+            if (closed) {
+                if (job) {
+                    jobs--;
+                }
+                closeControl(session);
+                throw new IllegalStateException("Shell session for " + entry.getName() + " has been stopped");
+            }
+
+            started++;
+            checkouts++;
+            all.add(session);
+        }
+        return session;
+    }
+
+    private boolean isHealthy(BeaconShellSession session, long idleSince) {
+        var control = session.getControl();
+        try {
+            control.refreshRunningState();
+            if (!control.isRunning(false)) {
+                return false;
+            }
+
+            // Only check shells that haven't been used recently as this requires a round trip
+            if (System.currentTimeMillis() - idleSince > HEALTH_CHECK_INTERVAL.toMillis()) {
+                control.command(" echo xpipetest").execute();
+            }
+            return true;
+        } catch (Exception ex) {
+            ErrorEventFactory.fromThrowable(ex).omit().expected().handle();
+            return false;
+        }
+    }
+
+    synchronized void release(BeaconShellSession session) {
+        if (!session.isCheckedOut()) {
+            return;
+        }
+
+        if (session.isJob()) {
+            jobs--;
+        }
+        session.setCheckedOut(false, false);
+        // Controls that were only started for jobs are not kept once there are enough idle ones
+        if (closed || isExpired(session, System.currentTimeMillis()) || all.size() - jobs > MAX_SIZE) {
+            all.remove(session);
+            evicted++;
+            closeControl(session);
+        } else {
+            idle.addFirst(session);
+        }
+        notifyAll();
+    }
+
+    private synchronized void remove(BeaconShellSession session) {
+        if (session.isJob()) {
+            jobs--;
+        }
+        all.remove(session);
+        evicted++;
+        closeControl(session);
+        notifyAll();
+    }
+
+    private boolean isExpired(BeaconShellSession session, long now) {
+        return now - session.getCreatedAt() > MAX_LIFETIME.toMillis();
+    }
+
+    /**
+     * Closes all idle controls that either haven't been used for a while or have exceeded their lifetime.
+     */
+    public synchronized void evictIdle() {
+        var now = System.currentTimeMillis();
+        var it = idle.iterator();
+        while (it.hasNext()) {
+            var session = it.next();
+            if (now - session.getLastUsed() > IDLE_TIMEOUT.toMillis() || isExpired(session, now)) {
+                it.remove();
+                all.remove(session);
+                evicted++;
+                closeControl(session);
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return all.isEmpty() && starting == 0;
+    }
+
+    /**
+     * Closes all controls, including the ones that are currently in use.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (var session : all) {
+            closeControl(session);
+        }
+        all.clear();
+        idle.clear();
+        notifyAll();
+    }
+
+    private void closeControl(BeaconShellSession session) {
+        try {
+            session.getControl().close();
+        } catch (Exception ex) {
+            ErrorEventFactory.fromThrowable(ex).omit().expected().handle();
+        }
+    }
+
+    public synchronized DaemonMetricsExchange.ShellPool getStatistics() {
+        return DaemonMetricsExchange.ShellPool.builder()
+                .connection(entry.getUuid())
+                .size(all.size())
+                .idle(idle.size())
+                .waiting(waiting)
+                .checkouts(checkouts)
+                .started(started)
+                .evicted(evicted)
+                .build();
+    }
+}
@@ -3,11 +3,38 @@ package io.xpipe.app.beacon;
 import io.xpipe.app.process.ShellControl;
 import io.xpipe.app.storage.DataStoreEntry;
 
-import lombok.Value;
+import lombok.Getter;
 
-@Value
-public class BeaconShellSession {
+/**
+ * A shell control that has been checked out from a pool. Closing it returns the control to the pool.
+ */
+@Getter
+public class BeaconShellSession implements AutoCloseable {
 
-    DataStoreEntry entry;
-    ShellControl control;
+    private final DataStoreEntry entry;
+    private final ShellControl control;
+    private final BeaconShellPool pool;
+    private final long createdAt;
+    private long lastUsed;
+    private boolean checkedOut;
+    private boolean job;
+
+    BeaconShellSession(DataStoreEntry entry, ShellControl control, BeaconShellPool pool) {
+        this.entry = entry;
+        this.control = control;
+        this.pool = pool;
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsed = createdAt;
+    }
+
+    void setCheckedOut(boolean checkedOut, boolean job) {
+        this.checkedOut = checkedOut;
+        this.job = job;
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    @Override
+    public void close() {
+        pool.release(this);
+    }
 }
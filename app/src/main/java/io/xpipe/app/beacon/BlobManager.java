@@ -9,18 +9,23 @@ import org.apache.commons.io.FileUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BlobManager {
 
     private static final Path TEMP = ShellTemp.getLocalTempDataDirectory("blob");
+    private static final int MAX_MEMORY_BLOB_SIZE = 16 * 1024 * 1024;
+    private static final long MAX_MEMORY_USAGE = 256L * 1024 * 1024;
     private static BlobManager INSTANCE;
     private final Map<UUID, byte[]> memoryBlobs = new ConcurrentHashMap<>();
     private final Map<UUID, Path> fileBlobs = new ConcurrentHashMap<>();
+    private final AtomicLong memoryUsage = new AtomicLong();
 
     public static BlobManager get() {
         return INSTANCE;
@@ -54,8 +59,25 @@ public class BlobManager {
         return file;
     }
 
-    public void store(UUID uuid, byte[] blob) {
-        memoryBlobs.put(uuid, blob);
+    private boolean reserveMemory(long size) {
+        if (size > MAX_MEMORY_BLOB_SIZE) {
+            return false;
+        }
+
+        var usage = memoryUsage.addAndGet(size);
+        if (usage > MAX_MEMORY_USAGE) {
+            memoryUsage.addAndGet(-size);
+            return false;
+        }
+        return true;
+    }
+
+    public void store(UUID uuid, byte[] blob) throws IOException {
+        if (reserveMemory(blob.length)) {
+            memoryBlobs.put(uuid, blob);
+        } else {
+            store(uuid, new ByteArrayInputStream(blob));
+        }
     }
 
     public void store(UUID uuid, InputStream blob) throws IOException {
@@ -66,6 +88,62 @@ public class BlobManager {
         fileBlobs.put(uuid, file);
     }
 
+    /**
+     * Stores a blob of a possibly unknown size, which is negative then.
+     * Only small blobs are kept in memory, and only as long as the total memory ceiling is not reached.
+     */
+    public void store(UUID uuid, InputStream blob, long size) throws IOException {
+        if (size >= 0) {
+            if (reserveMemory(size)) {
+                memoryBlobs.put(uuid, blob.readNBytes((int) size));
+            } else {
+                store(uuid, blob);
+            }
+            return;
+        }
+
+        var start = blob.readNBytes(MAX_MEMORY_BLOB_SIZE + 1);
+        if (start.length <= MAX_MEMORY_BLOB_SIZE && reserveMemory(start.length)) {
+            memoryBlobs.put(uuid, start);
+            return;
+        }
+
+        store(uuid, new SequenceInputStream(new ByteArrayInputStream(start), blob));
+    }
+
+    public void register(UUID uuid, Path file) {
+        fileBlobs.put(uuid, file);
+    }
+
+    /**
+     * Removes a blob once it has been consumed, which also releases its share of the memory ceiling.
+     */
+    public void remove(UUID uuid) {
+        var memory = memoryBlobs.remove(uuid);
+        if (memory != null) {
+            memoryUsage.addAndGet(-memory.length);
+        }
+
+        var file = fileBlobs.remove(uuid);
+        if (file != null) {
+            FileUtils.deleteQuietly(file.toFile());
+        }
+    }
+
+    public long getSize(UUID uuid) throws Exception {
+        var memory = memoryBlobs.get(uuid);
+        if (memory != null) {
+            return memory.length;
+        }
+
+        var found = fileBlobs.get(uuid);
+        if (found == null) {
+            throw new BeaconClientException("No saved data known for id " + uuid);
+        }
+
+        return Files.size(found);
+    }
+
     public InputStream getBlob(UUID uuid) throws Exception {
         var memory = memoryBlobs.get(uuid);
         if (memory != null) {
@@ -1,18 +1,23 @@
 package io.xpipe.app.beacon.impl;
 
+import io.xpipe.app.action.AbstractAction;
 import io.xpipe.app.action.ActionJacksonMapper;
 import io.xpipe.app.core.AppCache;
 import io.xpipe.app.core.window.AppDialog;
+import io.xpipe.app.hub.action.BatchStoreAction;
+import io.xpipe.app.util.FanOutExecutor;
 import io.xpipe.beacon.BeaconClientException;
 import io.xpipe.beacon.api.ActionExchange;
 
 import com.sun.net.httpserver.HttpExchange;
 
+import java.time.Duration;
+
 public class ActionExchangeImpl extends ActionExchange {
 
     @Override
     public Object handle(HttpExchange exchange, Request msg) throws Exception {
-        var action = ActionJacksonMapper.parse(msg.getAction());
+        AbstractAction action = ActionJacksonMapper.parse(msg.getAction());
         if (action == null) {
             throw new BeaconClientException("Unable to parse action into known schema");
         }
@@ -21,6 +26,29 @@ public class ActionExchangeImpl extends ActionExchange {
             return Response.builder().build();
         }
 
+        if (action instanceof BatchStoreAction<?> batch) {
+            var options = FanOutExecutor.Options.builder()
+                    .parallelism(msg.getParallelism() != null ? msg.getParallelism() : 1)
+                    .timeout(msg.getTimeout() != null ? Duration.ofMillis(msg.getTimeout()) : null)
+                    .failFast(!msg.isContinueOnError())
+                    .build();
+            var configured = batch.withOptions(options);
+            configured.executeSyncImpl(msg.isConfirm());
+            if (configured.getSummary() == null) {
+                return Response.builder().build();
+            }
+
+            var results = configured.getSummary().getResults().stream()
+                    .map(result -> Result.builder()
+                            .connection(result.getName())
+                            .status(result.getStatus().name().toLowerCase())
+                            .error(result.getError() != null ? result.getError().getMessage() : null)
+                            .duration(result.getDuration().toMillis())
+                            .build())
+                    .toList();
+            return Response.builder().results(results).build();
+        }
+
         action.executeSyncImpl(msg.isConfirm());
         return Response.builder().build();
     }
@@ -0,0 +1,34 @@
+package io.xpipe.app.beacon.impl;
+
+import io.xpipe.app.beacon.AppBeaconServer;
+import io.xpipe.app.beacon.BeaconEndpointMetrics;
+import io.xpipe.app.beacon.BeaconShellPool;
+import io.xpipe.beacon.api.DaemonMetricsExchange;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.util.Arrays;
+
+public class DaemonMetricsExchangeImpl extends DaemonMetricsExchange {
+
+    @Override
+    public boolean requiresCompletedStartup() {
+        return false;
+    }
+
+    @Override
+    public Object handle(HttpExchange exchange, Request msg) {
+        var endpoints = AppBeaconServer.get().getHandlers().stream()
+                .map(handler -> handler.getMetrics().toEndpoint())
+                .toList();
+        return Response.builder()
+                .bucketBounds(Arrays.stream(BeaconEndpointMetrics.BUCKET_BOUNDS)
+                        .boxed()
+                        .toList())
+                .endpoints(endpoints)
+                .shellPools(AppBeaconServer.get().getCache().getShellPools().values().stream()
+                        .map(BeaconShellPool::getStatistics)
+                        .toList())
+                .build();
+    }
+}
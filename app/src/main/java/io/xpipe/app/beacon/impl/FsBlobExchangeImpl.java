@@ -15,11 +15,10 @@ public class FsBlobExchangeImpl extends FsBlobExchange {
     public Object handle(HttpExchange exchange, Request msg) {
         var id = UUID.randomUUID();
 
-        var size = exchange.getRequestBody().available();
-        if (size > 100_000_000) {
-            BlobManager.get().store(id, exchange.getRequestBody());
-        } else {
-            BlobManager.get().store(id, exchange.getRequestBody().readAllBytes());
+        // The available bytes of the body stream don't tell anything about the total size
+        var size = FsUploadExchangeImpl.parseContentLength(exchange.getRequestHeaders().getFirst("Content-Length"));
+        try (var in = exchange.getRequestBody()) {
+            BlobManager.get().store(id, in, size);
         }
         return Response.builder().blob(id).build();
     }
@@ -1,60 +1,134 @@
 package io.xpipe.app.beacon.impl;
 
 import io.xpipe.app.beacon.AppBeaconServer;
-import io.xpipe.app.beacon.BlobManager;
 import io.xpipe.app.ext.ConnectionFileSystem;
+import io.xpipe.app.process.CommandBuilder;
+import io.xpipe.app.process.ShellControl;
+import io.xpipe.app.process.ShellDialects;
 import io.xpipe.app.util.FixedSizeInputStream;
 import io.xpipe.beacon.BeaconClientException;
 import io.xpipe.beacon.api.FsReadExchange;
+import io.xpipe.core.FilePath;
+import io.xpipe.core.OsType;
 
 import com.sun.net.httpserver.HttpExchange;
 import lombok.SneakyThrows;
 
 import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.file.Files;
+import java.util.regex.Pattern;
 
 public class FsReadExchangeImpl extends FsReadExchange {
 
-    @Override
-    @SneakyThrows
-    public Object handle(HttpExchange exchange, Request msg) {
-        var shell = AppBeaconServer.get().getCache().getShellSession(msg.getConnection());
-        var fs = new ConnectionFileSystem(shell.getControl());
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final int BUFFER_SIZE = 1024 * 1024;
 
-        if (!fs.fileExists(msg.getPath())) {
-            throw new BeaconClientException("File does not exist");
+    /**
+     * Returns the first and last byte of a single range request, or null if the whole file should be sent.
+     * The returned range can be unsatisfiable for the file size.
+     */
+    static long[] parseRange(String header, long size) {
+        if (header == null) {
+            return null;
         }
 
-        var size = fs.getFileSize(msg.getPath());
-        if (size > 100_000_000) {
-            var file = BlobManager.get().newBlobFile();
-            try (var in = fs.openInput(msg.getPath())) {
-                var fixedIn = new FixedSizeInputStream(new BufferedInputStream(in), size);
-                try (var fileOut =
-                        Files.newOutputStream(file.resolve(msg.getPath().getFileName()))) {
-                    fixedIn.transferTo(fileOut);
-                }
-                in.transferTo(OutputStream.nullOutputStream());
+        // Multiple ranges are not supported, the whole file is sent then
+        var matcher = RANGE.matcher(header.strip());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return null;
+        }
+
+        long start;
+        long end;
+        try {
+            if (matcher.group(1).isEmpty()) {
+                var suffix = Long.parseLong(matcher.group(2));
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(matcher.group(1));
+                end = matcher.group(2).isEmpty() ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
             }
+        } catch (NumberFormatException ex) {
+            // Values that don't fit into a long are invalid, which means that the header is ignored
+            return null;
+        }
+        return new long[] {start, end};
+    }
+
+    /**
+     * Opens the file at the start of a range, so that the bytes before it don't have to be sent by the remote system.
+     * Remote systems that can't start at an offset send the whole file, which is then skipped locally.
+     */
+    private static InputStream openInput(
+            ConnectionFileSystem fs, ShellControl sc, FilePath file, long start, long length, long size)
+            throws Exception {
+        if (start == 0 && length == size) {
+            return fs.openInput(file);
+        }
+
+        if (sc.isLocal()) {
+            var in = new FileInputStream(file.asLocalPath().toFile());
+            in.getChannel().position(start);
+            return in;
+        }
+
+        if (sc.getOsType() != OsType.WINDOWS
+                && !ShellDialects.isPowershell(sc)
+                && sc.view().findProgram("tail").isPresent()) {
+            // The range end is also applied remotely, so the rest of the file is not sent either
+            var command = CommandBuilder.of()
+                    .add("tail", "-c", "+" + (start + 1))
+                    .addFile(file)
+                    .add("|", "head", "-c", String.valueOf(length));
+            return sc.command(command).startExternalStdout();
+        }
 
-            exchange.sendResponseHeaders(200, size);
-            try (var fileIn = Files.newInputStream(file);
-                    var out = exchange.getResponseBody()) {
-                fileIn.transferTo(out);
+        var in = fs.openInput(file);
+        in.skipNBytes(start);
+        return in;
+    }
+
+    @Override
+    @SneakyThrows
+    public Object handle(HttpExchange exchange, Request msg) {
+        try (var shell = AppBeaconServer.get().getCache().getShellSession(msg.getConnection())) {
+            var fs = new ConnectionFileSystem(shell.getControl());
+
+            if (!fs.fileExists(msg.getPath())) {
+                throw new BeaconClientException("File does not exist");
             }
-        } else {
-            byte[] bytes;
-            try (var in = fs.openInput(msg.getPath())) {
-                var fixedIn = new FixedSizeInputStream(new BufferedInputStream(in), size);
-                bytes = fixedIn.readAllBytes();
-                in.transferTo(OutputStream.nullOutputStream());
+
+            var size = fs.getFileSize(msg.getPath());
+            var range = parseRange(exchange.getRequestHeaders().getFirst("Range"), size);
+            if (range != null && (range[0] >= size || range[0] > range[1])) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes */" + size);
+                exchange.sendResponseHeaders(416, -1);
+                return Response.builder().build();
             }
-            exchange.sendResponseHeaders(200, bytes.length);
-            try (var out = exchange.getResponseBody()) {
-                out.write(bytes);
+
+            var start = range != null ? range[0] : 0;
+            var length = range != null ? range[1] - range[0] + 1 : size;
+
+            // The content is streamed directly from the file system without holding it in memory
+            try (var in = openInput(fs, shell.getControl(), msg.getPath(), start, length, size)) {
+                var bufferedIn = new BufferedInputStream(in, BUFFER_SIZE);
+
+                exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+                if (range != null) {
+                    exchange.getResponseHeaders()
+                            .set("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + size);
+                }
+                exchange.sendResponseHeaders(range != null ? 206 : 200, length > 0 ? length : -1);
+                try (var out = exchange.getResponseBody()) {
+                    new FixedSizeInputStream(bufferedIn, length).transferTo(out);
+                }
+
+                bufferedIn.transferTo(OutputStream.nullOutputStream());
             }
+            return Response.builder().build();
         }
-        return Response.builder().build();
     }
 }
@@ -15,13 +15,15 @@ public class FsScriptExchangeImpl extends FsScriptExchange {
     @Override
     @SneakyThrows
     public Object handle(HttpExchange exchange, Request msg) {
-        var shell = AppBeaconServer.get().getCache().getShellSession(msg.getConnection());
         String data;
         try (var in = BlobManager.get().getBlob(msg.getBlob())) {
             data = new String(in.readAllBytes(), StandardCharsets.UTF_8);
         }
-        data = shell.getControl().getShellDialect().prepareScriptContent(shell.getControl(), data);
-        var file = ScriptHelper.createExecScript(shell.getControl(), data);
-        return Response.builder().path(file).build();
+        BlobManager.get().remove(msg.getBlob());
+        try (var shell = AppBeaconServer.get().getCache().getShellSession(msg.getConnection())) {
+            data = shell.getControl().getShellDialect().prepareScriptContent(shell.getControl(), data);
+            var file = ScriptHelper.createExecScript(shell.getControl(), data);
+            return Response.builder().path(file).build();
+        }
     }
 }
@@ -0,0 +1,87 @@
+package io.xpipe.app.beacon.impl;
+
+import io.xpipe.app.beacon.AppBeaconServer;
+import io.xpipe.app.ext.ConnectionFileSystem;
+import io.xpipe.app.util.FixedSizeInputStream;
+import io.xpipe.beacon.BeaconClientException;
+import io.xpipe.beacon.api.FsUploadExchange;
+import io.xpipe.core.FilePath;
+
+import com.sun.net.httpserver.HttpExchange;
+import lombok.SneakyThrows;
+
+import java.io.BufferedInputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class FsUploadExchangeImpl extends FsUploadExchange {
+
+    private static Map<String, String> parseQuery(String query) {
+        var map = new HashMap<String, String>();
+        if (query == null) {
+            return map;
+        }
+
+        for (String s : query.split("&")) {
+            var split = s.split("=", 2);
+            if (split.length == 2) {
+                map.put(
+                        URLDecoder.decode(split[0], StandardCharsets.UTF_8),
+                        URLDecoder.decode(split[1], StandardCharsets.UTF_8));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns the size given by a Content-Length header, or -1 if it is not present.
+     */
+    static long parseContentLength(String header) throws BeaconClientException {
+        if (header == null) {
+            return -1;
+        }
+
+        try {
+            var size = Long.parseLong(header.strip());
+            if (size >= 0) {
+                return size;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new BeaconClientException("Invalid Content-Length header " + header);
+    }
+
+    @Override
+    @SneakyThrows
+    public Object handle(HttpExchange exchange, Request msg) {
+        var query = parseQuery(exchange.getRequestURI().getRawQuery());
+        var connection = query.get("connection");
+        var path = query.get("path");
+        if (connection == null || path == null) {
+            throw new BeaconClientException("Missing connection or path query parameter");
+        }
+
+        UUID connectionId;
+        try {
+            connectionId = UUID.fromString(connection);
+        } catch (IllegalArgumentException ex) {
+            throw new BeaconClientException("Invalid connection id " + connection);
+        }
+
+        // The remote write command has to know the size in advance
+        var size = parseContentLength(exchange.getRequestHeaders().getFirst("Content-Length"));
+        if (size < 0) {
+            throw new BeaconClientException("Missing Content-Length header");
+        }
+
+        try (var shell = AppBeaconServer.get().getCache().getShellSession(connectionId);
+                var in = exchange.getRequestBody();
+                var os = new ConnectionFileSystem(shell.getControl()).openOutput(FilePath.of(path), size)) {
+            new FixedSizeInputStream(new BufferedInputStream(in, 1024 * 1024), size).transferTo(os);
+        }
+        return Response.builder().build();
+    }
+}
@@ -13,12 +13,13 @@ public class FsWriteExchangeImpl extends FsWriteExchange {
     @Override
     @SneakyThrows
     public Object handle(HttpExchange exchange, Request msg) {
-        var shell = AppBeaconServer.get().getCache().getShellSession(msg.getConnection());
-        var fs = new ConnectionFileSystem(shell.getControl());
-        try (var in = BlobManager.get().getBlob(msg.getBlob());
-                var os = fs.openOutput(msg.getPath(), in.available())) {
+        var size = BlobManager.get().getSize(msg.getBlob());
+        try (var shell = AppBeaconServer.get().getCache().getShellSession(msg.getConnection());
+                var in = BlobManager.get().getBlob(msg.getBlob());
+                var os = new ConnectionFileSystem(shell.getControl()).openOutput(msg.getPath(), size)) {
             in.transferTo(os);
         }
+        BlobManager.get().remove(msg.getBlob());
         return Response.builder().build();
     }
 }
@@ -24,9 +24,13 @@ public class HandshakeExchangeImpl extends HandshakeExchange {
             throw new BeaconClientException("Authentication failed");
         }
 
-        var session = new BeaconSession(body.getClient(), UUID.randomUUID().toString());
+        var session =
+                new BeaconSession(body.getClient(), UUID.randomUUID().toString(), body.isCompactEncoding());
         AppBeaconServer.get().addSession(session);
-        return Response.builder().sessionToken(session.getToken()).build();
+        return Response.builder()
+                .sessionToken(session.getToken())
+                .compactEncoding(session.isCompactEncoding())
+                .build();
     }
 
     @Override
@@ -1,11 +1,17 @@
 package io.xpipe.app.beacon.impl;
 
 import io.xpipe.app.beacon.AppBeaconServer;
+import io.xpipe.app.beacon.BeaconShellJob;
+import io.xpipe.app.process.CommandControl;
 import io.xpipe.beacon.api.ShellExecExchange;
+import io.xpipe.core.JacksonMapper;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.sun.net.httpserver.HttpExchange;
 import lombok.SneakyThrows;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class ShellExecExchangeImpl extends ShellExecExchange {
@@ -13,16 +19,24 @@ public class ShellExecExchangeImpl extends ShellExecExchange {
     @Override
     @SneakyThrows
     public Object handle(HttpExchange exchange, Request msg) {
-        var existing = AppBeaconServer.get().getCache().getShellSession(msg.getConnection());
         AtomicReference<String> out = new AtomicReference<>();
         AtomicReference<String> err = new AtomicReference<>();
         long exitCode;
-        try (var command = existing.getControl().command(msg.getCommand()).start()) {
-            var r = command.readStdoutAndStderr();
-            out.set(r[0]);
-            err.set(r[1]);
-            command.close();
-            exitCode = command.getExitCode();
+        try (var existing = AppBeaconServer.get().getCache().getShellSession(msg.getConnection())) {
+            if (msg.isStream()) {
+                try (var command = existing.getControl().command(msg.getCommand()).start()) {
+                    stream(exchange, command);
+                }
+                return null;
+            }
+
+            try (var command = existing.getControl().command(msg.getCommand()).start()) {
+                var r = command.readStdoutAndStderr();
+                out.set(r[0]);
+                err.set(r[1]);
+                command.close();
+                exitCode = command.getExitCode();
+            }
         }
         return Response.builder()
                 .stdout(out.get())
@@ -30,4 +44,47 @@ public class ShellExecExchangeImpl extends ShellExecExchange {
                 .exitCode(exitCode)
                 .build();
     }
+
+    private void stream(HttpExchange exchange, CommandControl command) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        try (var out = exchange.getResponseBody()) {
+            try {
+                var exitCode = BeaconShellJob.execute(command, (err, text) -> {
+                    writeFrame(
+                            out,
+                            Frame.builder()
+                                    .type(err ? "stderr" : "stdout")
+                                    .data(text)
+                                    .build());
+                });
+                writeFrame(out, Frame.builder().type("exit").exitCode(exitCode).build());
+            } catch (IOException ex) {
+                // The client has most likely disconnected
+                command.kill();
+                throw ex;
+            } catch (Exception ex) {
+                // The status code has already been sent, so errors can only be reported within the stream
+                writeFrame(
+                        out,
+                        Frame.builder()
+                                .type("error")
+                                .data(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName())
+                                .build());
+            }
+        }
+    }
+
+    private void writeFrame(OutputStream out, Frame frame) throws IOException {
+        var bytes = JacksonMapper.getDefault()
+                .writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .writeValueAsBytes(frame);
+        // Stdout and stderr are forwarded from different threads
+        synchronized (out) {
+            out.write(bytes);
+            out.write('\n');
+            out.flush();
+        }
+    }
 }
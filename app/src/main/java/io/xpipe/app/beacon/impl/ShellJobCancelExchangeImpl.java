@@ -0,0 +1,19 @@
+package io.xpipe.app.beacon.impl;
+
+import io.xpipe.app.beacon.AppBeaconServer;
+import io.xpipe.beacon.api.ShellJobCancelExchange;
+
+import com.sun.net.httpserver.HttpExchange;
+import lombok.SneakyThrows;
+
+public class ShellJobCancelExchangeImpl extends ShellJobCancelExchange {
+
+    @Override
+    @SneakyThrows
+    public Object handle(HttpExchange exchange, Request msg) {
+        var job = AppBeaconServer.get().getCache().getShellJob(msg.getJob());
+        job.cancel();
+        AppBeaconServer.get().getCache().removeShellJob(job, false);
+        return Response.builder().build();
+    }
+}
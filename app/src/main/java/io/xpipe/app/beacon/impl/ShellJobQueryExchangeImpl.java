@@ -0,0 +1,36 @@
+package io.xpipe.app.beacon.impl;
+
+import io.xpipe.app.beacon.AppBeaconServer;
+import io.xpipe.beacon.api.ShellJobQueryExchange;
+
+import com.sun.net.httpserver.HttpExchange;
+import lombok.SneakyThrows;
+
+import java.time.Duration;
+
+public class ShellJobQueryExchangeImpl extends ShellJobQueryExchange {
+
+    @Override
+    @SneakyThrows
+    public Object handle(HttpExchange exchange, Request msg) {
+        var job = AppBeaconServer.get().getCache().getShellJob(msg.getJob());
+        if (msg.getWait() > 0) {
+            job.await(Duration.ofMillis(msg.getWait()));
+        }
+
+        var running = job.isRunning();
+        var response = Response.builder()
+                .running(running)
+                .exitCode(job.getExitCode())
+                .error(job.getError())
+                .stdout(job.getStdout().getInline())
+                .stderr(job.getStderr().getInline())
+                .stdoutBlob(job.getStdout().getBlob().orElse(null))
+                .stderrBlob(job.getStderr().getBlob().orElse(null))
+                .build();
+        if (!running) {
+            AppBeaconServer.get().getCache().removeShellJob(job, true);
+        }
+        return response;
+    }
+}
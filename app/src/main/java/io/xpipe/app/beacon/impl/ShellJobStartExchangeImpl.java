@@ -0,0 +1,27 @@
+package io.xpipe.app.beacon.impl;
+
+import io.xpipe.app.beacon.AppBeaconServer;
+import io.xpipe.app.beacon.BeaconShellJob;
+import io.xpipe.beacon.api.ShellJobStartExchange;
+
+import com.sun.net.httpserver.HttpExchange;
+import lombok.SneakyThrows;
+
+public class ShellJobStartExchangeImpl extends ShellJobStartExchange {
+
+    @Override
+    @SneakyThrows
+    public Object handle(HttpExchange exchange, Request msg) {
+        var existing = AppBeaconServer.get().getCache().getShellSession(msg.getConnection(), true);
+        BeaconShellJob job;
+        try {
+            // The job returns the shell to the pool once it has finished
+            job = BeaconShellJob.start(existing, msg.getCommand());
+        } catch (Exception ex) {
+            existing.close();
+            throw ex;
+        }
+        AppBeaconServer.get().getCache().getShellJobs().put(job.getId(), job);
+        return Response.builder().job(job.getId()).build();
+    }
+}
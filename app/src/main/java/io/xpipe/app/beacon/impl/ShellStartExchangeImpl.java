@@ -1,7 +1,6 @@
 package io.xpipe.app.beacon.impl;
 
 import io.xpipe.app.beacon.AppBeaconServer;
-import io.xpipe.app.beacon.BeaconShellSession;
 import io.xpipe.app.ext.ShellStore;
 import io.xpipe.app.storage.DataStorage;
 import io.xpipe.beacon.BeaconClientException;
@@ -19,34 +18,19 @@ public class ShellStartExchangeImpl extends ShellStartExchange {
         var e = DataStorage.get()
                 .getStoreEntryIfPresent(msg.getConnection())
                 .orElseThrow(() -> new BeaconClientException("Unknown connection"));
-        if (!(e.getStore() instanceof ShellStore s)) {
+        if (!(e.getStore() instanceof ShellStore)) {
             throw new BeaconClientException("Not a shell connection");
         }
 
-        var existing = AppBeaconServer.get().getCache().getShellSessions().stream()
-                .filter(beaconShellSession -> beaconShellSession.getEntry().equals(e))
-                .findFirst();
-        var control = (existing.isPresent()
-                ? existing.get().getControl()
-                : s.standaloneControl().start());
-        control.setNonInteractive();
-        control.start();
-
-        var d = control.getShellDialect().getDumbMode();
-        if (!d.supportsAnyPossibleInteraction()) {
-            control.close();
-            d.throwIfUnsupported();
-        }
-
-        if (existing.isEmpty()) {
-            AppBeaconServer.get().getCache().getShellSessions().add(new BeaconShellSession(e, control));
+        try (var session = AppBeaconServer.get().getCache().getOrStart(e)) {
+            var control = session.getControl();
+            return Response.builder()
+                    .shellDialect(control.getShellDialect().getId())
+                    .osType(control.getOsType())
+                    .osName(control.getOsName())
+                    .temp(control.getSystemTemporaryDirectory())
+                    .ttyState(JacksonMapper.getDefault().writeValueAsString(control.getTtyState()))
+                    .build();
         }
-        return Response.builder()
-                .shellDialect(control.getShellDialect().getId())
-                .osType(control.getOsType())
-                .osName(control.getOsName())
-                .temp(control.getSystemTemporaryDirectory())
-                .ttyState(JacksonMapper.getDefault().writeValueAsString(control.getTtyState()))
-                .build();
     }
 }
@@ -11,9 +11,7 @@ public class ShellStopExchangeImpl extends ShellStopExchange {
     @Override
     @SneakyThrows
     public Object handle(HttpExchange exchange, Request msg) {
-        var e = AppBeaconServer.get().getCache().getShellSession(msg.getConnection());
-        e.getControl().close();
-        AppBeaconServer.get().getCache().getShellSessions().remove(e);
+        AppBeaconServer.get().getCache().stopShellSession(msg.getConnection());
         return Response.builder().build();
     }
 }
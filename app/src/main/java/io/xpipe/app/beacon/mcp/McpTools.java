@@ -138,19 +138,20 @@ public final class McpTools {
                     var path = req.getFilePath("path");
                     var system = req.getStringArgument("system");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    if (!fs.fileExists(path)) {
-                        throw new BeaconClientException("File " + path + " does not exist");
-                    }
+                        if (!fs.fileExists(path)) {
+                            throw new BeaconClientException("File " + path + " does not exist");
+                        }
 
-                    try (var in = fs.openInput(path)) {
-                        var b = in.readAllBytes();
-                        var s = new String(b, StandardCharsets.UTF_8);
-                        return McpSchema.CallToolResult.builder()
-                                .addTextContent(s)
-                                .build();
+                        try (var in = fs.openInput(path)) {
+                            var b = in.readAllBytes();
+                            var s = new String(b, StandardCharsets.UTF_8);
+                            return McpSchema.CallToolResult.builder()
+                                    .addTextContent(s)
+                                    .build();
+                        }
                     }
                 }))
                 .build();
@@ -165,20 +166,23 @@ public final class McpTools {
                     var system = req.getStringArgument("system");
                     var recursive = req.getOptionalBooleanArgument("recursive").orElse(false);
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    if (!fs.directoryExists(path)) {
-                        throw new BeaconClientException("Directory " + path + " does not exist");
-                    }
+                        if (!fs.directoryExists(path)) {
+                            throw new BeaconClientException("Directory " + path + " does not exist");
+                        }
 
-                    try (var stream = recursive ? fs.listFilesRecursively(fs, path).stream() : fs.listFiles(fs, path)) {
-                        var list = stream.toList();
-                        var builder = McpSchema.CallToolResult.builder();
-                        for (FileEntry e : list) {
-                            builder.addTextContent(e.getPath().toString());
+                        try (var stream = recursive
+                                ? fs.listFilesRecursively(fs, path).stream()
+                                : fs.listFiles(fs, path)) {
+                            var list = stream.toList();
+                            var builder = McpSchema.CallToolResult.builder();
+                            for (FileEntry e : list) {
+                                builder.addTextContent(e.getPath().toString());
+                            }
+                            return builder.build();
                         }
-                        return builder.build();
                     }
                 }))
                 .build();
@@ -194,25 +198,28 @@ public final class McpTools {
                     var recursive = req.getOptionalBooleanArgument("recursive").orElse(false);
                     var pattern = req.getStringArgument("name");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    if (!fs.directoryExists(path)) {
-                        throw new BeaconClientException("Directory " + path + " does not exist");
-                    }
+                        if (!fs.directoryExists(path)) {
+                            throw new BeaconClientException("Directory " + path + " does not exist");
+                        }
 
-                    var regex = Pattern.compile(DataStorageQuery.toRegex(pattern));
-                    try (var stream = recursive ? fs.listFilesRecursively(fs, path).stream() : fs.listFiles(fs, path)) {
-                        var list = stream.toList();
-                        var builder = McpSchema.CallToolResult.builder();
-                        list.stream()
-                                .filter(fileEntry -> regex.matcher(
-                                                fileEntry.getPath().toString())
-                                        .find())
-                                .forEach(fileEntry -> {
-                                    builder.addTextContent(fileEntry.getPath().toString());
-                                });
-                        return builder.build();
+                        var regex = Pattern.compile(DataStorageQuery.toRegex(pattern));
+                        try (var stream = recursive
+                                ? fs.listFilesRecursively(fs, path).stream()
+                                : fs.listFiles(fs, path)) {
+                            var list = stream.toList();
+                            var builder = McpSchema.CallToolResult.builder();
+                            list.stream()
+                                    .filter(fileEntry -> regex.matcher(
+                                                    fileEntry.getPath().toString())
+                                            .find())
+                                    .forEach(fileEntry -> {
+                                        builder.addTextContent(fileEntry.getPath().toString());
+                                    });
+                            return builder.build();
+                        }
                     }
                 }))
                 .build();
@@ -226,35 +233,36 @@ public final class McpTools {
                     var path = req.getFilePath("path");
                     var system = req.getStringArgument("system");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    if (!fs.fileExists(path)) {
-                        throw new BeaconClientException("File " + path + " does not exist");
-                    }
+                        if (!fs.fileExists(path)) {
+                            throw new BeaconClientException("File " + path + " does not exist");
+                        }
 
-                    var entry = fs.getFileInfo(path);
-                    if (entry.isEmpty()) {
-                        throw new BeaconClientException("File " + path + " does not exist");
-                    }
+                        var entry = fs.getFileInfo(path);
+                        if (entry.isEmpty()) {
+                            throw new BeaconClientException("File " + path + " does not exist");
+                        }
 
-                    var map = new LinkedHashMap<String, Object>();
-                    map.put("path", entry.get().getPath().toString());
-                    map.put("size", entry.get().getSize());
-                    if (entry.get().getInfo() instanceof FileInfo.Unix u) {
-                        map.put("permissions", u.getPermissions());
-                        map.put("user", u.getUser());
-                        map.put("group", u.getGroup());
-                    } else if (entry.get().getInfo() instanceof FileInfo.Windows w) {
-                        map.put("attributes", w.getAttributes());
-                    }
-                    map.put("type", entry.get().getKind().toString().toLowerCase());
-                    map.put("date", entry.get().getDate().toString());
-                    map.entrySet().removeIf(e -> e.getValue() == null);
+                        var map = new LinkedHashMap<String, Object>();
+                        map.put("path", entry.get().getPath().toString());
+                        map.put("size", entry.get().getSize());
+                        if (entry.get().getInfo() instanceof FileInfo.Unix u) {
+                            map.put("permissions", u.getPermissions());
+                            map.put("user", u.getUser());
+                            map.put("group", u.getGroup());
+                        } else if (entry.get().getInfo() instanceof FileInfo.Windows w) {
+                            map.put("attributes", w.getAttributes());
+                        }
+                        map.put("type", entry.get().getKind().toString().toLowerCase());
+                        map.put("date", entry.get().getDate().toString());
+                        map.entrySet().removeIf(e -> e.getValue() == null);
 
-                    return McpSchema.CallToolResult.builder()
-                            .structuredContent(map)
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .structuredContent(map)
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -267,26 +275,27 @@ public final class McpTools {
                     var path = req.getFilePath("path");
                     var system = req.getStringArgument("system");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    if (fs.fileExists(path)) {
-                        throw new BeaconClientException("File " + path + " does already exist");
-                    }
+                        if (fs.fileExists(path)) {
+                            throw new BeaconClientException("File " + path + " does already exist");
+                        }
 
-                    fs.touch(path);
+                        fs.touch(path);
 
-                    if (req.getRawRequest().arguments().containsKey("content")) {
-                        var s = req.getRawRequest().arguments().get("content").toString();
-                        var b = s.getBytes(StandardCharsets.UTF_8);
-                        try (var out = fs.openOutput(path, b.length)) {
-                            out.write(b);
+                        if (req.getRawRequest().arguments().containsKey("content")) {
+                            var s = req.getRawRequest().arguments().get("content").toString();
+                            var b = s.getBytes(StandardCharsets.UTF_8);
+                            try (var out = fs.openOutput(path, b.length)) {
+                                out.write(b);
+                            }
                         }
-                    }
 
-                    return McpSchema.CallToolResult.builder()
-                            .addTextContent("File created successfully")
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent("File created successfully")
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -300,17 +309,18 @@ public final class McpTools {
                     var system = req.getStringArgument("system");
                     var content = req.getStringArgument("content");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    var b = content.getBytes(StandardCharsets.UTF_8);
-                    try (var out = fs.openOutput(path, b.length)) {
-                        out.write(b);
-                    }
+                        var b = content.getBytes(StandardCharsets.UTF_8);
+                        try (var out = fs.openOutput(path, b.length)) {
+                            out.write(b);
+                        }
 
-                    return McpSchema.CallToolResult.builder()
-                            .addTextContent("File written successfully")
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent("File written successfully")
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -323,18 +333,19 @@ public final class McpTools {
                     var path = req.getFilePath("path");
                     var system = req.getStringArgument("system");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-                    var fs = new ConnectionFileSystem(shellSession.getControl());
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var fs = new ConnectionFileSystem(shellSession.getControl());
 
-                    if (fs.fileExists(path)) {
-                        throw new BeaconClientException("Directory " + path + " does already exist");
-                    }
+                        if (fs.fileExists(path)) {
+                            throw new BeaconClientException("Directory " + path + " does already exist");
+                        }
 
-                    fs.mkdirs(path);
+                        fs.mkdirs(path);
 
-                    return McpSchema.CallToolResult.builder()
-                            .addTextContent("Directory created successfully")
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent("Directory created successfully")
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -347,14 +358,14 @@ public final class McpTools {
                     var command = req.getStringArgument("command");
                     var system = req.getStringArgument("system");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-
-                    var out = shellSession.getControl().command(command).readStdoutOrThrow();
-                    var formatted = CommandDialog.formatOutput(out);
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var out = shellSession.getControl().command(command).readStdoutOrThrow();
+                        var formatted = CommandDialog.formatOutput(out);
 
-                    return McpSchema.CallToolResult.builder()
-                            .addTextContent(formatted)
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent(formatted)
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -370,31 +381,31 @@ public final class McpTools {
                     var arguments = req.getStringArgument("arguments");
 
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-
-                    var clazz = Class.forName(
-                            AppExtensionManager.getInstance()
-                                    .getExtendedLayer()
-                                    .findModule(AppNames.extModuleName("base"))
-                                    .orElseThrow(),
-                            AppNames.extModuleName("base") + ".script.SimpleScriptStore");
-                    var method = clazz.getDeclaredMethod("assembleScriptChain", ShellControl.class);
-                    var command = (String) method.invoke(script.getStore(), shellSession.getControl());
-                    var scriptFile = ScriptHelper.createExecScript(shellSession.getControl(), command);
-                    var out = shellSession
-                            .getControl()
-                            .command(shellSession
-                                            .getControl()
-                                            .getShellDialect()
-                                            .runScriptCommand(shellSession.getControl(), scriptFile.toString())
-                                    + arguments)
-                            .withWorkingDirectory(directory)
-                            .readStdoutOrThrow();
-                    var formatted = CommandDialog.formatOutput(out);
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var clazz = Class.forName(
+                                AppExtensionManager.getInstance()
+                                        .getExtendedLayer()
+                                        .findModule(AppNames.extModuleName("base"))
+                                        .orElseThrow(),
+                                AppNames.extModuleName("base") + ".script.SimpleScriptStore");
+                        var method = clazz.getDeclaredMethod("assembleScriptChain", ShellControl.class);
+                        var command = (String) method.invoke(script.getStore(), shellSession.getControl());
+                        var scriptFile = ScriptHelper.createExecScript(shellSession.getControl(), command);
+                        var out = shellSession
+                                .getControl()
+                                .command(shellSession
+                                                .getControl()
+                                                .getShellDialect()
+                                                .runScriptCommand(shellSession.getControl(), scriptFile.toString())
+                                        + arguments)
+                                .withWorkingDirectory(directory)
+                                .readStdoutOrThrow();
+                        var formatted = CommandDialog.formatOutput(out);
 
-                    return McpSchema.CallToolResult.builder()
-                            .addTextContent(formatted)
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent(formatted)
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -407,17 +418,17 @@ public final class McpTools {
                     var system = req.getStringArgument("system");
                     var directory = req.getOptionalStringArgument("directory");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-
-                    TerminalLaunch.builder()
-                            .entry(shellStore.get())
-                            .directory(FilePath.of(directory.orElse(null)))
-                            .command(shellSession.getControl())
-                            .launch();
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        TerminalLaunch.builder()
+                                .entry(shellStore.get())
+                                .directory(FilePath.of(directory.orElse(null)))
+                                .command(shellSession.getControl())
+                                .launch();
 
-                    return McpSchema.CallToolResult.builder()
-                            .addTextContent("Terminal is launching")
-                            .build();
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent("Terminal is launching")
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -430,22 +441,22 @@ public final class McpTools {
                     var system = req.getStringArgument("system");
                     var directory = req.getOptionalStringArgument("directory");
                     var shellStore = req.getShellStoreRef(system);
-                    var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore);
-
-                    var script = shellSession
-                            .getControl()
-                            .prepareTerminalOpen(
-                                    TerminalInitScriptConfig.ofName(
-                                            shellStore.get().getName()),
-                                    directory.isPresent()
-                                            ? WorkingDirectoryFunction.fixed(FilePath.parse(directory.get()))
-                                            : WorkingDirectoryFunction.none());
-
-                    var json = JsonNodeFactory.instance.objectNode();
-                    json.put("command", script);
-                    return McpSchema.CallToolResult.builder()
-                            .structuredContent(JacksonMapper.getDefault().writeValueAsString(json))
-                            .build();
+                    try (var shellSession = AppBeaconServer.get().getCache().getOrStart(shellStore)) {
+                        var script = shellSession
+                                .getControl()
+                                .prepareTerminalOpen(
+                                        TerminalInitScriptConfig.ofName(
+                                                shellStore.get().getName()),
+                                        directory.isPresent()
+                                                ? WorkingDirectoryFunction.fixed(FilePath.parse(directory.get()))
+                                                : WorkingDirectoryFunction.none());
+
+                        var json = JsonNodeFactory.instance.objectNode();
+                        json.put("command", script);
+                        return McpSchema.CallToolResult.builder()
+                                .structuredContent(JacksonMapper.getDefault().writeValueAsString(json))
+                                .build();
+                    }
                 }))
                 .build();
     }
@@ -75,9 +75,10 @@ public abstract class BrowserAction extends StoreAction<FileSystemStore> {
         }
 
         if (files != null) {
+            // Check all files at once, which only takes a single round trip for most shells
+            var existing = model.getFileSystem().findExisting(files);
             for (var f : files) {
-                if (!model.getFileSystem().fileExists(f)
-                        && !model.getFileSystem().directoryExists(f)) {
+                if (!existing.contains(f)) {
                     throw ErrorEventFactory.expected(new IllegalArgumentException("Target " + f + " does not exist"));
                 }
             }
@@ -72,8 +72,6 @@ public final class BrowserConnectionListComp extends SimpleComp {
                         this::filter,
                         filter,
                         category,
-                        StoreViewState.get().getEntriesListVisibilityObservable(),
-                        StoreViewState.get().getEntriesListUpdateObservable(),
                         new ReadOnlyBooleanWrapper(true)),
                 augment,
                 selectedAction -> {
@@ -134,8 +134,10 @@ public final class BrowserFileListModel {
         if (!skipExistCheck) {
             boolean exists;
             try {
-                exists = fileSystemModel.getFileSystem().fileExists(newFullPath)
-                        || fileSystemModel.getFileSystem().directoryExists(newFullPath);
+                exists = !fileSystemModel
+                        .getFileSystem()
+                        .findExisting(List.of(newFullPath))
+                        .isEmpty();
             } catch (Exception e) {
                 ErrorEventFactory.fromThrowable(e).handle();
                 return old;
@@ -3,6 +3,7 @@ package io.xpipe.app.browser.file;
 import io.xpipe.app.process.CommandBuilder;
 import io.xpipe.app.process.ShellControl;
 import io.xpipe.app.process.ShellDialect;
+import io.xpipe.app.process.ShellHostFacts;
 import io.xpipe.app.util.PasswdFile;
 import io.xpipe.app.util.ShellControlCache;
 import io.xpipe.core.OsType;
@@ -11,6 +12,7 @@ import lombok.Getter;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Getter
 public class BrowserFileSystemCache extends ShellControlCache {
@@ -26,6 +28,27 @@ public class BrowserFileSystemCache extends ShellControlCache {
 
         ShellControl sc = model.getFileSystem().getShell().get();
         ShellDialect d = sc.getShellDialect();
+        // The user is usually already known from the host facts and the users and groups can be read at once
+        var facts = sc.view().getHostFacts();
+        var accounts = facts.isPresent() && facts.get().getUser() != null
+                ? ShellHostFacts.gatherAccounts(sc)
+                : Optional.<ShellHostFacts.Accounts>empty();
+        if (accounts.isPresent()) {
+            username = facts.get().getUser();
+            passwdFile = PasswdFile.of(accounts.get().getUsers());
+            groups.putAll(accounts.get().getGroups());
+            // The files are not read on macOS
+            if (sc.getOsType() != OsType.MACOS) {
+                if (passwdFile.getUsers().isEmpty()) {
+                    passwdFile.getUsers().put(0, "root");
+                }
+                if (groups.isEmpty()) {
+                    groups.put(0, "root");
+                }
+            }
+            return;
+        }
+
         // If there is no id command, we should still be fine with just assuming root
         username = d.printUsernameCommand(sc).readStdoutIfPossible().orElse("root");
         passwdFile = PasswdFile.parse(sc);
@@ -0,0 +1,207 @@
+package io.xpipe.app.browser.file;
+
+import io.xpipe.app.util.ThreadHelper;
+
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Copies the contents of a single file from an input to an output stream.
+ * Transfers between two local files go through their file channels, all other streams are copied with two buffers
+ * so that the next chunk can already be read while the previous one is still being written.
+ */
+class BrowserFileTransferEngine {
+
+    static final int MIN_BUFFER_SIZE = 64 * 1024;
+    static final int MAX_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private static final int BUFFER_COUNT = 2;
+    private static final long GROW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SHRINK_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final long expectedSize;
+    private final AtomicLong totalTransferred;
+    private final AtomicLong totalSize;
+    private final Consumer<BrowserTransferProgress> progress;
+    private final BooleanSupplier shouldContinue;
+
+    /**
+     * The amount of bytes of this file that have been written so far.
+     */
+    @Getter
+    private final AtomicLong transferred = new AtomicLong();
+
+    private long lastProgressNanos;
+    private long lastProgressBytes = -1;
+
+    BrowserFileTransferEngine(
+            String name,
+            long expectedSize,
+            AtomicLong totalTransferred,
+            AtomicLong totalSize,
+            Consumer<BrowserTransferProgress> progress,
+            BooleanSupplier shouldContinue) {
+        this.name = name;
+        this.expectedSize = expectedSize;
+        this.totalTransferred = totalTransferred;
+        this.totalSize = totalSize;
+        this.progress = progress;
+        this.shouldContinue = shouldContinue;
+    }
+
+    static int getInitialBufferSize(long expectedSize) {
+        // Aim for a few dozen chunks per file, larger files start with larger buffers
+        var target = Math.max(expectedSize / 32, MIN_BUFFER_SIZE);
+        return (int) Math.min(Long.highestOneBit(target), MAX_BUFFER_SIZE);
+    }
+
+    /**
+     * Copies all contents and returns false if the transfer was stopped before it could complete.
+     */
+    public boolean copy(InputStream in, OutputStream out) throws Exception {
+        reportProgress(true);
+        try {
+            boolean complete;
+            // Channel transfers only avoid copies if both sides are files,
+            // otherwise they fall back to sequential copying with small internal buffers
+            if (in instanceof FileInputStream fileIn && out instanceof FileOutputStream fileOut) {
+                complete = copyChannels(fileIn.getChannel(), fileOut.getChannel());
+            } else {
+                complete = copyPipelined(in, out);
+            }
+            out.flush();
+            return complete;
+        } finally {
+            reportProgress(true);
+        }
+    }
+
+    private boolean copyChannels(FileChannel source, FileChannel target) throws IOException {
+        var size = source.size();
+        var position = source.position();
+        while (position < size) {
+            if (!shouldContinue.getAsBoolean()) {
+                return false;
+            }
+
+            var count = source.transferTo(position, Math.min(MAX_BUFFER_SIZE, size - position), target);
+            if (count <= 0) {
+                break;
+            }
+
+            position += count;
+            onTransferred(count);
+        }
+        return true;
+    }
+
+    private boolean copyPipelined(InputStream in, OutputStream out) throws Exception {
+        var free = new ArrayBlockingQueue<byte[]>(BUFFER_COUNT);
+        // One additional slot for the end marker
+        var filled = new ArrayBlockingQueue<Chunk>(BUFFER_COUNT + 1);
+        var writeException = new AtomicReference<Exception>();
+
+        var bufferSize = getInitialBufferSize(expectedSize);
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            free.add(new byte[bufferSize]);
+        }
+
+        var writer = ThreadHelper.createPlatformThread("transfer-write", true, () -> {
+            try {
+                while (true) {
+                    var chunk = filled.take();
+                    if (chunk.length() < 0) {
+                        break;
+                    }
+
+                    out.write(chunk.buffer(), 0, chunk.length());
+                    onTransferred(chunk.length());
+                    free.put(chunk.buffer());
+                }
+            } catch (Exception ex) {
+                writeException.set(ex);
+            }
+        });
+        writer.start();
+
+        var complete = true;
+        try {
+            while (true) {
+                byte[] buffer = null;
+                while (buffer == null) {
+                    if (writeException.get() != null) {
+                        throw writeException.get();
+                    }
+
+                    buffer = free.poll(100, TimeUnit.MILLISECONDS);
+                }
+
+                if (!shouldContinue.getAsBoolean()) {
+                    complete = false;
+                    break;
+                }
+
+                if (buffer.length != bufferSize) {
+                    buffer = new byte[bufferSize];
+                }
+
+                var start = System.nanoTime();
+                var read = in.readNBytes(buffer, 0, buffer.length);
+                if (read <= 0) {
+                    break;
+                }
+
+                filled.put(new Chunk(buffer, read));
+                if (read < buffer.length) {
+                    break;
+                }
+
+                // Adapt the chunk size so that a single read neither blocks for too long nor happens too often
+                var elapsed = System.nanoTime() - start;
+                if (elapsed < GROW_THRESHOLD_NANOS && bufferSize < MAX_BUFFER_SIZE) {
+                    bufferSize *= 2;
+                } else if (elapsed > SHRINK_THRESHOLD_NANOS && bufferSize > MIN_BUFFER_SIZE) {
+                    bufferSize /= 2;
+                }
+            }
+        } finally {
+            filled.put(new Chunk(null, -1));
+            writer.join();
+        }
+
+        if (writeException.get() != null) {
+            throw writeException.get();
+        }
+        return complete;
+    }
+
+    private void onTransferred(long count) {
+        transferred.addAndGet(count);
+        totalTransferred.addAndGet(count);
+        reportProgress(false);
+    }
+
+    private synchronized void reportProgress(boolean force) {
+        var now = System.nanoTime();
+        var bytes = totalTransferred.get();
+        if (!force && (now - lastProgressNanos < PROGRESS_INTERVAL_NANOS || bytes == lastProgressBytes)) {
+            return;
+        }
+
+        lastProgressNanos = now;
+        lastProgressBytes = bytes;
+        progress.accept(new BrowserTransferProgress(name, bytes, totalSize.get()));
+    }
+
+    private record Chunk(byte[] buffer, int length) {}
+}
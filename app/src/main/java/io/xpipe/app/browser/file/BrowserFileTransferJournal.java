@@ -0,0 +1,85 @@
+package io.xpipe.app.browser.file;
+
+import io.xpipe.app.core.AppCache;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The persisted state of a resumable file transfer.
+ * Every checkpoint contains the checksum of the block that ends at its offset.
+ */
+@Value
+@Jacksonized
+@Builder(toBuilder = true)
+public class BrowserFileTransferJournal {
+
+    // Partial files of older transfers are unlikely to be resumed, and the source might have changed anyway
+    private static final Duration EXPIRATION = Duration.ofDays(7);
+
+    String source;
+    String target;
+    long size;
+
+    @Singular
+    List<Checkpoint> checkpoints;
+
+    private static String getKey(String source, String target) {
+        try {
+            var md = MessageDigest.getInstance("SHA-256");
+            var hash = md.digest((source + "\n" + target).getBytes(StandardCharsets.UTF_8));
+            return "transfers/" + HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Optional<BrowserFileTransferJournal> load(String source, String target, long size) {
+        AppCache.clearExpired("transfers", EXPIRATION);
+        BrowserFileTransferJournal journal =
+                AppCache.getNonNull(getKey(source, target), BrowserFileTransferJournal.class, () -> null);
+        if (journal == null
+                || !source.equals(journal.getSource())
+                || !target.equals(journal.getTarget())
+                || journal.getSize() != size) {
+            return Optional.empty();
+        }
+
+        return Optional.of(journal);
+    }
+
+    public static void delete(String source, String target) {
+        AppCache.clear(getKey(source, target));
+    }
+
+    public BrowserFileTransferJournal withCheckpoint(long offset, String hash) {
+        var journal = toBuilder()
+                .checkpoint(Checkpoint.builder().offset(offset).hash(hash).build())
+                .build();
+        journal.save();
+        return journal;
+    }
+
+    public void save() {
+        AppCache.update(getKey(source, target), this);
+    }
+
+    @Value
+    @Jacksonized
+    @Builder
+    public static class Checkpoint {
+
+        long offset;
+        String hash;
+    }
+}
@@ -1,13 +1,22 @@
 package io.xpipe.app.browser.file;
 
+import io.xpipe.app.browser.menu.impl.compress.TarActionProvider;
+import io.xpipe.app.browser.menu.impl.compress.UntarActionProvider;
 import io.xpipe.app.core.mode.OperationMode;
 import io.xpipe.app.ext.FileEntry;
 import io.xpipe.app.ext.FileSystem;
 import io.xpipe.app.issue.ErrorEventFactory;
+import io.xpipe.app.prefs.AppPrefs;
+import io.xpipe.app.process.CommandControl;
 import io.xpipe.app.process.OsFileSystem;
+import io.xpipe.app.process.ProcessOutputException;
+import io.xpipe.app.process.ShellControl;
+import io.xpipe.app.process.ShellDialects;
 import io.xpipe.app.util.ThreadHelper;
+import io.xpipe.core.FailableSupplier;
 import io.xpipe.core.FileKind;
 import io.xpipe.core.FilePath;
+import io.xpipe.core.OsType;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.value.ChangeListener;
@@ -18,9 +27,10 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -29,7 +39,8 @@ import java.util.regex.Pattern;
 
 public class BrowserFileTransferOperation {
 
-    private static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final int PARALLEL_SESSIONS = 4;
+    private static final int PARALLEL_MIN_FILES = 32;
 
     @Getter
     private final FileEntry target;
@@ -41,7 +52,13 @@ public class BrowserFileTransferOperation {
     private final boolean checkConflicts;
     private final Consumer<BrowserTransferProgress> progress;
     private final BooleanProperty cancelled;
-    BrowserDialogs.FileConflictChoice lastConflictChoice;
+    volatile BrowserDialogs.FileConflictChoice lastConflictChoice;
+
+    /**
+     * The streams of all files that are currently transferred in parallel, which are closed on cancel.
+     * Only set while a parallel transfer is running.
+     */
+    private volatile Set<Closeable> parallelStreams;
 
     public BrowserFileTransferOperation(
             FileEntry target,
@@ -99,8 +116,7 @@ public class BrowserFileTransferOperation {
         this.progress.accept(progress);
     }
 
-    private BrowserDialogs.FileConflictChoice handleChoice(FileSystem fileSystem, FilePath target, boolean multiple)
-            throws Exception {
+    private BrowserDialogs.FileConflictChoice getRememberedChoice() {
         if (lastConflictChoice == BrowserDialogs.FileConflictChoice.CANCEL) {
             return BrowserDialogs.FileConflictChoice.CANCEL;
         }
@@ -113,7 +129,28 @@ public class BrowserFileTransferOperation {
             return BrowserDialogs.FileConflictChoice.RENAME;
         }
 
-        if (fileSystem.fileExists(target)) {
+        return null;
+    }
+
+    private BrowserDialogs.FileConflictChoice handleChoice(FileSystem fileSystem, FilePath target, boolean multiple)
+            throws Exception {
+        var remembered = getRememberedChoice();
+        if (remembered != null) {
+            return remembered;
+        }
+
+        // The existence check is done outside the lock so that parallel transfers can run it concurrently
+        if (!fileSystem.fileExists(target)) {
+            return BrowserDialogs.FileConflictChoice.REPLACE;
+        }
+
+        synchronized (this) {
+            // Another transfer might have asked in the meantime
+            remembered = getRememberedChoice();
+            if (remembered != null) {
+                return remembered;
+            }
+
             if (lastConflictChoice == BrowserDialogs.FileConflictChoice.SKIP_ALL) {
                 return BrowserDialogs.FileConflictChoice.SKIP;
             }
@@ -145,7 +182,6 @@ public class BrowserFileTransferOperation {
 
             return choice;
         }
-        return BrowserDialogs.FileConflictChoice.REPLACE;
     }
 
     private boolean cancelled() {
@@ -224,7 +260,7 @@ public class BrowserFileTransferOperation {
 
         if (sourceFile.equals(targetFile)) {
             // Duplicate file by renaming it
-            targetFile = renameFileLoop(target.getFileSystem(), targetFile, source.getKind() == FileKind.DIRECTORY);
+            targetFile = renameFileLoop(target.getFileSystem(), targetFile);
         }
 
         if (source.getKind() == FileKind.DIRECTORY && target.getFileSystem().directoryExists(targetFile)) {
@@ -240,7 +276,7 @@ public class BrowserFileTransferOperation {
             }
 
             if (fileConflictChoice == BrowserDialogs.FileConflictChoice.RENAME) {
-                targetFile = renameFileLoop(target.getFileSystem(), targetFile, source.getKind() == FileKind.DIRECTORY);
+                targetFile = renameFileLoop(target.getFileSystem(), targetFile);
             }
         }
 
@@ -252,15 +288,20 @@ public class BrowserFileTransferOperation {
         }
     }
 
-    private FilePath renameFileLoop(FileSystem fileSystem, FilePath target, boolean dir) throws Exception {
+    private FilePath renameFileLoop(FileSystem fileSystem, FilePath target) throws Exception {
         // Who has more than 10 copies?
+        // All candidates are checked at once to avoid a round trip per candidate
+        var candidates = new ArrayList<FilePath>();
         for (int i = 0; i < 10; i++) {
             target = renameFile(target);
-            if ((dir && !fileSystem.directoryExists(target)) || (!dir && !fileSystem.fileExists(target))) {
-                return target;
-            }
+            candidates.add(target);
         }
-        return target;
+
+        var existing = fileSystem.findExisting(candidates);
+        return candidates.stream()
+                .filter(candidate -> !existing.contains(candidate))
+                .findFirst()
+                .orElse(target);
     }
 
     private FilePath renameFile(FilePath target) {
@@ -358,40 +399,34 @@ public class BrowserFileTransferOperation {
 
         var optimizedSourceFs = originalSourceFs.createTransferOptimizedFileSystem();
         var targetFs = target.getFileSystem().createTransferOptimizedFileSystem();
+        var session = new TransferSession(
+                files.getFirst().getFileSystem(), optimizedSourceFs, target.getFileSystem(), targetFs);
+        var multiple = files.size() > 1 || flatFiles.size() > 1;
 
         try {
             AtomicLong transferred = new AtomicLong();
+            var fileCount = flatFiles.keySet().stream()
+                    .filter(fileEntry -> fileEntry.getKind() == FileKind.FILE)
+                    .count();
+            // Checking whether an archive can be used takes a few round trips, which is only worth it for many files
+            if (source.getKind() == FileKind.DIRECTORY
+                    && fileCount >= PARALLEL_MIN_FILES
+                    && canTransferAsArchive(session, source)) {
+                transferArchive(session, source, flatFiles, transferred, totalSize);
+                return;
+            }
+
+            if (fileCount >= PARALLEL_MIN_FILES) {
+                transferParallel(flatFiles, session, multiple, transferred, totalSize);
+                return;
+            }
+
             for (var e : flatFiles.entrySet()) {
                 if (cancelled()) {
                     return;
                 }
 
-                var sourceFile = e.getKey();
-                var os = targetFs.getShell().orElseThrow().getOsType();
-                var fixedRelPath = OsFileSystem.of(os).makeFileSystemCompatible(FilePath.of(e.getValue()));
-                var targetFile = target.getPath().join(fixedRelPath.toString());
-                if (sourceFile.getFileSystem().equals(targetFs)) {
-                    throw new IllegalStateException();
-                }
-
-                if (sourceFile.getKind() == FileKind.DIRECTORY) {
-                    targetFs.mkdirs(targetFile);
-                } else if (sourceFile.getKind() == FileKind.FILE) {
-                    if (checkConflicts) {
-                        var fileConflictChoice =
-                                handleChoice(targetFs, targetFile, files.size() > 1 || flatFiles.size() > 1);
-                        if (fileConflictChoice == BrowserDialogs.FileConflictChoice.SKIP
-                                || fileConflictChoice == BrowserDialogs.FileConflictChoice.CANCEL) {
-                            continue;
-                        }
-
-                        if (fileConflictChoice == BrowserDialogs.FileConflictChoice.RENAME) {
-                            targetFile = renameFileLoop(targetFs, targetFile, false);
-                        }
-                    }
-
-                    transfer(sourceFile.getPath(), optimizedSourceFs, targetFile, targetFs, transferred, totalSize);
-                }
+                transferEntry(session, e.getKey(), e.getValue(), multiple, transferred, totalSize);
             }
         } finally {
             updateProgress(BrowserTransferProgress.finished(source.getName(), totalSize.get()));
@@ -405,11 +440,292 @@ public class BrowserFileTransferOperation {
         }
     }
 
+    private boolean canTransferAsArchive(TransferSession session, FileEntry source) throws Exception {
+        if (source.getPath().getParent() == null) {
+            return false;
+        }
+
+        var sourceShell = session.sourceFs().getShell().orElseThrow();
+        var targetShell = session.targetFs().getShell().orElseThrow();
+        for (ShellControl sc : List.of(sourceShell, targetShell)) {
+            if (sc.getOsType() == OsType.WINDOWS || ShellDialects.isPowershell(sc)) {
+                return false;
+            }
+        }
+
+        // An archive can't ask for conflicts, so only use it when the directory does not exist yet
+        var targetDir = target.getPath().join(source.getPath().getFileName());
+        if (session.targetFs().directoryExists(targetDir)) {
+            return false;
+        }
+
+        return sourceShell.view().findProgram("tar").isPresent()
+                && targetShell.view().findProgram("tar").isPresent();
+    }
+
+    private void transferArchive(
+            TransferSession session,
+            FileEntry source,
+            Map<FileEntry, String> flatFiles,
+            AtomicLong transferred,
+            AtomicLong totalSize)
+            throws Exception {
+        // Account for the tar headers and block padding so that the byte progress matches the stream
+        var overhead = 1024L;
+        for (FileEntry fileEntry : flatFiles.keySet()) {
+            overhead += 512;
+            if (fileEntry.getKind() == FileKind.FILE) {
+                var size = fileEntry.getFileSizeLong().orElse(0);
+                overhead += (512 - size % 512) % 512;
+            }
+        }
+        totalSize.addAndGet(overhead);
+
+        // The archive is not compressed as we would otherwise not be able to show accurate progress
+        var sourceDir = source.getPath().removeTrailingSlash();
+        var sourceShell = session.sourceFs().getShell().orElseThrow();
+        var targetShell = session.targetFs().getShell().orElseThrow();
+        // The streams are occupied by the archive, so errors are written to a file instead
+        var id = UUID.randomUUID().toString();
+        var sourceLog = sourceShell.getSystemTemporaryDirectory().join("xpipe-tar-" + id + ".log");
+        var targetLog = targetShell.getSystemTemporaryDirectory().join("xpipe-untar-" + id + ".log");
+        var pack = sourceShell.command(TarActionProvider.createStreamCommand(
+                        sourceDir.getParent(), sourceDir.getFileName())
+                .add("2>")
+                .addFile(sourceLog));
+        var unpack = targetShell.command(UntarActionProvider.createStreamCommand(target.getPath())
+                .add("2>")
+                .addFile(targetLog));
+        unpack.setExitTimeout(Duration.ofMillis(Long.MAX_VALUE));
+        try {
+            transferStreams(
+                    session,
+                    sourceDir,
+                    () -> peekInput(pack.startExternalStdout()),
+                    unpack::startExternalStdin,
+                    transferred,
+                    totalSize,
+                    -1);
+
+            // The stream size is not known in advance, so an incomplete archive is detected from the exit codes
+            if (!cancelled()) {
+                checkArchiveExit(pack, sourceShell, sourceLog);
+                checkArchiveExit(unpack, targetShell, targetLog);
+            }
+        } finally {
+            sourceShell.view().deleteFileIfPossible(sourceLog);
+            targetShell.view().deleteFileIfPossible(targetLog);
+        }
+    }
+
+    private void checkArchiveExit(CommandControl command, ShellControl sc, FilePath log) throws Exception {
+        if (command.getExitCode() == 0) {
+            return;
+        }
+
+        var output = sc.view().fileExists(log) ? sc.view().readTextFile(log) : null;
+        throw ProcessOutputException.of(command.getExitCode(), output);
+    }
+
+    private void transferParallel(
+            LinkedHashMap<FileEntry, String> flatFiles,
+            TransferSession mainSession,
+            boolean multiple,
+            AtomicLong transferred,
+            AtomicLong totalSize)
+            throws Exception {
+        var directories = new ArrayList<FilePath>();
+        var files = new ConcurrentLinkedQueue<Map.Entry<FileEntry, String>>();
+        // Creating a directory also creates all of its parents, so only the innermost directories are needed
+        var parents = new HashSet<String>();
+        for (var rel : flatFiles.values()) {
+            var index = -1;
+            while ((index = rel.indexOf('/', index + 1)) > 0) {
+                parents.add(rel.substring(0, index));
+            }
+        }
+        for (var e : flatFiles.entrySet()) {
+            if (e.getKey().getKind() != FileKind.DIRECTORY) {
+                files.add(e);
+                continue;
+            }
+
+            var rel = e.getValue().endsWith("/") ? e.getValue().substring(0, e.getValue().length() - 1) : e.getValue();
+            if (!parents.contains(rel)) {
+                directories.add(getTargetFile(mainSession.targetFs(), rel));
+            }
+        }
+
+        var sessions = openParallelSessions(mainSession);
+        // JavaFX properties are not thread safe, so the workers can't register their own listeners
+        var streams = ConcurrentHashMap.<Closeable>newKeySet();
+        ChangeListener<Boolean> cancelListener = (observableValue, oldValue, newValue) -> {
+            if (newValue) {
+                ThreadHelper.runAsync(() -> closeParallelStreams(streams));
+            }
+        };
+        parallelStreams = streams;
+        cancelled.addListener(cancelListener);
+        try {
+            // Directories have to exist before any files can be placed into them
+            // They are all created at once, which only takes a single round trip for POSIX shells
+            if (!cancelled()) {
+                mainSession.targetFs().mkdirs(directories);
+            }
+            runParallel(sessions, files, multiple, transferred, totalSize);
+        } finally {
+            cancelled.removeListener(cancelListener);
+            parallelStreams = null;
+            sessions.stream().filter(session -> session != mainSession).forEach(TransferSession::close);
+        }
+    }
+
+    private void closeParallelStreams(Set<Closeable> streams) {
+        for (var stream : streams) {
+            try {
+                stream.close();
+            } catch (Exception ex) {
+                // This is expected as the process control has to be killed
+                ErrorEventFactory.fromThrowable(ex).expected().omit().handle();
+            }
+        }
+    }
+
+    private List<TransferSession> openParallelSessions(TransferSession mainSession) throws InterruptedException {
+        var sessions = new CopyOnWriteArrayList<TransferSession>();
+        sessions.add(mainSession);
+        var threads = new ArrayList<Thread>();
+        for (int i = 1; i < PARALLEL_SESSIONS; i++) {
+            var thread = ThreadHelper.createPlatformThread("transfer-session-" + i, true, () -> {
+                var session = openParallelSession(mainSession);
+                if (session != null) {
+                    sessions.add(session);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return sessions;
+    }
+
+    private void runParallel(
+            List<TransferSession> sessions,
+            Queue<Map.Entry<FileEntry, String>> queue,
+            boolean multiple,
+            AtomicLong transferred,
+            AtomicLong totalSize)
+            throws Exception {
+        // Every worker takes the next pending entry once it is done with its previous one,
+        // so sessions with lower latency or smaller files automatically take over more of the work
+        var failure = new AtomicReference<Exception>();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < sessions.size(); i++) {
+            var session = sessions.get(i);
+            var thread = ThreadHelper.createPlatformThread("transfer-worker-" + i, true, () -> {
+                try {
+                    while (failure.get() == null && !cancelled()) {
+                        var next = queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+
+                        transferEntry(session, next.getKey(), next.getValue(), multiple, transferred, totalSize);
+                    }
+                } catch (Exception ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private TransferSession openParallelSession(TransferSession mainSession) {
+        FileSystem sourceFs = null;
+        FileSystem targetFs = null;
+        try {
+            sourceFs = mainSession.sourceBase().createParallelFileSystem().orElse(null);
+            if (sourceFs == null || cancelled()) {
+                return null;
+            }
+
+            targetFs = mainSession.targetBase().createParallelFileSystem().orElse(null);
+            if (targetFs == null || cancelled()) {
+                sourceFs.close();
+                return null;
+            }
+
+            return new TransferSession(
+                    sourceFs,
+                    sourceFs.createTransferOptimizedFileSystem(),
+                    targetFs,
+                    targetFs.createTransferOptimizedFileSystem());
+        } catch (Exception ex) {
+            // We can still continue with fewer sessions
+            ErrorEventFactory.fromThrowable("Unable to open additional transfer session", ex)
+                    .expected()
+                    .omit()
+                    .handle();
+            new TransferSession(sourceFs, sourceFs, targetFs, targetFs).close();
+            return null;
+        }
+    }
+
+    private FilePath getTargetFile(FileSystem targetFs, String relativePath) {
+        var os = targetFs.getShell().orElseThrow().getOsType();
+        var fixedRelPath = OsFileSystem.of(os).makeFileSystemCompatible(FilePath.of(relativePath));
+        return target.getPath().join(fixedRelPath.toString());
+    }
+
+    private void transferEntry(
+            TransferSession session,
+            FileEntry sourceFile,
+            String relativePath,
+            boolean multiple,
+            AtomicLong transferred,
+            AtomicLong totalSize)
+            throws Exception {
+        var targetFs = session.targetFs();
+        var targetFile = getTargetFile(targetFs, relativePath);
+        if (sourceFile.getFileSystem().equals(targetFs)) {
+            throw new IllegalStateException();
+        }
+
+        if (sourceFile.getKind() == FileKind.DIRECTORY) {
+            targetFs.mkdirs(targetFile);
+        } else if (sourceFile.getKind() == FileKind.FILE) {
+            if (checkConflicts) {
+                var fileConflictChoice = handleChoice(targetFs, targetFile, multiple);
+                if (fileConflictChoice == BrowserDialogs.FileConflictChoice.SKIP
+                        || fileConflictChoice == BrowserDialogs.FileConflictChoice.CANCEL) {
+                    return;
+                }
+
+                if (fileConflictChoice == BrowserDialogs.FileConflictChoice.RENAME) {
+                    targetFile = renameFileLoop(targetFs, targetFile);
+                }
+            }
+
+            transfer(session, sourceFile.getPath(), targetFile, transferred, totalSize);
+        }
+    }
+
     private void transfer(
+            TransferSession session,
             FilePath sourceFile,
-            FileSystem sourceFs,
             FilePath targetFile,
-            FileSystem targetFs,
             AtomicLong transferred,
             AtomicLong totalSize)
             throws Exception {
@@ -417,27 +733,163 @@ public class BrowserFileTransferOperation {
             return;
         }
 
+        var sourceFs = session.sourceFs();
+        var targetFs = session.targetFs();
         var fileSize = sourceFs.getFileSize(sourceFile);
+        if (fileSize >= BrowserFileTransferResume.MIN_SIZE
+                && transferResumable(session, sourceFile, targetFile, fileSize, transferred, totalSize)) {
+            return;
+        }
 
-        InputStream inputStream = null;
-        OutputStream outputStream = null;
-        try {
+        transferStreams(
+                session,
+                sourceFile,
+                () -> peekInput(sourceFs.openInput(sourceFile)),
+                () -> targetFs.openOutput(targetFile, fileSize),
+                transferred,
+                totalSize,
+                fileSize);
+    }
 
-            // Read the first few bytes to figure out possible command failure early
-            // before creating the output stream
-            inputStream = new BufferedInputStream(sourceFs.openInput(sourceFile), 1024);
+    private boolean transferResumable(
+            TransferSession session,
+            FilePath sourceFile,
+            FilePath targetFile,
+            long fileSize,
+            AtomicLong transferred,
+            AtomicLong totalSize)
+            throws Exception {
+        var sourceFs = session.sourceFs();
+        var targetFs = session.targetFs();
+        var sourceShell = sourceFs.getShell().orElseThrow();
+        var targetShell = targetFs.getShell().orElseThrow();
+        var sourceId = BrowserFileTransferResume.getLocationId(sourceFs, sourceFile);
+        var targetId = BrowserFileTransferResume.getLocationId(targetFs, targetFile);
+        if (sourceId.isEmpty() || targetId.isEmpty()) {
+            return false;
+        }
+
+        // Transfers that were started as resumable can always be continued, even if the option was turned off
+        var existingJournal = BrowserFileTransferJournal.load(sourceId.get(), targetId.get(), fileSize);
+        if (existingJournal.isEmpty() && !AppPrefs.get().resumableFileTransfers().get()) {
+            return false;
+        }
+
+        if (!BrowserFileTransferResume.isSupported(sourceShell)
+                || !BrowserFileTransferResume.isSupported(targetShell)) {
+            return false;
+        }
+
+        var partFile = BrowserFileTransferResume.getPartFile(targetFile);
+        var offset = existingJournal.isPresent()
+                ? BrowserFileTransferResume.findResumeOffset(targetFs, partFile, existingJournal.get())
+                : 0L;
+        var journal = BrowserFileTransferJournal.builder()
+                .source(sourceId.get())
+                .target(targetId.get())
+                .size(fileSize)
+                .checkpoints(existingJournal.stream()
+                        .flatMap(j -> j.getCheckpoints().stream())
+                        .filter(checkpoint -> checkpoint.getOffset() <= offset)
+                        .toList())
+                .build();
+        journal.save();
+
+        var journalRef = new AtomicReference<>(journal);
+        var checksumStream = new AtomicReference<BrowserFileTransferResume.ChecksumInputStream>();
+        transferred.addAndGet(offset);
+        transferStreams(
+                session,
+                sourceFile,
+                () -> {
+                    var in = new BrowserFileTransferResume.ChecksumInputStream(
+                            peekInput(BrowserFileTransferResume.openInput(sourceFs, sourceFile, offset)),
+                            offset,
+                            (checkpointOffset, hash) ->
+                                    journalRef.set(journalRef.get().withCheckpoint(checkpointOffset, hash)));
+                    checksumStream.set(in);
+                    return in;
+                },
+                () -> BrowserFileTransferResume.openOutput(targetFs, partFile, offset, fileSize - offset),
+                transferred,
+                totalSize,
+                fileSize - offset);
+
+        // Keep the partial file and journal around for a later retry
+        if (cancelled()) {
+            return true;
+        }
+
+        // Only replace the target once the complete file is verified
+        var sourceHash = checksumStream.get().getFileHash().isPresent()
+                ? checksumStream.get().getFileHash().get()
+                : BrowserFileTransferResume.hashFile(sourceShell, sourceFile);
+        var targetHash = BrowserFileTransferResume.hashFile(targetShell, partFile);
+        if (!sourceHash.equalsIgnoreCase(targetHash)) {
+            targetFs.delete(partFile);
+            BrowserFileTransferJournal.delete(sourceId.get(), targetId.get());
+            throw ErrorEventFactory.expected(
+                    new IOException("Checksum of transferred file " + targetFile + " does not match the source"));
+        }
+
+        targetFs.move(partFile, targetFile);
+        BrowserFileTransferJournal.delete(sourceId.get(), targetId.get());
+        return true;
+    }
+
+    private InputStream peekInput(InputStream inputStream) throws IOException {
+        // Local files fail on open and are kept as is for channel transfers
+        if (inputStream instanceof FileInputStream) {
+            return inputStream;
+        }
+
+        // Read the first few bytes to figure out possible command failure early
+        // before creating the output stream
+        try {
+            inputStream = new BufferedInputStream(inputStream, 1024);
             inputStream.mark(1024);
             var streamStart = new byte[1024];
-            var streamStartLength = inputStream.read(streamStart, 0, 1024);
+            var streamStartLength = inputStream.readNBytes(streamStart, 0, 1024);
             if (streamStartLength < 1024) {
                 inputStream.close();
-                inputStream = new ByteArrayInputStream(streamStart, 0, streamStartLength);
+                return new ByteArrayInputStream(streamStart, 0, streamStartLength);
             } else {
                 inputStream.reset();
+                return inputStream;
+            }
+        } catch (IOException ex) {
+            try {
+                inputStream.close();
+            } catch (Exception om) {
+                ErrorEventFactory.fromThrowable(om).expected().omit().handle();
             }
+            throw ex;
+        }
+    }
 
-            outputStream = targetFs.openOutput(targetFile, fileSize);
-            transferFile(sourceFile, inputStream, outputStream, transferred, totalSize, fileSize);
+    private void transferStreams(
+            TransferSession session,
+            FilePath sourceFile,
+            FailableSupplier<InputStream> input,
+            FailableSupplier<OutputStream> output,
+            AtomicLong transferred,
+            AtomicLong totalSize,
+            long fileSize)
+            throws Exception {
+        var sourceFs = session.sourceFs();
+        var targetFs = session.targetFs();
+
+        var streams = parallelStreams;
+        InputStream inputStream = null;
+        OutputStream outputStream = null;
+        try {
+            inputStream = input.get();
+            outputStream = output.get();
+            if (streams != null) {
+                streams.add(inputStream);
+                streams.add(outputStream);
+            }
+            transferFile(session, sourceFile, inputStream, outputStream, transferred, totalSize, fileSize);
         } catch (Exception ex) {
             // Mark progress as finished to reset any progress display
             updateProgress(BrowserTransferProgress.finished(sourceFile.getFileName(), transferred.get()));
@@ -460,9 +912,23 @@ public class BrowserFileTransferOperation {
                     ErrorEventFactory.fromThrowable(om).expected().omit().handle();
                 }
             }
+            if (streams != null) {
+                streams.remove(inputStream);
+                streams.remove(outputStream);
+            }
             throw ex;
         }
 
+        if (streams != null) {
+            try {
+                closeTransferStreams(inputStream, outputStream);
+            } finally {
+                streams.remove(inputStream);
+                streams.remove(outputStream);
+            }
+            return;
+        }
+
         // If we receive a cancel while we are closing, there's a good chance that the close is stuck
         // Then, we just straight up kill the shells
         ChangeListener<Boolean> closeCancelListener = (observableValue, oldValue, newValue) -> {
@@ -474,7 +940,14 @@ public class BrowserFileTransferOperation {
             targetFs.getShell().orElseThrow().killExternal();
         };
         cancelled.addListener(closeCancelListener);
+        try {
+            closeTransferStreams(inputStream, outputStream);
+        } finally {
+            cancelled.removeListener(closeCancelListener);
+        }
+    }
 
+    private void closeTransferStreams(InputStream inputStream, OutputStream outputStream) throws Exception {
         Exception exception = null;
         try {
             inputStream.close();
@@ -491,8 +964,6 @@ public class BrowserFileTransferOperation {
             }
         }
 
-        cancelled.removeListener(closeCancelListener);
-
         if (exception != null) {
             ErrorEventFactory.preconfigure(ErrorEventFactory.fromThrowable(exception)
                     .reportable(!cancelled())
@@ -506,6 +977,7 @@ public class BrowserFileTransferOperation {
     }
 
     private void transferFile(
+            TransferSession session,
             FilePath sourceFile,
             InputStream inputStream,
             OutputStream outputStream,
@@ -513,36 +985,22 @@ public class BrowserFileTransferOperation {
             AtomicLong total,
             long expectedFileSize)
             throws Exception {
-        // Initialize progress immediately prior to reading anything
-        updateProgress(new BrowserTransferProgress(sourceFile.getFileName(), transferred.get(), total.get()));
-
+        var engine = new BrowserFileTransferEngine(
+                sourceFile.getFileName(),
+                expectedFileSize,
+                transferred,
+                total,
+                this::updateProgress,
+                () -> !cancelled() && checkTransferValidity(session));
         var killStreams = new AtomicBoolean(false);
         var exception = new AtomicReference<Exception>();
-        var readCount = new AtomicLong();
-        var thread = ThreadHelper.createPlatformThread("transfer", true, () -> {
+        var readCount = engine.getTransferred();
+        Runnable copy = () -> {
             try {
-                var bs = (int) Math.min(DEFAULT_BUFFER_SIZE, expectedFileSize);
-                byte[] buffer = new byte[bs];
-                int read;
-                while ((read = inputStream.read(buffer, 0, bs)) > 0) {
-                    if (cancelled()) {
-                        killStreams.set(true);
-                        break;
-                    }
-
-                    if (!checkTransferValidity()) {
-                        killStreams.set(true);
-                        break;
-                    }
-
-                    outputStream.write(buffer, 0, read);
-                    transferred.addAndGet(read);
-                    readCount.addAndGet(read);
-                    updateProgress(
-                            new BrowserTransferProgress(sourceFile.getFileName(), transferred.get(), total.get()));
+                if (!engine.copy(inputStream, outputStream)) {
+                    killStreams.set(true);
                 }
 
-                outputStream.flush();
                 inputStream.transferTo(OutputStream.nullOutputStream());
 
                 var incomplete = readCount.get() < expectedFileSize;
@@ -553,25 +1011,43 @@ public class BrowserFileTransferOperation {
                 exception.set(ex);
                 killStreams.set(true);
             }
-        });
+        };
+
+        // Parallel transfers already run on their own worker thread and their streams are closed on cancel
+        if (parallelStreams != null) {
+            copy.run();
+            if (cancelled()) {
+                return;
+            }
+
+            if (killStreams.get()) {
+                killStreams(session, Thread.currentThread(), readCount, true);
+            }
 
+            if (exception.get() != null) {
+                throw exception.get();
+            }
+            return;
+        }
+
+        var thread = ThreadHelper.createPlatformThread("transfer", true, copy);
         thread.start();
         while (true) {
             var alive = thread.isAlive();
             var cancelled = cancelled();
 
             if (cancelled) {
-                killStreams(thread, readCount, false);
+                killStreams(session, thread, readCount, false);
                 break;
             }
 
             if (alive) {
-                Thread.sleep(100);
+                thread.join(Duration.ofMillis(100));
                 continue;
             }
 
             if (killStreams.get()) {
-                killStreams(thread, readCount, true);
+                killStreams(session, thread, readCount, true);
             }
 
             var ex = exception.get();
@@ -583,10 +1059,10 @@ public class BrowserFileTransferOperation {
         }
     }
 
-    private boolean checkTransferValidity() {
-        var sourceFs = files.getFirst().getFileSystem();
-        var targetFs = target.getFileSystem();
-        var same = files.getFirst().getFileSystem().equals(target.getFileSystem());
+    private boolean checkTransferValidity(TransferSession session) {
+        var sourceFs = session.sourceBase();
+        var targetFs = session.targetBase();
+        var same = sourceFs.equals(targetFs);
         if (!same) {
             var sourceShell = sourceFs.getShell().orElseThrow();
             var targetShell = targetFs.getShell().orElseThrow();
@@ -600,12 +1076,13 @@ public class BrowserFileTransferOperation {
         }
     }
 
-    private void killStreams(Thread thread, AtomicLong transferred, boolean instant) throws Exception {
-        var sourceFs = files.getFirst().getFileSystem();
-        var targetFs = target.getFileSystem();
-        var same = files.getFirst().getFileSystem().equals(target.getFileSystem());
+    private void killStreams(TransferSession session, Thread thread, AtomicLong transferred, boolean instant)
+            throws Exception {
+        var sourceFs = session.sourceBase();
+        var targetFs = session.targetBase();
+        var same = sourceFs.equals(targetFs);
 
-        if (!instant && !same && checkTransferValidity()) {
+        if (!instant && !same && checkTransferValidity(session)) {
             var initialTransferred = transferred.get();
             if (!thread.join(Duration.ofMillis(2000))) {
                 var nowTransferred = transferred.get();
@@ -628,4 +1105,30 @@ public class BrowserFileTransferOperation {
             }
         }
     }
+
+    /**
+     * The file systems used for a transfer. The base file systems own the shell sessions,
+     * the other ones are the transfer optimized variants of them.
+     */
+    private record TransferSession(
+            FileSystem sourceBase, FileSystem sourceFs, FileSystem targetBase, FileSystem targetFs) {
+
+        public void close() {
+            close(sourceFs, sourceBase);
+            close(targetFs, targetBase);
+        }
+
+        private static void close(FileSystem fs, FileSystem base) {
+            try {
+                if (fs != null && fs != base) {
+                    fs.close();
+                }
+                if (base != null) {
+                    base.close();
+                }
+            } catch (Exception ex) {
+                ErrorEventFactory.fromThrowable(ex).expected().omit().handle();
+            }
+        }
+    }
 }
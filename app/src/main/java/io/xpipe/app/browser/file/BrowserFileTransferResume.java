@@ -0,0 +1,277 @@
+package io.xpipe.app.browser.file;
+
+import io.xpipe.app.ext.FileSystem;
+import io.xpipe.app.process.CommandBuilder;
+import io.xpipe.app.process.ShellControl;
+import io.xpipe.app.process.ShellDialects;
+import io.xpipe.core.FilePath;
+import io.xpipe.core.OsType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Helpers for transfers that write into a partial file and can continue from the last verified checkpoint.
+ * Remote systems have to be Unix-like and provide dd and a SHA-256 tool.
+ */
+class BrowserFileTransferResume {
+
+    static final long MIN_SIZE = 64L * 1024 * 1024;
+    static final int BLOCK_SIZE = 1024 * 1024;
+    static final long CHECKPOINT_SIZE = 32L * BLOCK_SIZE;
+
+    private static final int MAX_VERIFY_ATTEMPTS = 3;
+
+    static FilePath getPartFile(FilePath file) {
+        return FilePath.of(file + ".part");
+    }
+
+    static Optional<String> getLocationId(FileSystem fs, FilePath file) {
+        var sc = fs.getShell().orElseThrow();
+        if (sc.isLocal()) {
+            return Optional.of("local:" + file);
+        }
+
+        return sc.getSourceStoreId().map(uuid -> uuid + ":" + file);
+    }
+
+    static boolean isSupported(ShellControl sc) throws Exception {
+        if (sc.isLocal()) {
+            return true;
+        }
+
+        if (sc.getOsType() == OsType.WINDOWS || ShellDialects.isPowershell(sc)) {
+            return false;
+        }
+
+        var programs = sc.view().findPrograms(List.of("dd", "sha256sum", "shasum"));
+        return programs.get("dd").isPresent() && getHashCommand(programs).isPresent();
+    }
+
+    private static Optional<CommandBuilder> getHashCommand(ShellControl sc) throws Exception {
+        return getHashCommand(sc.view().findPrograms(List.of("sha256sum", "shasum")));
+    }
+
+    private static Optional<CommandBuilder> getHashCommand(Map<String, Optional<FilePath>> programs) {
+        if (programs.get("sha256sum").isPresent()) {
+            return Optional.of(CommandBuilder.of().add("sha256sum"));
+        }
+
+        if (programs.get("shasum").isPresent()) {
+            return Optional.of(CommandBuilder.of().add("shasum", "-a", "256"));
+        }
+
+        return Optional.empty();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hashLocal(FilePath file, long offset, long length) throws IOException {
+        var md = createDigest();
+        try (var channel = FileChannel.open(file.asLocalPath(), StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(BLOCK_SIZE);
+            var position = offset;
+            var end = length >= 0 ? offset + length : channel.size();
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                var read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+
+                buffer.flip();
+                md.update(buffer);
+                position += read;
+            }
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static String hashRemote(ShellControl sc, CommandBuilder input) throws Exception {
+        var command = CommandBuilder.of().add(input).add("|").add(getHashCommand(sc).orElseThrow());
+        var out = sc.command(command).readStdoutOrThrow().strip();
+        return out.split("\\s+")[0];
+    }
+
+    static String hashBlock(ShellControl sc, FilePath file, long offset, long length) throws Exception {
+        if (sc.isLocal()) {
+            return hashLocal(file, offset, length);
+        }
+
+        var input = CommandBuilder.of()
+                .add("dd")
+                .add("if=" + sc.getShellDialect().fileArgument(file))
+                .add("bs=" + BLOCK_SIZE, "skip=" + offset / BLOCK_SIZE, "count=" + length / BLOCK_SIZE)
+                .add("2>/dev/null");
+        return hashRemote(sc, input);
+    }
+
+    static String hashFile(ShellControl sc, FilePath file) throws Exception {
+        if (sc.isLocal()) {
+            return hashLocal(file, 0, -1);
+        }
+
+        var input = CommandBuilder.of().add("cat").addFile(file);
+        return hashRemote(sc, input);
+    }
+
+    /**
+     * Returns the offset up to which an existing partial file matches the journal, or 0 if it can't be reused.
+     */
+    static long findResumeOffset(FileSystem fs, FilePath partFile, BrowserFileTransferJournal journal)
+            throws Exception {
+        if (journal.getCheckpoints().isEmpty() || !fs.fileExists(partFile)) {
+            return 0;
+        }
+
+        var sc = fs.getShell().orElseThrow();
+        var partSize = fs.getFileSize(partFile);
+        var candidates = journal.getCheckpoints().stream()
+                .filter(checkpoint -> checkpoint.getOffset() <= partSize)
+                .sorted(Comparator.comparingLong(BrowserFileTransferJournal.Checkpoint::getOffset)
+                        .reversed())
+                .limit(MAX_VERIFY_ATTEMPTS)
+                .toList();
+        for (var checkpoint : candidates) {
+            var hash = hashBlock(sc, partFile, checkpoint.getOffset() - CHECKPOINT_SIZE, CHECKPOINT_SIZE);
+            if (hash.equalsIgnoreCase(checkpoint.getHash())) {
+                return checkpoint.getOffset();
+            }
+        }
+        return 0;
+    }
+
+    static InputStream openInput(FileSystem fs, FilePath file, long offset) throws Exception {
+        if (offset == 0) {
+            return fs.openInput(file);
+        }
+
+        var sc = fs.getShell().orElseThrow();
+        if (sc.isLocal()) {
+            var in = new FileInputStream(file.asLocalPath().toFile());
+            in.getChannel().position(offset);
+            return in;
+        }
+
+        var command = CommandBuilder.of()
+                .add("dd")
+                .add("if=" + sc.getShellDialect().fileArgument(file))
+                .add("bs=" + BLOCK_SIZE, "skip=" + offset / BLOCK_SIZE)
+                .add("2>/dev/null");
+        return sc.command(command).startExternalStdout();
+    }
+
+    static OutputStream openOutput(FileSystem fs, FilePath file, long offset, long remaining) throws Exception {
+        if (offset == 0) {
+            return fs.openOutput(file, remaining);
+        }
+
+        var sc = fs.getShell().orElseThrow();
+        if (sc.isLocal()) {
+            try (var channel = FileChannel.open(file.asLocalPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+            }
+            return new FileOutputStream(file.asLocalPath().toFile(), true);
+        }
+
+        // Without conv=notrunc, dd truncates the file at the seek offset
+        var command = CommandBuilder.of()
+                .add("head", "-c", String.valueOf(remaining))
+                .add("|", "dd")
+                .add("of=" + sc.getShellDialect().fileArgument(file))
+                .add("bs=" + BLOCK_SIZE, "seek=" + offset / BLOCK_SIZE)
+                .add("2>/dev/null");
+        var cmd = sc.command(command);
+        cmd.setExitTimeout(Duration.ofMillis(Long.MAX_VALUE));
+        return cmd.startExternalStdin();
+    }
+
+    /**
+     * Computes the checksums of the checkpoint blocks and optionally of the whole file while the data is read.
+     */
+    static class ChecksumInputStream extends FilterInputStream {
+
+        private final MessageDigest blockDigest = createDigest();
+        private final MessageDigest fileDigest;
+        private final BiConsumer<Long, String> checkpoint;
+        private long position;
+
+        ChecksumInputStream(InputStream in, long offset, BiConsumer<Long, String> checkpoint) {
+            super(in);
+            this.position = offset;
+            this.fileDigest = offset == 0 ? createDigest() : null;
+            this.checkpoint = checkpoint;
+        }
+
+        /**
+         * Returns the checksum of all read data if the stream started at the beginning of the file.
+         */
+        public Optional<String> getFileHash() {
+            return fileDigest != null ? Optional.of(HexFormat.of().formatHex(fileDigest.digest())) : Optional.empty();
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b >= 0) {
+                update(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var read = super.read(b, off, len);
+            if (read > 0) {
+                update(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped data has to be included in the checksums as well
+            return Math.max(0, read(new byte[(int) Math.min(n, BLOCK_SIZE)]));
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void update(byte[] b, int off, int len) {
+            while (len > 0) {
+                var count = (int) Math.min(len, CHECKPOINT_SIZE - position % CHECKPOINT_SIZE);
+                blockDigest.update(b, off, count);
+                if (fileDigest != null) {
+                    fileDigest.update(b, off, count);
+                }
+
+                position += count;
+                off += count;
+                len -= count;
+                if (position % CHECKPOINT_SIZE == 0) {
+                    checkpoint.accept(position, HexFormat.of().formatHex(blockDigest.digest()));
+                }
+            }
+        }
+    }
+}
@@ -12,6 +12,17 @@ import lombok.extern.jackson.Jacksonized;
 
 public class TarActionProvider implements BrowserActionProvider {
 
+    private static CommandBuilder tar(boolean gz) {
+        return CommandBuilder.of().add("tar", "c" + (gz ? "z" : "") + "f");
+    }
+
+    /**
+     * Creates a command that writes an archive of the file in the specified directory to stdout.
+     */
+    public static CommandBuilder createStreamCommand(FilePath directory, String name) {
+        return tar(false).add("-", "-C").addFile(directory).addFile(name);
+    }
+
     @Override
     public String getId() {
         return "tar";
@@ -31,8 +42,7 @@ public class TarActionProvider implements BrowserActionProvider {
         @Override
         public void executeImpl() throws Exception {
             var sc = model.getFileSystem().getShell().orElseThrow();
-            var args = "c" + (gz ? "z" : "") + "f";
-            var tar = CommandBuilder.of().add("tar", args).addFile(target);
+            var tar = tar(gz).addFile(target);
             var base = model.getCurrentDirectory().getPath();
 
             if (directoryContentOnly) {
@@ -12,6 +12,18 @@ import lombok.extern.jackson.Jacksonized;
 
 public class UntarActionProvider implements BrowserActionProvider {
 
+    private static CommandBuilder untar(boolean gz) {
+        return CommandBuilder.of().add("tar", "x" + (gz ? "z" : "") + "f");
+    }
+
+    /**
+     * Creates a command that extracts an archive read from stdin into the specified directory.
+     * The extracted files are owned by the current user, also when running as root.
+     */
+    public static CommandBuilder createStreamCommand(FilePath directory) {
+        return untar(false).add("-", "-o", "-C").addFile(directory);
+    }
+
     @Override
     public String getId() {
         return "untar";
@@ -29,9 +41,7 @@ public class UntarActionProvider implements BrowserActionProvider {
             ShellControl sc = model.getFileSystem().getShell().orElseThrow();
             for (BrowserEntry entry : getEntries()) {
                 var target = getTarget(entry.getRawFileEntry().getPath());
-                var c = CommandBuilder.of().add("tar");
-                var args = "x" + (gz ? "z" : "") + "f";
-                c.add(args);
+                var c = untar(gz);
                 c.addFile(entry.getRawFileEntry().getPath());
                 if (toDirectory) {
                     c.add("-C").addFile(target);
@@ -11,6 +11,7 @@ import org.apache.commons.io.FileUtils;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -45,6 +46,34 @@ public class AppCache {
         }
     }
 
+    /**
+     * Deletes all cached values in a directory that have not been updated within the specified duration.
+     */
+    public static void clearExpired(String directory, Duration maxAge) {
+        var dir = getBasePath().resolve(directory);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+
+        var limit = Instant.now().minus(maxAge);
+        try (var s = Files.list(dir)) {
+            s.filter(path -> path.getFileName().toString().endsWith(".cache")).forEach(path -> {
+                try {
+                    if (Files.getLastModifiedTime(path).toInstant().isBefore(limit)) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException e) {
+            ErrorEventFactory.fromThrowable("Could not clean cache directory " + directory, e)
+                    .omitted(true)
+                    .expected()
+                    .build()
+                    .handle();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T getNonNull(String key, Class<?> type, Supplier<T> notPresent) {
         var path = getPath(key);
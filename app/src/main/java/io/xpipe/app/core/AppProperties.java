@@ -10,6 +10,7 @@ import lombok.Value;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 @Value
@@ -52,6 +53,7 @@ public class AppProperties {
     boolean logToFile;
     boolean logPlatformDebug;
     String logLevel;
+    Duration sessionTrustWindow;
 
     public AppProperties(String[] args) {
         var appDir = Path.of(System.getProperty("user.dir")).resolve("app");
@@ -173,6 +175,10 @@ public class AppProperties {
                 .orElse(false);
         explicitMode = XPipeDaemonMode.getIfPresent(System.getProperty(AppNames.propertyName("mode")))
                 .orElse(null);
+        sessionTrustWindow = Optional.ofNullable(System.getProperty(AppNames.propertyName("sessionTrustWindow")))
+                .filter(s -> s.matches("\\d+"))
+                .map(s -> Duration.ofMillis(Long.parseLong(s)))
+                .orElse(Duration.ofSeconds(15));
     }
 
     private static boolean isJUnitTest() {
@@ -2,6 +2,8 @@ package io.xpipe.app.ext;
 
 import io.xpipe.app.issue.ErrorEventFactory;
 import io.xpipe.app.process.CommandBuilder;
+import io.xpipe.app.process.CommandPipeline;
+import io.xpipe.app.process.ProcessOutputException;
 import io.xpipe.app.process.ShellControl;
 import io.xpipe.app.process.ShellDialects;
 import io.xpipe.app.util.DocumentationLink;
@@ -10,12 +12,17 @@ import io.xpipe.core.FilePath;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.file.Files;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 @Getter
@@ -54,6 +61,34 @@ public class ConnectionFileSystem implements FileSystem {
         return this;
     }
 
+    @Override
+    public Optional<FileSystem> createParallelFileSystem() throws Exception {
+        // Local transfers don't have any latency that additional sessions could hide
+        if (shellControl.isLocal()) {
+            return Optional.empty();
+        }
+
+        // Additional sessions can only be opened if we know where this shell came from
+        if (!(shellControl.getSourceStore().orElse(null) instanceof ShellStore shellStore)) {
+            return Optional.empty();
+        }
+
+        var fs = new ConnectionFileSystem(shellStore.standaloneControl());
+        try {
+            fs.open();
+            // A new session does not include any elevation or user switch of this shell,
+            // so it could not access the same files
+            if (!fs.getShellControl().view().user().equals(shellControl.view().user())) {
+                fs.close();
+                return Optional.empty();
+            }
+        } catch (Exception ex) {
+            fs.close();
+            throw ex;
+        }
+        return Optional.of(fs);
+    }
+
     @Override
     public long getFileSize(FilePath file) throws Exception {
         return Long.parseLong(shellControl
@@ -103,7 +138,8 @@ public class ConnectionFileSystem implements FileSystem {
     @Override
     public InputStream openInput(FilePath file) throws Exception {
         if (shellControl.isLocal()) {
-            return Files.newInputStream(file.asLocalPath());
+            // Plain file streams allow transfers to use the file channel
+            return new FileInputStream(file.asLocalPath().toFile());
         }
 
         return shellControl
@@ -115,7 +151,7 @@ public class ConnectionFileSystem implements FileSystem {
     @Override
     public OutputStream openOutput(FilePath file, long totalBytes) throws Exception {
         if (shellControl.isLocal()) {
-            return Files.newOutputStream(file.asLocalPath());
+            return new FileOutputStream(file.asLocalPath().toFile());
         }
 
         var cmd =
@@ -174,6 +210,27 @@ public class ConnectionFileSystem implements FileSystem {
         }
     }
 
+    @Override
+    public void mkdirs(List<FilePath> files) throws Exception {
+        if (files.size() <= 1 || !CommandPipeline.isSupported(shellControl.getShellDialect())) {
+            FileSystem.super.mkdirs(files);
+            return;
+        }
+
+        var pipeline = shellControl.pipeline();
+        var futures = new ArrayList<CompletableFuture<CommandPipeline.Result>>();
+        for (var file : files) {
+            futures.add(pipeline.add(shellControl.getShellDialect().getMkdirsCommand(file.toString())));
+        }
+        pipeline.execute();
+        for (var future : futures) {
+            var r = future.join();
+            if (!r.isSuccess()) {
+                throw ProcessOutputException.of(r.getExitCode(), r.getStdout(), r.getStderr());
+            }
+        }
+    }
+
     @Override
     public void touch(FilePath file) throws Exception {
         try (var pc = shellControl
@@ -202,6 +259,17 @@ public class ConnectionFileSystem implements FileSystem {
                 .executeAndCheck();
     }
 
+    @Override
+    public Set<FilePath> findExisting(List<FilePath> files) throws Exception {
+        var found = new LinkedHashSet<FilePath>();
+        shellControl.view().exists(files).forEach((file, exists) -> {
+            if (exists) {
+                found.add(file);
+            }
+        });
+        return found;
+    }
+
     @Override
     public void directoryAccessible(FilePath file) throws Exception {
         var current = shellControl.executeSimpleStringCommand(
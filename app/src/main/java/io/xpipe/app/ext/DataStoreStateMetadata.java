@@ -0,0 +1,48 @@
+package io.xpipe.app.ext;
+
+import lombok.SneakyThrows;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Caches the reflective lookups for stateful stores, which would otherwise be repeated on every state access.
+ */
+class DataStoreStateMetadata {
+
+    private static final ClassValue<Optional<Class<?>>> STATE_CLASSES = new ClassValue<>() {
+        @Override
+        protected Optional<Class<?>> computeValue(Class<?> type) {
+            return Arrays.stream(type.getDeclaredClasses())
+                    .filter(aClass -> DataStoreState.class.isAssignableFrom(aClass))
+                    .findAny();
+        }
+    };
+
+    private static final ClassValue<Factory> FACTORIES = new ClassValue<>() {
+        @Override
+        @SneakyThrows
+        protected Factory computeValue(Class<?> type) {
+            var builder = type.getDeclaredMethod("builder");
+            builder.setAccessible(true);
+            // The build method is declared in the actual builder implementation class
+            var b = builder.invoke(null);
+            var build = b.getClass().getDeclaredMethod("build");
+            build.setAccessible(true);
+            return new Factory(builder, build);
+        }
+    };
+
+    static Optional<Class<?>> getStateClass(Class<?> storeClass) {
+        return STATE_CLASSES.get(storeClass);
+    }
+
+    @SneakyThrows
+    static Object createDefault(Class<?> stateClass) {
+        var factory = FACTORIES.get(stateClass);
+        return factory.build().invoke(factory.builder().invoke(null));
+    }
+
+    private record Factory(Method builder, Method build) {}
+}
@@ -7,9 +7,7 @@ import io.xpipe.core.FilePath;
 import java.io.Closeable;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -17,6 +15,10 @@ public interface FileSystem extends Closeable, AutoCloseable {
 
     FileSystem createTransferOptimizedFileSystem() throws Exception;
 
+    default Optional<FileSystem> createParallelFileSystem() throws Exception {
+        return Optional.empty();
+    }
+
     long getFileSize(FilePath file) throws Exception;
 
     long getDirectorySize(FilePath file) throws Exception;
@@ -39,12 +41,34 @@ public interface FileSystem extends Closeable, AutoCloseable {
 
     void mkdirs(FilePath file) throws Exception;
 
+    /**
+     * Creates multiple directories including their parents, which implementations can do at once.
+     */
+    default void mkdirs(List<FilePath> files) throws Exception {
+        for (var file : files) {
+            mkdirs(file);
+        }
+    }
+
     void touch(FilePath file) throws Exception;
 
     void symbolicLink(FilePath linkFile, FilePath targetFile) throws Exception;
 
     boolean directoryExists(FilePath file) throws Exception;
 
+    /**
+     * Returns all paths at which either a file or a directory exists.
+     */
+    default Set<FilePath> findExisting(List<FilePath> files) throws Exception {
+        var found = new LinkedHashSet<FilePath>();
+        for (var file : files) {
+            if (fileExists(file) || directoryExists(file)) {
+                found.add(file);
+            }
+        }
+        return found;
+    }
+
     void directoryAccessible(FilePath file) throws Exception;
 
     Optional<FileEntry> getFileInfo(FilePath file) throws Exception;
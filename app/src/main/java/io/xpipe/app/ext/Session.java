@@ -1,5 +1,6 @@
 package io.xpipe.app.ext;
 
+import io.xpipe.app.core.AppProperties;
 import io.xpipe.app.issue.ErrorEventFactory;
 import io.xpipe.app.util.GlobalTimer;
 import io.xpipe.app.util.ThreadHelper;
@@ -8,8 +9,30 @@ import java.time.Duration;
 
 public abstract class Session implements AutoCloseable {
 
+    private static final Duration KEEPALIVE_INTERVAL = Duration.ofMillis(10000);
+
     protected SessionListener listener = running -> {};
 
+    private volatile long lastAlive;
+
+    /**
+     * Records that the session has just successfully communicated, e.g. after it started or passed a check.
+     */
+    public void markAlive() {
+        lastAlive = System.currentTimeMillis();
+    }
+
+    public boolean wasAliveWithin(Duration duration) {
+        return System.currentTimeMillis() - lastAlive < duration.toMillis();
+    }
+
+    /**
+     * Returns whether the session can be assumed to still be alive without checking it again.
+     */
+    public boolean isTrusted() {
+        return isRunning() && wasAliveWithin(AppProperties.get().getSessionTrustWindow());
+    }
+
     public synchronized void addListener(SessionListener n) {
         var current = this.listener;
         this.listener = running -> {
@@ -19,7 +42,7 @@ public abstract class Session implements AutoCloseable {
     }
 
     protected void startAliveListener() {
-        GlobalTimer.scheduleUntil(Duration.ofMillis(10000), false, () -> {
+        GlobalTimer.scheduleUntil(KEEPALIVE_INTERVAL, false, () -> {
             if (!isRunning()) {
                 return true;
             }
@@ -29,9 +52,15 @@ public abstract class Session implements AutoCloseable {
                     return;
                 }
 
+                // Another check has already succeeded shortly before
+                if (wasAliveWithin(KEEPALIVE_INTERVAL.dividedBy(2))) {
+                    return;
+                }
+
                 try {
                     var r = checkAlive();
                     if (r) {
+                        markAlive();
                         return;
                     }
                 } catch (Exception e) {
@@ -45,6 +74,7 @@ public abstract class Session implements AutoCloseable {
     }
 
     protected void handleSessionDeath() {
+        lastAlive = 0;
         try {
             stop();
         } catch (Exception e) {
@@ -55,6 +55,7 @@ public class ShellSession extends Session {
 
         try {
             shellControl.start();
+            markAlive();
 
             var shouldAliveCheck = !shellControl.isLocal();
             var supportsAliveCheck =
@@ -20,7 +20,11 @@ public interface ShellStore extends DataStore, FileSystemStore, ValidatableStore
             } else {
                 try {
                     existingSession.getShellControl().waitForSubShellExit();
-                    existingSession.getShellControl().command(" echo xpipetest").execute();
+                    // Sessions that were recently confirmed to be working don't need another round trip
+                    if (!existingSession.isTrusted()) {
+                        existingSession.getShellControl().command(" echo xpipetest").execute();
+                        existingSession.markAlive();
+                    }
                     return new StubShellControl(existingSession.getShellControl());
                 } catch (Exception e) {
                     ErrorEventFactory.fromThrowable(e).expected().omit().handle();
@@ -44,8 +48,13 @@ public interface ShellStore extends DataStore, FileSystemStore, ValidatableStore
             return false;
         }
 
+        if (session.isTrusted()) {
+            return true;
+        }
+
         try {
             session.getShellControl().command(" echo xpipetest").execute();
+            session.markAlive();
             return true;
         } catch (Exception e) {
             ErrorEventFactory.fromThrowable(e).expected().omit().handle();
@@ -10,6 +10,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -29,6 +30,11 @@ public class WrapperFileSystem implements FileSystem {
         return this;
     }
 
+    @Override
+    public Optional<FileSystem> createParallelFileSystem() throws Exception {
+        return fs.createParallelFileSystem();
+    }
+
     @Override
     public long getFileSize(FilePath file) throws Exception {
         if (!check.get()) {
@@ -120,6 +126,15 @@ public class WrapperFileSystem implements FileSystem {
         fs.mkdirs(file);
     }
 
+    @Override
+    public void mkdirs(List<FilePath> files) throws Exception {
+        if (!check.get()) {
+            return;
+        }
+
+        fs.mkdirs(files);
+    }
+
     @Override
     public void touch(FilePath file) throws Exception {
         if (!check.get()) {
@@ -147,6 +162,15 @@ public class WrapperFileSystem implements FileSystem {
         return fs.directoryExists(file);
     }
 
+    @Override
+    public Set<FilePath> findExisting(List<FilePath> files) throws Exception {
+        if (!check.get()) {
+            return Set.of();
+        }
+
+        return fs.findExisting(files);
+    }
+
     @Override
     public void directoryAccessible(FilePath file) throws Exception {
         if (!check.get()) {
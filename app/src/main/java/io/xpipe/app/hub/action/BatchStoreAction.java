@@ -2,9 +2,11 @@ package io.xpipe.app.hub.action;
 
 import io.xpipe.app.action.*;
 import io.xpipe.app.ext.DataStore;
+import io.xpipe.app.pwman.PasswordManagerResolver;
 import io.xpipe.app.storage.DataStorage;
 import io.xpipe.app.storage.DataStoreEntry;
 import io.xpipe.app.storage.DataStoreEntryRef;
+import io.xpipe.app.util.FanOutExecutor;
 import io.xpipe.core.JacksonMapper;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -20,8 +22,22 @@ import java.util.stream.Collectors;
 @Getter
 public final class BatchStoreAction<T extends DataStore> extends SerializableAction implements StoreContextAction {
 
+    private static final FanOutExecutor.Options DEFAULT_OPTIONS =
+            FanOutExecutor.Options.builder().failFast(true).build();
+
     private final List<StoreAction<T>> actions;
 
+    /**
+     * How the individual actions are executed, the default runs them one after another and stops after the first
+     * failure. Parallel execution has to be requested explicitly, e.g. through the API.
+     */
+    private final FanOutExecutor.Options options;
+
+    /**
+     * The outcome of the individual actions after this action was executed.
+     */
+    private FanOutExecutor.Summary<StoreAction<T>> summary;
+
     @Override
     public ActionProvider getProvider() {
         return actions.getFirst().getProvider();
@@ -40,11 +56,35 @@ public final class BatchStoreAction<T extends DataStore> extends SerializableAct
 
     @Override
     public void executeImpl() throws Exception {
-        for (AbstractAction action : actions) {
-            action.executeImpl();
+        var effectiveOptions = options != null ? options : DEFAULT_OPTIONS;
+        // Parallel actions would otherwise all query the password manager at the same time
+        if (effectiveOptions.getParallelism() > 1) {
+            PasswordManagerResolver.prefetch(getStoreEntryContext());
+        }
+
+        summary = FanOutExecutor.run(
+                actions,
+                action -> DataStorage.get().getStoreEntryDisplayName(action.getRef().get()),
+                action -> {
+                    action.executeImpl();
+                    return null;
+                },
+                effectiveOptions,
+                result -> {});
+
+        var error = summary.getCombinedError();
+        if (error.isPresent()) {
+            if (error.get() instanceof Exception ex) {
+                throw ex;
+            }
+            throw new IllegalStateException(error.get());
         }
     }
 
+    public BatchStoreAction<T> withOptions(FanOutExecutor.Options options) {
+        return BatchStoreAction.<T>builder().actions(actions).options(options).build();
+    }
+
     @Override
     public boolean isMutation() {
         return actions.stream().anyMatch(StoreAction::isMutation);
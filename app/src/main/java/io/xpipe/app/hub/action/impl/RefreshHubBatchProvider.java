@@ -0,0 +1,83 @@
+package io.xpipe.app.hub.action.impl;
+
+import io.xpipe.app.core.AppI18n;
+import io.xpipe.app.core.AppLayoutModel;
+import io.xpipe.app.ext.DataStore;
+import io.xpipe.app.ext.ValidatableStore;
+import io.xpipe.app.hub.action.BatchHubProvider;
+import io.xpipe.app.hub.action.MultiStoreAction;
+import io.xpipe.app.issue.TrackEvent;
+import io.xpipe.app.storage.DataStoreBulkRefresh;
+import io.xpipe.app.storage.DataStoreEntryRef;
+import io.xpipe.app.util.FixedHierarchyStore;
+import io.xpipe.app.util.LabelGraphic;
+import io.xpipe.app.util.PlatformThread;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+
+public class RefreshHubBatchProvider implements BatchHubProvider<DataStore> {
+
+    @Override
+    public ObservableValue<String> getName() {
+        return AppI18n.observable("refreshConnections");
+    }
+
+    @Override
+    public LabelGraphic getIcon() {
+        return new LabelGraphic.IconGraphic("mdi2r-refresh");
+    }
+
+    @Override
+    public Class<?> getApplicableClass() {
+        return DataStore.class;
+    }
+
+    @Override
+    public boolean isApplicable(DataStoreEntryRef<DataStore> o) {
+        return o.getStore() instanceof ValidatableStore
+                || (o.getStore() instanceof FixedHierarchyStore h && h.canManuallyRefresh());
+    }
+
+    @Override
+    public String getId() {
+        return "refreshStoreBatch";
+    }
+
+    @Jacksonized
+    @SuperBuilder
+    public static class Action extends MultiStoreAction<DataStore> {
+
+        @Override
+        public void executeImpl() throws Exception {
+            var progress = new SimpleStringProperty(AppI18n.get("refreshConnectionsProgress", 0, refs.size()));
+            var refresh = new DataStoreBulkRefresh(DataStoreBulkRefresh.Options.builder().build());
+            // Clicking the queue entry cancels the refresh
+            var queueEntry = new AppLayoutModel.QueueEntry(
+                    progress, new LabelGraphic.IconGraphic("mdi2r-refresh"), () -> refresh.cancel());
+            AppLayoutModel.get().getQueueEntries().add(queueEntry);
+            try {
+                var summary = refresh.run(refs.stream().map(DataStoreEntryRef::get).toList(), result -> {
+                    var text = AppI18n.get("refreshConnectionsProgress", refresh.getCompleted(), refresh.getTotal());
+                    PlatformThread.runLaterIfNeeded(() -> progress.set(text));
+                });
+                TrackEvent.withInfo("Refreshed connections")
+                        .tag("summary", summary.format())
+                        .handle();
+
+                var error = summary.getCombinedError();
+                if (error.isPresent()) {
+                    if (error.get() instanceof Exception ex) {
+                        throw ex;
+                    }
+                    throw new IllegalStateException(error.get());
+                }
+            } finally {
+                AppLayoutModel.get().getQueueEntries().remove(queueEntry);
+            }
+        }
+    }
+}
@@ -180,7 +180,7 @@ public class StoreCategoryWrapper {
         var directFiltered = directContainedEntries.getList().stream()
                 .filter(storeEntryWrapper -> storeEntryWrapper.includeInConnectionCount()
                         && storeEntryWrapper.matchesFilter(
-                                StoreViewState.get().getFilterString().getValue()))
+                                StoreViewState.get().getAppliedFilterString().getValue()))
                 .count();
         var subFiltered = children.getList().stream()
                 .mapToInt(value -> value.shownContainedEntriesCount.get())
@@ -75,8 +75,7 @@ public class StoreChoicePopover<T extends DataStore> {
                 var e = storeEntryWrapper.getEntry();
 
                 if (self != null
-                        && (e.equals(self)
-                                || DataStorage.get().getStoreParentHierarchy(e).contains(self))) {
+                        && (e.equals(self) || DataStorage.get().isStoreParent(e, self))) {
                     return false;
                 }
 
@@ -109,8 +108,6 @@ public class StoreChoicePopover<T extends DataStore> {
                             applicable,
                             filterText,
                             selectedCategory,
-                            StoreViewState.get().getEntriesListVisibilityObservable(),
-                            StoreViewState.get().getEntriesListUpdateObservable(),
                             enabled),
                     (s, comp) -> {
                         if (!applicable.test(s.getWrapper())) {
@@ -188,6 +188,7 @@ public class StoreEntryWrapper {
         customIcon.setValue(entry.getIcon());
         readOnly.setValue(entry.isFreeze());
         iconFile.setValue(entry.getEffectiveIconFile());
+        StoreViewState.get().updateSearchIndex(entry);
         busy.setValue(entry.getBusyCounter().get() != 0);
         deletable.setValue(
                 !(entry.getStore() instanceof LocalStore) && !DataStorage.get().getEffectiveReadOnlyState(entry));
@@ -498,7 +499,7 @@ public class StoreEntryWrapper {
     public void togglePinToTop() {
         if (getEntry().isPinToTop()) {
             getEntry().setPinToTop(false);
-            StoreViewState.get().triggerStoreListUpdate();
+            StoreViewState.get().triggerStoreListUpdate(getEntry());
         } else {
             var root = StoreViewState.get().getCurrentTopLevelSection().getAllChildren().getList().stream()
                     .filter(storeSection -> storeSection.anyMatches(storeEntryWrapper -> storeEntryWrapper == this))
@@ -508,15 +509,28 @@ public class StoreEntryWrapper {
                     ? sortMode.date(sortMode.getRepresentative(root.get())).plus(Duration.ofSeconds(1))
                     : Instant.now();
             getEntry().setPinToTop(!getEntry().isPinToTop());
-            StoreViewState.get().triggerStoreListUpdate();
+            StoreViewState.get().triggerStoreListUpdate(getEntry());
             getEntry().setLastUsed(date);
             getEntry().setLastModified(date);
-            StoreViewState.get().triggerStoreListUpdate();
+            StoreViewState.get().triggerStoreListUpdate(getEntry());
         }
     }
 
     public boolean matchesFilter(String filter) {
-        if (filter == null || name.getValue().toLowerCase().contains(filter.toLowerCase())) {
+        if (filter == null) {
+            return true;
+        }
+
+        // Use the evaluated query if possible, the terms of new entries might not be indexed yet
+        var state = StoreViewState.get();
+        if (state != null && state.getSearchIndex().contains(entry)) {
+            var result = state.getSearchResult(filter);
+            if (result.isPresent()) {
+                return result.get().matches(entry);
+            }
+        }
+
+        if (name.getValue().toLowerCase().contains(filter.toLowerCase())) {
             return true;
         }
 
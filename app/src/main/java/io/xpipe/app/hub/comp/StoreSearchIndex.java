@@ -0,0 +1,175 @@
+package io.xpipe.app.hub.comp;
+
+import io.xpipe.app.storage.DataStorage;
+import io.xpipe.app.storage.DataStoreEntry;
+
+import lombok.Value;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds the normalized searchable terms of all entries, so that a filter can be evaluated in a single pass
+ * without having to compute the terms of every entry again for every keystroke.
+ * The terms are also indexed by their trigrams. A filter of at least three characters only has to check the entries
+ * that contain its rarest trigram instead of scanning all entries.
+ */
+public class StoreSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<DataStoreEntry, Terms> terms = new ConcurrentHashMap<>();
+    private final Map<String, Set<DataStoreEntry>> grams = new ConcurrentHashMap<>();
+    private final Map<String, DataStoreEntry> uuids = new ConcurrentHashMap<>();
+    private final Function<DataStoreEntry, Optional<DataStoreEntry>> parentFunction;
+
+    public StoreSearchIndex() {
+        this(entry -> DataStorage.get().getDefaultDisplayParent(entry));
+    }
+
+    /**
+     * Creates an index that uses a custom function to find the parent of an entry,
+     * e.g. when no storage is available.
+     */
+    StoreSearchIndex(Function<DataStoreEntry, Optional<DataStoreEntry>> parentFunction) {
+        this.parentFunction = parentFunction;
+    }
+
+    private static Terms createTerms(DataStoreEntry entry) {
+        var b = new StringBuilder();
+        b.append(entry.getName().toLowerCase());
+        if (entry.getValidity().isUsable()) {
+            try {
+                for (var term : entry.getProvider().getSearchableTerms(entry.getStore())) {
+                    // Use a separator that can't be typed so that a filter never matches across terms
+                    b.append('\0').append(term.toLowerCase());
+                }
+            } catch (Exception ignored) {
+            }
+        }
+        if (entry.getNotes() != null) {
+            b.append('\0').append(entry.getNotes().toLowerCase());
+        }
+        return new Terms(entry.getUuid().toString(), b.toString());
+    }
+
+    private static Set<String> createGrams(String text) {
+        var set = new HashSet<String>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            var gram = text.substring(i, i + GRAM_LENGTH);
+            // Grams across the term separator can never be part of a filter
+            if (gram.indexOf('\0') == -1) {
+                set.add(gram);
+            }
+        }
+        return set;
+    }
+
+    private void addGrams(DataStoreEntry entry, Terms t) {
+        uuids.put(t.uuid(), entry);
+        for (var gram : createGrams(t.text())) {
+            grams.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+    }
+
+    private void removeGrams(DataStoreEntry entry, Terms t) {
+        uuids.remove(t.uuid(), entry);
+        for (var gram : createGrams(t.text())) {
+            grams.computeIfPresent(gram, (k, set) -> {
+                set.remove(entry);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    /**
+     * Updates the terms of an entry. Returns true if the terms have changed.
+     */
+    public synchronized boolean update(DataStoreEntry entry) {
+        var updated = createTerms(entry);
+        var previous = terms.put(entry, updated);
+        if (updated.equals(previous)) {
+            return false;
+        }
+
+        if (previous != null) {
+            removeGrams(entry, previous);
+        }
+        addGrams(entry, updated);
+        return true;
+    }
+
+    public synchronized void remove(DataStoreEntry entry) {
+        var previous = terms.remove(entry);
+        if (previous != null) {
+            removeGrams(entry, previous);
+        }
+    }
+
+    private Collection<DataStoreEntry> getCandidates(String normalized) {
+        // Short filters match most entries anyway, so they are checked against all entries
+        if (normalized.length() < GRAM_LENGTH) {
+            return terms.keySet();
+        }
+
+        Set<DataStoreEntry> smallest = null;
+        for (var gram : createGrams(normalized)) {
+            var set = grams.get(gram);
+            if (set == null) {
+                return List.of();
+            }
+
+            if (smallest == null || set.size() < smallest.size()) {
+                smallest = set;
+            }
+        }
+        return smallest != null ? smallest : terms.keySet();
+    }
+
+    public boolean contains(DataStoreEntry entry) {
+        return terms.containsKey(entry);
+    }
+
+    public Result query(String filter) {
+        var normalized = filter.toLowerCase();
+        var matches = new HashSet<DataStoreEntry>();
+        // The candidates only contain a gram of the filter, so they still have to be checked
+        for (var entry : getCandidates(normalized)) {
+            var t = terms.get(entry);
+            if (t != null && t.text().contains(normalized)) {
+                matches.add(entry);
+            }
+        }
+        var byUuid = uuids.get(normalized);
+        if (byUuid != null) {
+            matches.add(byUuid);
+        }
+
+        // An entry also matches if any entry below it matches
+        var subtreeMatches = new HashSet<>(matches);
+        for (var match : matches) {
+            var current = match;
+            while ((current = parentFunction.apply(current).orElse(null)) != null
+                    && subtreeMatches.add(current)) {}
+        }
+        return new Result(filter, matches, subtreeMatches);
+    }
+
+    private record Terms(String uuid, String text) {}
+
+    @Value
+    public static class Result {
+        String filter;
+        Set<DataStoreEntry> matches;
+        Set<DataStoreEntry> subtreeMatches;
+
+        public boolean matches(DataStoreEntry entry) {
+            return matches.contains(entry);
+        }
+
+        public boolean matchesSubtree(DataStoreEntry entry) {
+            return subtreeMatches.contains(entry);
+        }
+    }
+}
@@ -55,7 +55,7 @@ public class StoreSection {
     }
 
     private static DerivedObservableList<StoreSection> sorted(
-            DerivedObservableList<StoreSection> list, ObservableIntegerValue updateObservable) {
+            DerivedObservableList<StoreSection> list, ObservableIntegerValue revision) {
         var sortMode = StoreViewState.get().getEffectiveSortMode();
         return list.sorted(
                 (o1, o2) -> {
@@ -72,7 +72,7 @@ public class StoreSection {
                     }
                 },
                 sortMode,
-                updateObservable);
+                revision);
     }
 
     public static StoreSection createTopLevel(
@@ -81,10 +81,11 @@ public class StoreSection {
             Predicate<StoreEntryWrapper> entryFilter,
             ObservableValue<String> filterString,
             ObservableValue<StoreCategoryWrapper> category,
-            ObservableIntegerValue visibilityObservable,
-            ObservableIntegerValue updateObservable,
             ObservableBooleanValue enabled) {
         var allEnabled = all.blockUpdatesIf(Bindings.not(enabled));
+        var index = new StoreSectionIndex(allEnabled);
+        // Changes of entries are only applied to the sections of the entry and its ancestors
+        StoreViewState.get().registerSectionIndex(index);
         var topLevel = allEnabled.filtered(
                 section -> {
                     if (!enabled.getValue()) {
@@ -96,20 +97,18 @@ public class StoreSection {
                 },
                 enabled,
                 category,
-                updateObservable);
+                index.getRootRevision());
         var cached = topLevel.mapped(storeEntryWrapper -> create(
                 List.of(),
                 storeEntryWrapper,
                 1,
-                allEnabled,
+                index,
                 selected,
                 entryFilter,
                 filterString,
                 category,
-                visibilityObservable,
-                updateObservable,
                 enabled));
-        var ordered = sorted(cached, updateObservable);
+        var ordered = sorted(cached, index.getRootRevision());
         var shown = ordered.filtered(
                 section -> {
                     if (!enabled.getValue()) {
@@ -128,7 +127,7 @@ public class StoreSection {
                 enabled,
                 category,
                 filterString,
-                updateObservable);
+                index.getRootRevision());
         return new StoreSection(null, ordered, shown, 0);
     }
 
@@ -136,20 +135,22 @@ public class StoreSection {
             List<StoreEntryWrapper> parents,
             StoreEntryWrapper e,
             int depth,
-            DerivedObservableList<StoreEntryWrapper> all,
+            StoreSectionIndex index,
             Set<StoreEntryWrapper> selected,
             Predicate<StoreEntryWrapper> entryFilter,
             ObservableValue<String> filterString,
             ObservableValue<StoreCategoryWrapper> category,
-            ObservableIntegerValue visibilityObservable,
-            ObservableIntegerValue updateObservable,
             ObservableBooleanValue enabled) {
         if (e.getEntry().getValidity() == DataStoreEntry.Validity.LOAD_FAILED) {
             return new StoreSection(
                     e, DerivedObservableList.arrayList(true), DerivedObservableList.arrayList(true), depth);
         }
 
-        var allChildren = all.filtered(
+        // Only the candidates of this entry have to be checked
+        // The index updates them when entries are added, removed, or moved to a different parent
+        var candidates = index.getChildren(e.getEntry());
+        var revision = index.getRevision(e.getEntry());
+        var allChildren = candidates.filtered(
                 other -> {
                     // Legacy implementation that does not use children caches. Use for testing
                     //                                if (true) return DataStorage.get()
@@ -168,23 +169,20 @@ public class StoreSection {
                 enabled,
                 e.getPersistentState(),
                 e.getCache(),
-                visibilityObservable,
-                updateObservable);
+                revision);
         var l = new ArrayList<>(parents);
         l.add(e);
         var cached = allChildren.mapped(c -> create(
                 l,
                 c,
                 depth + 1,
-                all,
+                index,
                 selected,
                 entryFilter,
                 filterString,
                 category,
-                visibilityObservable,
-                updateObservable,
                 enabled));
-        var ordered = sorted(cached, updateObservable);
+        var ordered = sorted(cached, revision);
         var filtered = ordered.filtered(
                 section -> {
                     if (!enabled.getValue()) {
@@ -246,7 +244,7 @@ public class StoreSection {
                 filterString,
                 e.getPersistentState(),
                 e.getCache(),
-                updateObservable);
+                revision);
         return new StoreSection(e, cached, filtered, depth);
     }
 
@@ -270,6 +268,14 @@ public class StoreSection {
     }
 
     public boolean matchesFilter(String filter) {
+        // The evaluated query already contains the matches of all descendants
+        if (filter != null && wrapper != null) {
+            var result = StoreViewState.get().getSearchResult(filter);
+            if (result.isPresent()) {
+                return result.get().matchesSubtree(wrapper.getEntry());
+            }
+        }
+
         return anyMatches(storeEntryWrapper -> storeEntryWrapper.matchesFilter(filter));
     }
 
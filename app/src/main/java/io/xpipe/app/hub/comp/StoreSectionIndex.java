@@ -0,0 +1,215 @@
+package io.xpipe.app.hub.comp;
+
+import io.xpipe.app.storage.DataStorage;
+import io.xpipe.app.storage.DataStoreEntry;
+import io.xpipe.app.util.DerivedObservableList;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.value.ObservableIntegerValue;
+import javafx.collections.ListChangeListener;
+
+import java.util.*;
+
+/**
+ * Groups the entries of a section tree by their display parent. When entries are added, removed, or change their
+ * parent, only the child lists of the affected parents are updated instead of every section filtering all entries
+ * again.
+ * Every section also only depends on the revision of its own entry. A change of an entry only increments the revisions
+ * of the entry itself and its display ancestors, so the lists of unrelated sections are not filtered and sorted again.
+ * The wrappers only hold weak references to the index, so a section tree can be collected once it is not shown anymore.
+ */
+class StoreSectionIndex {
+
+    private final Map<DataStoreEntry, StoreEntryWrapper> wrappers = new HashMap<>();
+    private final Map<DataStoreEntry, DataStoreEntry> parents = new HashMap<>();
+    private final Map<DataStoreEntry, DerivedObservableList<StoreEntryWrapper>> children = new HashMap<>();
+    private final Map<StoreEntryWrapper, InvalidationListener> listeners = new HashMap<>();
+    private final Map<DataStoreEntry, IntegerProperty> revisions = new HashMap<>();
+    private final IntegerProperty rootRevision = new SimpleIntegerProperty();
+
+    StoreSectionIndex(DerivedObservableList<StoreEntryWrapper> all) {
+        synchronized (all.getList()) {
+            all.getList().forEach(w -> {
+                wrappers.put(w.getEntry(), w);
+                watch(w);
+            });
+        }
+        all.getList().addListener((ListChangeListener<? super StoreEntryWrapper>) c -> {
+            // We are probably in shutdown then
+            if (DataStorage.get() == null) {
+                return;
+            }
+
+            var affected = new HashSet<DataStoreEntry>();
+            synchronized (this) {
+                while (c.next()) {
+                    for (var removed : c.getRemoved()) {
+                        wrappers.remove(removed.getEntry());
+                        listeners.remove(removed);
+                        var parent = parents.remove(removed.getEntry());
+                        if (parent != null) {
+                            affected.add(parent);
+                        }
+                    }
+                    for (var added : c.getAddedSubList()) {
+                        wrappers.put(added.getEntry(), added);
+                        watch(added);
+                        DataStorage.get().getDefaultDisplayParent(added.getEntry()).ifPresent(affected::add);
+                    }
+                }
+            }
+            affected.forEach(this::refresh);
+        });
+    }
+
+    private synchronized void watch(StoreEntryWrapper w) {
+        if (listeners.containsKey(w)) {
+            return;
+        }
+
+        // The display parent can change with the store or its state
+        InvalidationListener l = observable -> updateParent(w.getEntry());
+        listeners.put(w, l);
+        var weak = new WeakInvalidationListener(l);
+        w.getStore().addListener(weak);
+        w.getPersistentState().addListener(weak);
+        w.getCache().addListener(weak);
+    }
+
+    private void updateParent(DataStoreEntry entry) {
+        if (DataStorage.get() == null) {
+            return;
+        }
+
+        var current = DataStorage.get().getDefaultDisplayParent(entry).orElse(null);
+        DataStoreEntry previous;
+        synchronized (this) {
+            if (!wrappers.containsKey(entry)) {
+                return;
+            }
+
+            previous = parents.get(entry);
+            if (Objects.equals(previous, current)) {
+                return;
+            }
+
+            parents.remove(entry);
+        }
+
+        if (previous != null) {
+            refresh(previous);
+        }
+        if (current != null) {
+            refresh(current);
+        }
+    }
+
+    /**
+     * Returns the list of wrappers for all children of an entry, which is kept up to date.
+     */
+    synchronized DerivedObservableList<StoreEntryWrapper> getChildren(DataStoreEntry entry) {
+        var existing = children.get(entry);
+        if (existing != null) {
+            return existing;
+        }
+
+        var list = DerivedObservableList.<StoreEntryWrapper>arrayList(true);
+        children.put(entry, list);
+        refresh(entry);
+        return list;
+    }
+
+    /**
+     * Recomputes the children of a single entry.
+     */
+    void refresh(DataStoreEntry entry) {
+        DerivedObservableList<StoreEntryWrapper> list;
+        List<StoreEntryWrapper> content;
+        synchronized (this) {
+            list = children.get(entry);
+            if (list == null || DataStorage.get() == null) {
+                return;
+            }
+
+            var found = new LinkedHashSet<StoreEntryWrapper>();
+            for (var child : DataStorage.get().getStoreChildren(entry)) {
+                var w = wrappers.get(child);
+                if (w != null) {
+                    found.add(w);
+                    parents.put(child, entry);
+                }
+            }
+
+            // Keep the existing order so that only the actual changes are applied to the list
+            content = new ArrayList<StoreEntryWrapper>(list.getList().size() + 1);
+            for (var w : list.getList()) {
+                if (found.remove(w)) {
+                    content.add(w);
+                }
+            }
+            content.addAll(found);
+        }
+        list.setContent(content);
+    }
+
+    /**
+     * Returns the revision of an entry, which is incremented whenever the entry or one of its descendants changes.
+     */
+    synchronized ObservableIntegerValue getRevision(DataStoreEntry entry) {
+        return revisions.computeIfAbsent(entry, e -> new SimpleIntegerProperty());
+    }
+
+    /**
+     * Returns the revision of the top level, which is incremented on every change.
+     */
+    ObservableIntegerValue getRootRevision() {
+        return rootRevision;
+    }
+
+    /**
+     * Increments the revisions of the changed entries and all of their display ancestors.
+     */
+    void changed(Collection<DataStoreEntry> entries) {
+        if (DataStorage.get() == null || entries.isEmpty()) {
+            return;
+        }
+
+        var affected = new HashSet<DataStoreEntry>();
+        for (var entry : entries) {
+            var current = entry;
+            // Stop once we reach an ancestor that was already handled
+            while (current != null && affected.add(current)) {
+                current = DataStorage.get().getDefaultDisplayParent(current).orElse(null);
+            }
+        }
+
+        List<IntegerProperty> toIncrement;
+        synchronized (this) {
+            toIncrement = affected.stream()
+                    .map(revisions::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        toIncrement.forEach(StoreSectionIndex::increment);
+        increment(rootRevision);
+    }
+
+    /**
+     * Increments all revisions, for changes that can not be attributed to specific entries.
+     */
+    void changedAll() {
+        List<IntegerProperty> toIncrement;
+        synchronized (this) {
+            toIncrement = new ArrayList<>(revisions.values());
+        }
+        toIncrement.forEach(StoreSectionIndex::increment);
+        increment(rootRevision);
+    }
+
+    private static void increment(IntegerProperty revision) {
+        revision.set(revision.get() + 1);
+    }
+}
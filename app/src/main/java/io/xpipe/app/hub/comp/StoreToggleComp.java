@@ -114,7 +114,7 @@ public class StoreToggleComp extends SimpleComp {
                 v -> {
                     Platform.runLater(() -> {
                         setter.accept(section.getWrapper().getEntry().getStore().asNeeded(), v);
-                        StoreViewState.get().triggerStoreListVisibilityUpdate();
+                        StoreViewState.get().triggerStoreListVisibilityUpdate(section.getWrapper().getEntry());
                     });
                 });
         t.tooltipKey("showNonRunningChildren");
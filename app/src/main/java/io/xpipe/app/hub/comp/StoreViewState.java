@@ -10,6 +10,7 @@ import io.xpipe.app.storage.DataStoreCategory;
 import io.xpipe.app.storage.DataStoreEntry;
 import io.xpipe.app.storage.StorageListener;
 import io.xpipe.app.util.DerivedObservableList;
+import io.xpipe.app.util.GlobalTimer;
 import io.xpipe.app.util.PlatformThread;
 
 import javafx.application.Platform;
@@ -23,7 +24,10 @@ import javafx.collections.ListChangeListener;
 
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -32,6 +36,22 @@ public class StoreViewState {
     private static StoreViewState INSTANCE;
     private final StringProperty filter = new SimpleStringProperty();
 
+    /**
+     * The filter that the shown entries are currently based on, which is updated once the query has been evaluated.
+     */
+    private final AppliedFilterProperty appliedFilter = new AppliedFilterProperty();
+
+    @Getter
+    private final StoreSearchIndex searchIndex = new StoreSearchIndex();
+
+    private final AtomicInteger searchCounter = new AtomicInteger();
+    private final AtomicBoolean listUpdateScheduled = new AtomicBoolean();
+    private final AtomicBoolean visibilityUpdateScheduled = new AtomicBoolean();
+    private volatile StoreSearchIndex.Result searchResult;
+    private final Set<StoreSectionIndex> sectionIndexes = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<DataStoreEntry> pendingListUpdates = new HashSet<>();
+    private boolean pendingFullListUpdate;
+
     @Getter
     private final DerivedObservableList<StoreEntryWrapper> allEntries =
             DerivedObservableList.synchronizedArrayList(true);
@@ -215,10 +235,8 @@ public class StoreViewState {
                     allEntries,
                     batchModeSelectionSet,
                     storeEntryWrapper -> true,
-                    filter,
+                    appliedFilter,
                     activeCategory,
-                    entriesListVisibilityObservable,
-                    entriesListUpdateObservable,
                     new ReadOnlyBooleanWrapper(true));
         } catch (Exception exception) {
             currentTopLevelSection = new StoreSection(
@@ -230,6 +248,9 @@ public class StoreViewState {
     private void initFilterListener() {
         var all = getAllConnectionsCategory();
         filter.addListener((observable, oldValue, newValue) -> {
+            scheduleSearch(newValue);
+        });
+        appliedFilter.addListener((observable, oldValue, newValue) -> {
             categories.getList().forEach(e -> e.update());
             var matchingCats = categories.getList().stream()
                     .filter(storeCategoryWrapper ->
@@ -243,6 +264,55 @@ public class StoreViewState {
         });
     }
 
+    /**
+     * Returns the evaluated query if it belongs to the passed filter.
+     */
+    public Optional<StoreSearchIndex.Result> getSearchResult(String filter) {
+        var r = searchResult;
+        return r != null && r.getFilter().equals(filter) ? Optional.of(r) : Optional.empty();
+    }
+
+    private void scheduleSearch(String value) {
+        var id = searchCounter.incrementAndGet();
+        // Clearing the filter does not require any query evaluation
+        if (value == null || value.isEmpty()) {
+            searchResult = null;
+            PlatformThread.runLaterIfNeeded(() -> appliedFilter.setValue(value));
+            return;
+        }
+
+        // Wait for the user to stop typing and evaluate the query in the background
+        GlobalTimer.delayAsync(
+                () -> {
+                    if (searchCounter.get() != id) {
+                        return;
+                    }
+
+                    var result = searchIndex.query(value);
+                    Platform.runLater(() -> {
+                        if (searchCounter.get() != id || INSTANCE == null) {
+                            return;
+                        }
+
+                        searchResult = result;
+                        if (value.equals(appliedFilter.getValue())) {
+                            categories.getList().forEach(e -> e.update());
+                            // Only the filtered lists have to be updated, the order stays the same
+                            appliedFilter.refresh();
+                        } else {
+                            appliedFilter.setValue(value);
+                        }
+                    });
+                },
+                Duration.ofMillis(100));
+    }
+
+    public void updateSearchIndex(DataStoreEntry entry) {
+        if (searchIndex.update(entry) && searchResult != null) {
+            scheduleSearch(filter.getValue());
+        }
+    }
+
     private void initBatchListeners() {
         batchModeSelection.getList().addListener((ListChangeListener<? super StoreEntryWrapper>) c -> {
             if (c.getList().isEmpty()) {
@@ -295,26 +365,91 @@ public class StoreViewState {
                         .orElseThrow()));
     }
 
-    public void triggerStoreListVisibilityUpdate() {
+    /**
+     * Registers the index of a section tree, so that it receives the changes of entries.
+     * The index is only weakly referenced and is dropped once the section tree is not used anymore.
+     */
+    void registerSectionIndex(StoreSectionIndex index) {
+        synchronized (sectionIndexes) {
+            sectionIndexes.add(index);
+        }
+    }
+
+    public void triggerStoreListVisibilityUpdate(DataStoreEntry... entries) {
         if (OperationMode.isInStartup() || OperationMode.isInShutdown()) {
             return;
         }
 
-        PlatformThread.runLaterIfNeeded(() -> {
+        addPendingListUpdates(entries);
+
+        // Coalesce bursts of update requests, e.g. from many entries changing at once, into one update per frame
+        if (!visibilityUpdateScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        Platform.runLater(() -> {
+            visibilityUpdateScheduled.set(false);
             entriesListVisibilityObservable.set(entriesListVisibilityObservable.get() + 1);
+            applyPendingListUpdates();
         });
     }
 
-    public void triggerStoreListUpdate() {
+    /**
+     * Updates the sections of the passed entries and their ancestors.
+     * If no entries are passed, all sections are updated.
+     */
+    public void triggerStoreListUpdate(DataStoreEntry... entries) {
         if (OperationMode.isInStartup() || OperationMode.isInShutdown()) {
             return;
         }
 
-        PlatformThread.runLaterIfNeeded(() -> {
+        addPendingListUpdates(entries);
+
+        if (!listUpdateScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        Platform.runLater(() -> {
+            listUpdateScheduled.set(false);
+            // The sort mode caches are reset with the global observable, so it has to be incremented first
             entriesListUpdateObservable.set(entriesListUpdateObservable.get() + 1);
+            applyPendingListUpdates();
         });
     }
 
+    private void addPendingListUpdates(DataStoreEntry... entries) {
+        synchronized (pendingListUpdates) {
+            if (entries.length == 0) {
+                pendingFullListUpdate = true;
+            } else {
+                pendingListUpdates.addAll(Arrays.asList(entries));
+            }
+        }
+    }
+
+    private void applyPendingListUpdates() {
+        boolean full;
+        List<DataStoreEntry> changed;
+        synchronized (pendingListUpdates) {
+            full = pendingFullListUpdate;
+            changed = new ArrayList<>(pendingListUpdates);
+            pendingFullListUpdate = false;
+            pendingListUpdates.clear();
+        }
+
+        List<StoreSectionIndex> indexes;
+        synchronized (sectionIndexes) {
+            indexes = new ArrayList<>(sectionIndexes);
+        }
+        for (var index : indexes) {
+            if (full) {
+                index.changedAll();
+            } else {
+                index.changed(changed);
+            }
+        }
+    }
+
     private void addListeners() {
         if (AppPrefs.get() != null) {
             AppPrefs.get().condenseConnectionDisplay().addListener((observable, oldValue, newValue) -> {
@@ -332,10 +467,8 @@ public class StoreViewState {
         DataStorage.get().addListener(new StorageListener() {
 
             @Override
-            public void onStoreListUpdate() {
-                Platform.runLater(() -> {
-                    triggerStoreListUpdate();
-                });
+            public void onStoreListUpdate(DataStoreEntry... entry) {
+                triggerStoreListUpdate(entry);
             }
 
             @Override
@@ -357,6 +490,9 @@ public class StoreViewState {
                     synchronized (this) {
                         allEntries.getList().addAll(wrappers);
                     }
+                    if (searchResult != null) {
+                        scheduleSearch(filter.getValue());
+                    }
                     synchronized (this) {
                         categories.getList().stream()
                                 .filter(storeCategoryWrapper -> allEntries.getList().stream()
@@ -375,6 +511,7 @@ public class StoreViewState {
             @Override
             public void onStoreRemove(DataStoreEntry... entry) {
                 var a = Arrays.stream(entry).collect(Collectors.toSet());
+                a.forEach(searchIndex::remove);
                 List<StoreEntryWrapper> l;
                 synchronized (this) {
                     l = allEntries.getList().stream()
@@ -468,49 +605,43 @@ public class StoreViewState {
     }
 
     public Optional<StoreSection> getSectionForWrapper(StoreEntryWrapper wrapper) {
-        if (currentTopLevelSection == null) {
-            return Optional.empty();
-        }
-
-        StoreSection current = getCurrentTopLevelSection();
-        while (true) {
-            var child = current.getAllChildren().getList().stream()
-                    .filter(section -> section.getWrapper().equals(wrapper))
-                    .findFirst();
-            if (child.isPresent()) {
-                return child;
-            }
-
-            var traverse = current.getAllChildren().getList().stream()
-                    .filter(section -> section.anyMatches(w -> w.equals(wrapper)))
-                    .findFirst();
-            if (traverse.isPresent()) {
-                current = traverse.get();
-            } else {
-                return Optional.empty();
-            }
-        }
+        var path = getSectionPath(wrapper);
+        return path.size() > 1 ? Optional.of(path.getLast()) : Optional.empty();
     }
 
     public Optional<StoreSection> getParentSectionForWrapper(StoreEntryWrapper wrapper) {
-        StoreSection current = getCurrentTopLevelSection();
-        while (true) {
-            var child = current.getAllChildren().getList().stream()
-                    .filter(section -> section.getWrapper().equals(wrapper))
-                    .findFirst();
-            if (child.isPresent()) {
-                return Optional.of(current);
-            }
+        var path = getSectionPath(wrapper);
+        return path.size() > 1 ? Optional.of(path.get(path.size() - 2)) : Optional.empty();
+    }
 
-            var traverse = current.getAllChildren().getList().stream()
-                    .filter(section -> section.anyMatches(w -> w.equals(wrapper)))
-                    .findFirst();
-            if (traverse.isPresent()) {
-                current = traverse.get();
-            } else {
-                return Optional.empty();
+    private List<StoreSection> getSectionPath(StoreEntryWrapper wrapper) {
+        if (currentTopLevelSection == null || DataStorage.get() == null) {
+            return List.of();
+        }
+
+        // Follow the parent hierarchy of the entry instead of searching through all sections.
+        // Parents that are not shown in the tree are skipped and entries shown as a root start a new path
+        var path = new ArrayList<StoreSection>();
+        path.add(currentTopLevelSection);
+        for (var e : DataStorage.get().getStoreParentHierarchy(wrapper.getEntry())) {
+            var child = findChildSection(path.getLast(), e);
+            if (child.isEmpty() && path.size() > 1) {
+                child = findChildSection(currentTopLevelSection, e);
+                if (child.isPresent()) {
+                    path.subList(1, path.size()).clear();
+                }
             }
+            child.ifPresent(path::add);
         }
+
+        var found = path.size() > 1 && path.getLast().getWrapper().equals(wrapper);
+        return found ? path : List.of();
+    }
+
+    private Optional<StoreSection> findChildSection(StoreSection section, DataStoreEntry entry) {
+        return section.getAllChildren().getList().stream()
+                .filter(child -> child.getWrapper().getEntry().equals(entry))
+                .findFirst();
     }
 
     public DerivedObservableList<StoreCategoryWrapper> getSortedCategories(StoreCategoryWrapper root) {
@@ -621,4 +752,19 @@ public class StoreViewState {
     public Property<String> getFilterString() {
         return filter;
     }
+
+    public ObservableValue<String> getAppliedFilterString() {
+        return appliedFilter;
+    }
+
+    /**
+     * The applied filter, which can also notify the filtered lists when only the search result of the same filter
+     * string has changed.
+     */
+    private static class AppliedFilterProperty extends SimpleStringProperty {
+
+        private void refresh() {
+            fireValueChangedEvent();
+        }
+    }
 }
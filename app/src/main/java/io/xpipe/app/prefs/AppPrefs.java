@@ -271,6 +271,8 @@ public final class AppPrefs {
             mapLocal(new GlobalBooleanProperty(false), "requireDoubleClickForConnections", Boolean.class, false);
     final BooleanProperty editFilesWithDoubleClick =
             mapLocal(new GlobalBooleanProperty(false), "editFilesWithDoubleClick", Boolean.class, false);
+    final BooleanProperty resumableFileTransfers =
+            mapLocal(new GlobalBooleanProperty(false), "resumableFileTransfers", Boolean.class, false);
     final BooleanProperty enableTerminalDocking =
             mapLocal(new GlobalBooleanProperty(true), "enableTerminalDocking", Boolean.class, false);
     final BooleanProperty censorMode = mapLocal(new GlobalBooleanProperty(false), "censorMode", Boolean.class, false);
@@ -404,6 +406,10 @@ public final class AppPrefs {
         return editFilesWithDoubleClick;
     }
 
+    public ObservableBooleanValue resumableFileTransfers() {
+        return resumableFileTransfers;
+    }
+
     public ObservableBooleanValue sshVerboseOutput() {
         return sshVerboseOutput;
     }
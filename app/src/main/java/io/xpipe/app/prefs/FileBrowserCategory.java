@@ -32,6 +32,8 @@ public class FileBrowserCategory extends AppPrefsCategory {
                         .addToggle(prefs.enableTerminalDocking)
                         .pref(prefs.editFilesWithDoubleClick)
                         .addToggle(prefs.editFilesWithDoubleClick)
+                        .pref(prefs.resumableFileTransfers)
+                        .addToggle(prefs.resumableFileTransfers)
                         .pref(prefs.downloadsDirectory)
                         .addComp(
                                 new ContextualFileReferenceChoiceComp(
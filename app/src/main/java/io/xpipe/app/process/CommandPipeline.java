@@ -0,0 +1,150 @@
+package io.xpipe.app.process;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Collects multiple commands and sends them to a shell at once.
+ * For POSIX shells, all commands are combined into a single command whose output is split up again afterward,
+ * so the whole pipeline only requires one round trip to the remote system.
+ * Other dialects run the commands one after another.
+ */
+public class CommandPipeline {
+
+    private final ShellControl shellControl;
+    private final List<String> commands = new ArrayList<>();
+    private final List<CompletableFuture<Result>> futures = new ArrayList<>();
+    private boolean sensitive;
+
+    CommandPipeline(ShellControl shellControl) {
+        this.shellControl = shellControl;
+    }
+
+    public static boolean isSupported(ShellDialect dialect) {
+        return dialect != null
+                && (dialect == ShellDialects.SH
+                        || dialect == ShellDialects.DASH
+                        || dialect == ShellDialects.BASH
+                        || dialect == ShellDialects.ZSH
+                        || dialect == ShellDialects.ASH);
+    }
+
+    /**
+     * Combines all commands into a single line, in which every command is followed by the markers for the parser.
+     */
+    static String createScript(List<String> commands, String marker) {
+        var script = new StringBuilder();
+        for (var command : commands) {
+            // The commands run in subshells so that they can't affect each other or the session
+            // Every result is terminated with a marker on both streams, the stdout one also contains the exit code
+            // Everything is kept on one line as multi-line commands would be run through a script file
+            script.append("( ")
+                    .append(command)
+                    .append(" ) </dev/null; printf '\\n%s %s\\n' '")
+                    .append(marker)
+                    .append("' \"$?\"; printf '\\n%s\\n' '")
+                    .append(marker)
+                    .append("' >&2; ");
+        }
+        return script.toString();
+    }
+
+    /**
+     * Marks the commands as sensitive, so that their output is not logged.
+     */
+    public CommandPipeline sensitive() {
+        this.sensitive = true;
+        return this;
+    }
+
+    public boolean isCombined() {
+        return isSupported(shellControl.getShellDialect());
+    }
+
+    public CompletableFuture<Result> add(String command) {
+        var future = new CompletableFuture<Result>();
+        commands.add(command);
+        futures.add(future);
+        return future;
+    }
+
+    public CompletableFuture<Result> add(CommandBuilder command) throws Exception {
+        return add(command.buildFull(shellControl));
+    }
+
+    /**
+     * Runs all added commands. The futures are completed once this method returns.
+     */
+    public void execute() throws Exception {
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (isCombined()) {
+                executeCombined();
+            } else {
+                executeSeparately();
+            }
+        } catch (Exception ex) {
+            futures.forEach(f -> f.completeExceptionally(ex));
+            throw ex;
+        } finally {
+            commands.clear();
+            futures.clear();
+        }
+    }
+
+    private void executeSeparately() throws Exception {
+        for (int i = 0; i < commands.size(); i++) {
+            var command = shellControl.command(commands.get(i));
+            if (sensitive) {
+                command.sensitive();
+            }
+            try (var cc = command.start()) {
+                var r = cc.readStdoutAndStderr();
+                cc.close();
+                futures.get(i).complete(new Result(r[0], r[1], cc.getExitCode()));
+            }
+        }
+    }
+
+    private void executeCombined() throws Exception {
+        var marker = "XPIPE_PIPELINE_" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        var command = shellControl.command(createScript(commands, marker));
+        if (sensitive) {
+            command.sensitive();
+        }
+        String[] r;
+        try (var cc = command.start()) {
+            r = cc.readStdoutAndStderr();
+        }
+
+        var results = CommandPipelineParser.parse(r[0], r[1], marker, futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            if (i < results.size()) {
+                futures.get(i).complete(results.get(i));
+            } else {
+                futures.get(i)
+                        .completeExceptionally(new IllegalStateException(
+                                "Pipeline output ended unexpectedly, the shell might have exited"));
+            }
+        }
+    }
+
+    @Value
+    public static class Result {
+        String stdout;
+        String stderr;
+        long exitCode;
+
+        public boolean isSuccess() {
+            return exitCode == 0;
+        }
+    }
+}
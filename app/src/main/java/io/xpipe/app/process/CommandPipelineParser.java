@@ -0,0 +1,62 @@
+package io.xpipe.app.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the combined output of a pipeline into the results of the individual commands.
+ * Every command output is terminated by a marker line on stdout that also contains the exit code,
+ * and by a marker line on stderr.
+ */
+class CommandPipelineParser {
+
+    private static String stripTrailingNewLines(String s) {
+        var end = s.length();
+        while (end > 0 && (s.charAt(end - 1) == '\n' || s.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return s.substring(0, end);
+    }
+
+    /**
+     * Returns the results of all commands that have finished. If the output ended early,
+     * e.g. because the shell exited, fewer results than commands are returned.
+     */
+    static List<CommandPipeline.Result> parse(String stdout, String stderr, String marker, int count) {
+        stdout = stdout != null ? stdout : "";
+        stderr = stderr != null ? stderr : "";
+        var results = new ArrayList<CommandPipeline.Result>(count);
+        var outPos = 0;
+        var errPos = 0;
+        for (int i = 0; i < count; i++) {
+            var outIndex = stdout.indexOf(marker, outPos);
+            if (outIndex == -1) {
+                break;
+            }
+
+            var outEnd = stdout.indexOf('\n', outIndex);
+            if (outEnd == -1) {
+                outEnd = stdout.length();
+            }
+            long exitCode;
+            try {
+                exitCode = Long.parseLong(stdout.substring(outIndex + marker.length(), outEnd).strip());
+            } catch (NumberFormatException ex) {
+                // The marker line was cut off
+                break;
+            }
+            var out = stripTrailingNewLines(stdout.substring(outPos, outIndex));
+            outPos = Math.min(outEnd + 1, stdout.length());
+
+            var err = "";
+            var errIndex = stderr.indexOf(marker, errPos);
+            if (errIndex != -1) {
+                err = stripTrailingNewLines(stderr.substring(errPos, errIndex));
+                errPos = Math.min(errIndex + marker.length() + 1, stderr.length());
+            }
+
+            results.add(new CommandPipeline.Result(out, err, exitCode));
+        }
+        return results;
+    }
+}
@@ -262,6 +262,13 @@ public interface ShellControl extends ProcessControl {
         return command(CommandBuilder.of().add(command.getValue()));
     }
 
+    /**
+     * Creates a pipeline to send multiple commands at once, see {@link CommandPipeline}.
+     */
+    default CommandPipeline pipeline() {
+        return new CommandPipeline(this);
+    }
+
     default CommandControl command(Consumer<CommandBuilder> builder) {
         var b = CommandBuilder.of();
         builder.accept(b);
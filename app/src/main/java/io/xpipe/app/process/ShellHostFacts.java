@@ -0,0 +1,196 @@
+package io.xpipe.app.process;
+
+import io.xpipe.app.ext.StatefulDataStore;
+import io.xpipe.core.OsType;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Commonly required information about a system, which is collected with a single command pipeline.
+ * Only the presence of tools is persisted in the store state. It is reused for new sessions until it expires,
+ * as long as the PATH is still the same. Users and groups are only ever read on demand and are not persisted.
+ */
+@Value
+@Jacksonized
+@Builder(toBuilder = true)
+public class ShellHostFacts {
+
+    public static final Duration HOST_FACTS_TTL = Duration.ofHours(12);
+
+    private static final List<String> TOOLS = new CopyOnWriteArrayList<>(List.of(
+            "sudo", "tar", "gzip", "zip", "unzip", "7z", "xz", "dd", "sha256sum", "shasum", "rsync", "file",
+            "xdg-open"));
+
+    String user;
+    String home;
+    Boolean root;
+    String path;
+    String tempDirectory;
+    Map<String, Boolean> tools;
+    Instant gathered;
+
+    /**
+     * Adds a tool whose presence is checked when gathering the facts.
+     */
+    public static void addTool(String name) {
+        if (!TOOLS.contains(name)) {
+            TOOLS.add(name);
+        }
+    }
+
+    public static boolean isCheckedTool(String name) {
+        return TOOLS.contains(name);
+    }
+
+    public static boolean isSupported(ShellControl sc) {
+        return sc.getOsType() != OsType.WINDOWS && CommandPipeline.isSupported(sc.getShellDialect());
+    }
+
+    private static Map<Integer, String> parseIdFile(String content) {
+        var map = new LinkedHashMap<Integer, String>();
+        content.lines().forEach(s -> {
+            var split = s.split(":");
+            try {
+                map.putIfAbsent(Integer.parseInt(split[2]), split[0]);
+            } catch (Exception ignored) {
+            }
+        });
+        return map;
+    }
+
+    private static Optional<ShellHostFacts> getPersisted(ShellControl sc) {
+        if (!(sc.getSourceStore().orElse(null) instanceof StatefulDataStore<?> s)) {
+            return Optional.empty();
+        }
+
+        if (!(s.getState() instanceof ShellStoreState state) || state.getHostFacts() == null) {
+            return Optional.empty();
+        }
+
+        var facts = state.getHostFacts();
+        if (facts.getGathered() == null
+                || facts.getGathered().plus(HOST_FACTS_TTL).isBefore(Instant.now())
+                || facts.getPath() == null
+                || facts.getTools() == null
+                || !facts.getTools().keySet().containsAll(TOOLS)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(facts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void persist(ShellControl sc, ShellHostFacts facts) {
+        if (!(sc.getSourceStore().orElse(null) instanceof StatefulDataStore<?> s)) {
+            return;
+        }
+
+        if (!(s.getState() instanceof ShellStoreState state)) {
+            return;
+        }
+
+        // The PATH is kept to check whether the tool presence still applies
+        var hostFacts = facts.toBuilder()
+                .user(null)
+                .home(null)
+                .root(null)
+                .tempDirectory(null)
+                .build();
+        var updated = state.toBuilder().hostFacts(hostFacts).build();
+        ((StatefulDataStore<ShellStoreState>) s).setState(updated);
+    }
+
+    private static Map<String, CompletableFuture<CommandPipeline.Result>> addToolChecks(
+            CommandPipeline pipeline, ShellDialect d) {
+        var tools = new LinkedHashMap<String, CompletableFuture<CommandPipeline.Result>>();
+        for (var tool : TOOLS) {
+            tools.put(tool, pipeline.add(d.getWhichCommand(tool)));
+        }
+        return tools;
+    }
+
+    /**
+     * Collects all facts in a single round trip. Returns an empty optional if the shell dialect is not supported.
+     */
+    public static Optional<ShellHostFacts> gather(ShellControl sc) throws Exception {
+        if (!isSupported(sc)) {
+            return Optional.empty();
+        }
+
+        var persisted = getPersisted(sc);
+        var d = sc.getShellDialect();
+        var pipeline = sc.pipeline().sensitive();
+        var user = pipeline.add("id -un 2>/dev/null || whoami");
+        var home = pipeline.add("printf '%s' \"$HOME\"");
+        var root = pipeline.add("test \"${EUID:-$(id -u)}\" -eq 0");
+        var path = pipeline.add(d.getPrintEnvironmentVariableCommand("PATH"));
+        var temp = pipeline.add("printf '%s' \"${TMPDIR:-/tmp}\"");
+        var tools = persisted.isEmpty() ? addToolChecks(pipeline, d) : null;
+        pipeline.execute();
+
+        var currentPath = path.join().getStdout().strip();
+        var b = ShellHostFacts.builder()
+                .user(user.join().isSuccess() ? user.join().getStdout().strip() : null)
+                .home(home.join().getStdout().strip())
+                .root(root.join().isSuccess())
+                .path(currentPath)
+                .tempDirectory(temp.join().getStdout().strip());
+        if (persisted.isPresent() && persisted.get().getPath().equals(currentPath)) {
+            var p = persisted.get();
+            return Optional.of(b.tools(p.getTools()).gathered(p.getGathered()).build());
+        }
+
+        // The PATH has changed since the tools were checked, e.g. due to a different shell profile
+        if (tools == null) {
+            var toolPipeline = sc.pipeline();
+            tools = addToolChecks(toolPipeline, d);
+            toolPipeline.execute();
+        }
+
+        var toolMap = new LinkedHashMap<String, Boolean>();
+        tools.forEach((name, result) -> toolMap.put(name, result.join().isSuccess()));
+        var facts = b.tools(toolMap).gathered(Instant.now()).build();
+        persist(sc, facts);
+        return Optional.of(facts);
+    }
+
+    /**
+     * Reads the users and groups of a system in a single round trip. These are not persisted.
+     * Returns an empty optional if the shell dialect is not supported.
+     */
+    public static Optional<Accounts> gatherAccounts(ShellControl sc) throws Exception {
+        if (!isSupported(sc)) {
+            return Optional.empty();
+        }
+
+        // macOS does not use these files for its actual users
+        if (sc.getOsType() == OsType.MACOS) {
+            return Optional.of(new Accounts(Map.of(), Map.of()));
+        }
+
+        var pipeline = sc.pipeline().sensitive();
+        var passwd = pipeline.add("cat /etc/passwd");
+        var group = pipeline.add("cat /etc/group");
+        pipeline.execute();
+        return Optional.of(new Accounts(
+                parseIdFile(passwd.join().getStdout()), parseIdFile(group.join().getStdout())));
+    }
+
+    public Optional<Boolean> hasTool(String name) {
+        return tools != null ? Optional.ofNullable(tools.get(name)) : Optional.empty();
+    }
+
+    @Value
+    public static class Accounts {
+        Map<Integer, String> users;
+        Map<Integer, String> groups;
+    }
+}
@@ -22,6 +22,7 @@ public class ShellStoreState extends DataStoreState implements SystemState {
     ShellDialect shellDialect;
     ShellTtyState ttyState;
     Boolean running;
+    ShellHostFacts hostFacts;
 
     @Override
     public DataStoreState mergeCopy(DataStoreState newer) {
@@ -38,6 +39,7 @@ public class ShellStoreState extends DataStoreState implements SystemState {
                 .osName(useNewer(osName, shellStoreState.getOsName()))
                 .shellDialect(useNewer(shellDialect, shellStoreState.getShellDialect()))
                 .ttyState(useNewer(ttyState, shellStoreState.getTtyState()))
-                .running(useNewer(running, shellStoreState.getRunning()));
+                .running(useNewer(running, shellStoreState.getRunning()))
+                .hostFacts(useNewer(hostFacts, shellStoreState.getHostFacts()));
     }
 }
@@ -6,7 +6,8 @@ import io.xpipe.core.OsType;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class ShellView {
 
@@ -14,6 +15,8 @@ public class ShellView {
     protected String user;
     protected FilePath userHome;
     protected Boolean root;
+    protected ShellHostFacts hostFacts;
+    protected boolean hostFactsGathered;
 
     public ShellView(ShellControl shellControl) {
         this.shellControl = shellControl;
@@ -62,6 +65,29 @@ public class ShellView {
         }
     }
 
+    /**
+     * Returns the facts about the system, which are gathered once per session.
+     */
+    public Optional<ShellHostFacts> getHostFacts() throws Exception {
+        if (!hostFactsGathered) {
+            hostFacts = ShellHostFacts.gather(shellControl).orElse(null);
+            hostFactsGathered = true;
+            if (hostFacts != null) {
+                if (user == null && hostFacts.getUser() != null && !hostFacts.getUser().isEmpty()) {
+                    user = hostFacts.getUser();
+                }
+                if (userHome == null && hostFacts.getHome() != null && !hostFacts.getHome().isEmpty()) {
+                    userHome = FilePath.of(hostFacts.getHome());
+                }
+                if (root == null) {
+                    root = hostFacts.getRoot();
+                }
+            }
+        }
+
+        return Optional.ofNullable(hostFacts);
+    }
+
     public FilePath userHome() throws Exception {
         if (userHome == null) {
             userHome = FilePath.of(OsFileSystem.of(shellControl.getOsType()).getUserHomeDirectory(shellControl));
@@ -76,6 +102,30 @@ public class ShellView {
                 .executeAndCheck();
     }
 
+    /**
+     * Checks whether files or directories exist at multiple paths, which only requires one round trip for POSIX shells.
+     */
+    public Map<FilePath, Boolean> exists(List<FilePath> paths) throws Exception {
+        var map = new LinkedHashMap<FilePath, Boolean>();
+        if (!CommandPipeline.isSupported(getDialect())) {
+            for (var path : paths) {
+                map.put(path, fileExists(path) || directoryExists(path));
+            }
+            return map;
+        }
+
+        var pipeline = shellControl.pipeline();
+        var futures = new LinkedHashMap<FilePath, CompletableFuture<CommandPipeline.Result>>();
+        for (var path : paths) {
+            futures.put(path, pipeline.add("test -e " + getDialect().fileArgument(path)));
+        }
+        pipeline.execute();
+        for (var e : futures.entrySet()) {
+            map.put(e.getKey(), e.getValue().join().isSuccess());
+        }
+        return map;
+    }
+
     public void deleteDirectory(FilePath path) throws Exception {
         getDialect().deleteFileOrDirectory(shellControl, path.toString()).execute();
     }
@@ -105,6 +155,10 @@ public class ShellView {
     }
 
     public String getPath() throws Exception {
+        if (hostFacts != null && hostFacts.getPath() != null) {
+            return hostFacts.getPath();
+        }
+
         var path = shellControl
                 .command(shellControl.getShellDialect().getPrintEnvironmentVariableCommand("PATH"))
                 .readStdoutOrThrow();
@@ -131,6 +185,28 @@ public class ShellView {
         return out.flatMap(s -> s.lines().findFirst()).map(String::trim).map(s -> FilePath.of(s));
     }
 
+    /**
+     * Looks up multiple programs at once, which only requires one round trip for POSIX shells.
+     */
+    public Map<String, Optional<FilePath>> findPrograms(List<String> names) throws Exception {
+        var pipeline = shellControl.pipeline();
+        var futures = new LinkedHashMap<String, CompletableFuture<CommandPipeline.Result>>();
+        for (var name : names) {
+            futures.put(name, pipeline.add(getDialect().getWhichCommand(name)));
+        }
+        pipeline.execute();
+
+        var map = new LinkedHashMap<String, Optional<FilePath>>();
+        for (var e : futures.entrySet()) {
+            var r = e.getValue().join();
+            var path = r.isSuccess()
+                    ? r.getStdout().lines().findFirst().map(String::trim).filter(s -> !s.isEmpty())
+                    : Optional.<String>empty();
+            map.put(e.getKey(), path.map(s -> FilePath.of(s)));
+        }
+        return map;
+    }
+
     public void transferLocalFile(Path localPath, FilePath target) throws Exception {
         try (var in = Files.newInputStream(localPath)) {
             writeStreamFile(target, in, in.available());
@@ -175,6 +251,24 @@ public class ShellView {
                 .readStdoutOrThrow();
     }
 
+    /**
+     * Reads multiple environment variables at once, which only requires one round trip for POSIX shells.
+     */
+    public Map<String, String> getEnvironmentVariables(List<String> names) throws Exception {
+        var pipeline = shellControl.pipeline();
+        var futures = new LinkedHashMap<String, CompletableFuture<CommandPipeline.Result>>();
+        for (var name : names) {
+            futures.put(name, pipeline.add(getDialect().getPrintEnvironmentVariableCommand(name)));
+        }
+        pipeline.execute();
+
+        var map = new LinkedHashMap<String, String>();
+        for (var e : futures.entrySet()) {
+            map.put(e.getKey(), e.getValue().join().getStdout());
+        }
+        return map;
+    }
+
     public void setEnvironmentVariable(String name, String value) throws Exception {
         shellControl
                 .command(shellControl.getShellDialect().getSetEnvironmentVariableCommand(name, value))
@@ -7,7 +7,9 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.Value;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
 public interface PasswordManager {
@@ -33,6 +35,18 @@ public interface PasswordManager {
 
     CredentialResult retrieveCredentials(String key);
 
+    /**
+     * Retrieves the credentials for multiple keys. Implementations that can list or export multiple items
+     * with a single call can override this to avoid one lookup per key.
+     */
+    default Map<String, CredentialResult> retrieveCredentials(List<String> keys) {
+        var map = new LinkedHashMap<String, CredentialResult>();
+        for (var key : keys) {
+            map.put(key, retrieveCredentials(key));
+        }
+        return map;
+    }
+
     String getKeyPlaceholder();
 
     String getWebsite();
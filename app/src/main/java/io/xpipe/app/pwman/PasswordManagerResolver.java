@@ -0,0 +1,199 @@
+package io.xpipe.app.pwman;
+
+import io.xpipe.app.issue.ErrorEventFactory;
+import io.xpipe.app.prefs.AppPrefs;
+import io.xpipe.app.storage.DataStorage;
+import io.xpipe.app.storage.DataStoreEntry;
+import io.xpipe.app.util.GlobalTimer;
+import io.xpipe.app.util.SecretRetrievalStrategy;
+import io.xpipe.core.JacksonMapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Resolves credentials from a password manager. Concurrent requests for the same key share a single lookup,
+ * and results are kept for a short time, so starting many connections that use the same item
+ * only queries the password manager once.
+ * The cached passwords are secret values, which are stored encrypted in memory.
+ */
+public class PasswordManagerResolver {
+
+    private static final Map<Key, CompletableFuture<PasswordManager.CredentialResult>> inFlight = new HashMap<>();
+    private static final Map<Key, PasswordManager.CredentialResult> cache = new HashMap<>();
+
+    public static PasswordManager.CredentialResult retrieveCredentials(
+            PasswordManager passwordManager, String key, Duration cacheDuration) {
+        var k = new Key(passwordManager, key);
+        CompletableFuture<PasswordManager.CredentialResult> future;
+        boolean running;
+        synchronized (PasswordManagerResolver.class) {
+            var cached = cache.get(k);
+            if (cached != null) {
+                return cached;
+            }
+
+            var existing = inFlight.get(k);
+            running = existing != null;
+            if (running) {
+                future = existing;
+            } else {
+                future = new CompletableFuture<>();
+                inFlight.put(k, future);
+            }
+        }
+
+        // Another thread is already retrieving this key
+        if (running) {
+            return join(future);
+        }
+
+        PasswordManager.CredentialResult r;
+        try {
+            r = passwordManager.retrieveCredentials(key);
+        } catch (Throwable t) {
+            // Waiting threads always have to be released, no matter what went wrong
+            fail(k, future, t);
+            throw t;
+        }
+        complete(k, future, r, cacheDuration);
+        return r;
+    }
+
+    /**
+     * Retrieves the credentials of all password manager items that are referenced by the passed entries
+     * or any of their parents in advance. Failures are only logged, the actual lookups report them later on.
+     */
+    public static void prefetch(Collection<DataStoreEntry> entries) {
+        var pm = AppPrefs.get() != null ? AppPrefs.get().passwordManager().getValue() : null;
+        if (pm == null || DataStorage.get() == null) {
+            return;
+        }
+
+        var keys = new LinkedHashSet<String>();
+        for (var entry : entries) {
+            for (var e : DataStorage.get().getStoreParentHierarchy(entry)) {
+                if (e.getStore() == null) {
+                    continue;
+                }
+
+                try {
+                    collectKeys(JacksonMapper.getDefault().valueToTree(e.getStore()), keys);
+                } catch (Exception ex) {
+                    ErrorEventFactory.fromThrowable(ex).omit().handle();
+                }
+            }
+        }
+
+        try {
+            prefetch(pm, keys, SecretRetrievalStrategy.PasswordManager.CACHE_DURATION);
+        } catch (Throwable t) {
+            ErrorEventFactory.fromThrowable(t).omit().expected().handle();
+        }
+    }
+
+    /**
+     * Finds the keys of all password manager secret strategies in a serialized store.
+     */
+    static void collectKeys(JsonNode node, Set<String> keys) {
+        if (node.isObject()
+                && "passwordManager".equals(node.path("type").asText())
+                && node.path("key").isTextual()) {
+            keys.add(node.get("key").asText());
+        }
+        node.forEach(child -> collectKeys(child, keys));
+    }
+
+    /**
+     * Retrieves the credentials for multiple keys in advance, e.g. before starting many connections at once.
+     * The password manager can do this with a single call if it supports it.
+     */
+    public static void prefetch(PasswordManager passwordManager, Collection<String> keys, Duration cacheDuration) {
+        var futures = new LinkedHashMap<String, CompletableFuture<PasswordManager.CredentialResult>>();
+        synchronized (PasswordManagerResolver.class) {
+            for (var key : keys) {
+                var k = new Key(passwordManager, key);
+                if (futures.containsKey(key) || cache.containsKey(k) || inFlight.containsKey(k)) {
+                    continue;
+                }
+
+                var future = new CompletableFuture<PasswordManager.CredentialResult>();
+                inFlight.put(k, future);
+                futures.put(key, future);
+            }
+        }
+
+        if (futures.isEmpty()) {
+            return;
+        }
+
+        Map<String, PasswordManager.CredentialResult> results;
+        try {
+            results = passwordManager.retrieveCredentials(List.copyOf(futures.keySet()));
+        } catch (Throwable t) {
+            futures.forEach((key, future) -> fail(new Key(passwordManager, key), future, t));
+            throw t;
+        }
+
+        futures.forEach((key, future) ->
+                complete(new Key(passwordManager, key), future, results.get(key), cacheDuration));
+    }
+
+    private static PasswordManager.CredentialResult join(CompletableFuture<PasswordManager.CredentialResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException r) {
+                throw r;
+            }
+            if (ex.getCause() instanceof Error e) {
+                throw e;
+            }
+            throw ex;
+        }
+    }
+
+    private static void complete(
+            Key k,
+            CompletableFuture<PasswordManager.CredentialResult> future,
+            PasswordManager.CredentialResult result,
+            Duration cacheDuration) {
+        try {
+            synchronized (PasswordManagerResolver.class) {
+                inFlight.remove(k, future);
+                // Failed lookups are not cached so that they can be retried
+                if (result != null
+                        && result.getPassword() != null
+                        && cacheDuration != null
+                        && cacheDuration.isPositive()) {
+                    cache.put(k, result);
+                    GlobalTimer.delay(
+                            () -> {
+                                synchronized (PasswordManagerResolver.class) {
+                                    cache.remove(k, result);
+                                }
+                            },
+                            cacheDuration);
+                }
+            }
+        } finally {
+            future.complete(result);
+        }
+    }
+
+    private static void fail(Key k, CompletableFuture<PasswordManager.CredentialResult> future, Throwable t) {
+        try {
+            synchronized (PasswordManagerResolver.class) {
+                inFlight.remove(k, future);
+            }
+        } finally {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private record Key(PasswordManager passwordManager, String key) {}
+}
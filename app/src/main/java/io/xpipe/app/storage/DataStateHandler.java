@@ -4,6 +4,7 @@ import io.xpipe.app.ext.DataStore;
 import io.xpipe.app.ext.DataStoreState;
 import io.xpipe.app.ext.StatefulDataStore;
 
+import java.util.Optional;
 import java.util.function.Supplier;
 
 public class DataStateHandler {
@@ -14,13 +15,19 @@ public class DataStateHandler {
         return INSTANCE;
     }
 
+    private static Optional<DataStoreEntry> getEntry(DataStore store) {
+        // The identity lookup is a single map access, the entries in progress are only checked as a fallback
+        var storage = DataStorage.get();
+        var found = storage.getStoreEntryIfPresent(store, true);
+        return found.isPresent() ? found : storage.getStoreEntryInProgressIfPresent(store);
+    }
+
     public void setState(DataStore store, DataStoreState value) {
         if (DataStorage.get() == null) {
             return;
         }
 
-        var entry = DataStorage.get().getStoreEntryIfPresent(store, true).or(() -> DataStorage.get()
-                .getStoreEntryInProgressIfPresent(store));
+        var entry = getEntry(store);
         if (entry.isEmpty()) {
             return;
         }
@@ -33,22 +40,21 @@ public class DataStateHandler {
             return def.get();
         }
 
-        var entry = DataStorage.get().getStoreEntryIfPresent(store, true).or(() -> DataStorage.get()
-                .getStoreEntryInProgressIfPresent(store));
-        if (entry.isEmpty()) {
+        if (!(store instanceof StatefulDataStore<?>)) {
             return def.get();
         }
 
-        if (!(store instanceof StatefulDataStore<?>)) {
+        var entry = getEntry(store);
+        if (entry.isEmpty()) {
             return def.get();
         }
 
-        var found = entry.get().getStorePersistentState();
-        if (found == null) {
-            entry.get().setStorePersistentState(def.get());
-        }
         T r = entry.get().getStorePersistentState();
-        return r != null ? r : def.get();
+        if (r == null) {
+            r = def.get();
+            entry.get().setStorePersistentState(r);
+        }
+        return r;
     }
 
     public void putCache(DataStore store, String key, Object value) {
@@ -56,8 +62,7 @@ public class DataStateHandler {
             return;
         }
 
-        var entry = DataStorage.get().getStoreEntryIfPresent(store, true).or(() -> DataStorage.get()
-                .getStoreEntryInProgressIfPresent(store));
+        var entry = getEntry(store);
         if (entry.isEmpty()) {
             return;
         }
@@ -70,8 +75,7 @@ public class DataStateHandler {
             return def.get();
         }
 
-        var entry = DataStorage.get().getStoreEntryIfPresent(store, true).or(() -> DataStorage.get()
-                .getStoreEntryInProgressIfPresent(store));
+        var entry = getEntry(store);
         if (entry.isEmpty()) {
             return def.get();
         }
@@ -85,8 +89,6 @@ public class DataStateHandler {
     }
 
     public boolean canCacheToStorage(DataStore store) {
-        var entry = DataStorage.get().getStoreEntryIfPresent(store, true).or(() -> DataStorage.get()
-                .getStoreEntryInProgressIfPresent(store));
-        return entry.isPresent();
+        return getEntry(store).isPresent();
     }
 }
@@ -25,7 +25,7 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.crypto.SecretKey;
 
@@ -56,15 +56,19 @@ public abstract class DataStorage {
     private final List<StorageListener> listeners = new CopyOnWriteArrayList<>();
 
     private final Map<DataStoreEntry, DataStoreEntry> storeEntriesInProgress = new ConcurrentHashMap<>();
-    private final Map<DataStore, DataStoreEntry> identityStoreEntryMapCache = new IdentityHashMap<>();
-    private final Map<DataStore, DataStoreEntry> storeEntryMapCache = new HashMap<>();
+    private final DataStorageIndex index = new DataStorageIndex();
+    private final Set<StorageElement> dirtyElements = ConcurrentHashMap.newKeySet();
 
     @Getter
     @Setter
     protected DataStoreCategory selectedCategory;
 
     public DataStorage() {
-        this.dir = getStorageDirectory();
+        this(getStorageDirectory());
+    }
+
+    protected DataStorage(Path dir) {
+        this.dir = dir;
         this.storeEntries = new ConcurrentHashMap<>();
         this.storeEntriesSet = storeEntries.keySet();
         this.storeCategories = new CopyOnWriteArrayList<>();
@@ -155,7 +159,7 @@ public abstract class DataStorage {
         if (allConnections.isEmpty()) {
             var cat = DataStoreCategory.createNew(null, ALL_CONNECTIONS_CATEGORY_UUID, "All connections");
             cat.setDirectory(categoriesDir.resolve(ALL_CONNECTIONS_CATEGORY_UUID.toString()));
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         } else {
             allConnections.get().setParentCategory(null);
         }
@@ -164,7 +168,7 @@ public abstract class DataStorage {
         if (allScripts.isEmpty()) {
             var cat = DataStoreCategory.createNew(null, ALL_SCRIPTS_CATEGORY_UUID, "All scripts");
             cat.setDirectory(categoriesDir.resolve(ALL_SCRIPTS_CATEGORY_UUID.toString()));
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         } else {
             allScripts.get().setParentCategory(null);
         }
@@ -173,20 +177,20 @@ public abstract class DataStorage {
             var cat =
                     DataStoreCategory.createNew(ALL_SCRIPTS_CATEGORY_UUID, PREDEFINED_SCRIPTS_CATEGORY_UUID, "Samples");
             cat.setDirectory(categoriesDir.resolve(PREDEFINED_SCRIPTS_CATEGORY_UUID.toString()));
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         }
 
         if (getStoreCategoryIfPresent(CUSTOM_SCRIPTS_CATEGORY_UUID).isEmpty()) {
             var cat = DataStoreCategory.createNew(ALL_SCRIPTS_CATEGORY_UUID, CUSTOM_SCRIPTS_CATEGORY_UUID, "Custom");
             cat.setDirectory(categoriesDir.resolve(CUSTOM_SCRIPTS_CATEGORY_UUID.toString()));
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         }
 
         var allIdentities = getStoreCategoryIfPresent(ALL_IDENTITIES_CATEGORY_UUID);
         if (allIdentities.isEmpty()) {
             var cat = DataStoreCategory.createNew(null, ALL_IDENTITIES_CATEGORY_UUID, "All identities");
             cat.setDirectory(categoriesDir.resolve(ALL_IDENTITIES_CATEGORY_UUID.toString()));
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         } else {
             allIdentities.get().setParentCategory(null);
         }
@@ -196,7 +200,7 @@ public abstract class DataStorage {
             var cat =
                     DataStoreCategory.createNew(ALL_IDENTITIES_CATEGORY_UUID, LOCAL_IDENTITIES_CATEGORY_UUID, "Local");
             cat.setDirectory(categoriesDir.resolve(LOCAL_IDENTITIES_CATEGORY_UUID.toString()));
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         } else {
             localIdentities.get().setParentCategory(ALL_IDENTITIES_CATEGORY_UUID);
         }
@@ -205,7 +209,7 @@ public abstract class DataStorage {
         //        if (allMacros.isEmpty()) {
         //            var cat = DataStoreCategory.createNew(null, ALL_MACROS_CATEGORY_UUID, "All macros");
         //            cat.setDirectory(categoriesDir.resolve(ALL_MACROS_CATEGORY_UUID.toString()));
-        //            storeCategories.add(cat);
+        //            putStoreCategoryInternal(cat);
         //        } else {
         //            allMacros.get().setParentCategory(null);
         //        }
@@ -217,14 +221,14 @@ public abstract class DataStorage {
                         ALL_IDENTITIES_CATEGORY_UUID, SYNCED_IDENTITIES_CATEGORY_UUID, "Synced");
                 cat.setDirectory(categoriesDir.resolve(SYNCED_IDENTITIES_CATEGORY_UUID.toString()));
                 cat.setConfig(cat.getConfig().withSync(true));
-                storeCategories.add(cat);
+                putStoreCategoryInternal(cat);
             } else {
                 sharedIdentities.get().setParentCategory(ALL_IDENTITIES_CATEGORY_UUID);
             }
         }
 
         if (getStoreCategoryIfPresent(DEFAULT_CATEGORY_UUID).isEmpty()) {
-            storeCategories.add(new DataStoreCategory(
+            putStoreCategoryInternal(new DataStoreCategory(
                     categoriesDir.resolve(DEFAULT_CATEGORY_UUID.toString()),
                     DEFAULT_CATEGORY_UUID,
                     "Default",
@@ -270,6 +274,64 @@ public abstract class DataStorage {
         this.listeners.add(l);
     }
 
+    protected void putStoreEntryInternal(DataStoreEntry e) {
+        putStoreEntryInternal(e, true);
+    }
+
+    /**
+     * Adds an entry to the storage. When loading many entries at once, the display parent should only be
+     * indexed afterward, as the parent might not have been added yet. Until then, it is computed on demand.
+     */
+    protected void putStoreEntryInternal(DataStoreEntry e, boolean indexDisplayParent) {
+        storeEntries.put(e, e);
+        index.addEntry(e);
+        if (indexDisplayParent) {
+            index.setDisplayParent(e, computeDisplayParent(e));
+        }
+        if (e.isDirty()) {
+            dirtyElements.add(e);
+        }
+    }
+
+    protected void removeStoreEntryInternal(DataStoreEntry e) {
+        storeEntries.remove(e);
+        index.removeEntry(e);
+    }
+
+    protected void putStoreCategoryInternal(DataStoreCategory cat) {
+        storeCategories.add(cat);
+        index.addCategory(cat);
+        if (cat.isDirty()) {
+            dirtyElements.add(cat);
+        }
+    }
+
+    protected void removeStoreCategoryInternal(DataStoreCategory cat) {
+        storeCategories.remove(cat);
+        index.removeCategory(cat);
+    }
+
+    void onElementDirty(StorageElement e) {
+        dirtyElements.add(e);
+    }
+
+    protected List<StorageElement> drainDirtyElements() {
+        var list = new ArrayList<StorageElement>();
+        var it = dirtyElements.iterator();
+        while (it.hasNext()) {
+            list.add(it.next());
+            it.remove();
+        }
+        return list;
+    }
+
+    void onStoreEntryKeyChange(DataStoreEntry e) {
+        index.updateEntryKeys(e);
+        if (index.isIndexed(e)) {
+            index.setDisplayParent(e, computeDisplayParent(e));
+        }
+    }
+
     public abstract void load();
 
     public abstract void saveAsync();
@@ -329,6 +391,75 @@ public abstract class DataStorage {
         storeEntries.keySet().forEach(dataStoreEntry -> {
             dataStoreEntry.refreshStore();
         });
+        // Display parents might depend on other entries, so update them once everything is refreshed
+        storeEntries.keySet().forEach(dataStoreEntry -> {
+            index.setDisplayParent(dataStoreEntry, computeDisplayParent(dataStoreEntry));
+        });
+    }
+
+    protected void refreshEntriesInDependencyOrder() {
+        // Referenced entries are refreshed first, so a single pass resolves all references outside of cycles
+        getEntriesInDependencyOrder().forEach(dataStoreEntry -> {
+            dataStoreEntry.refreshStore();
+        });
+        storeEntries.keySet().forEach(dataStoreEntry -> {
+            index.setDisplayParent(dataStoreEntry, computeDisplayParent(dataStoreEntry));
+        });
+    }
+
+    private List<DataStoreEntry> getEntriesInDependencyOrder() {
+        return orderByReferences(new ArrayList<>(storeEntriesSet), this::getReferencedEntries);
+    }
+
+    /**
+     * Orders the elements so that referenced elements come before the elements referencing them.
+     * Elements in reference cycles can't be ordered and are appended once at the end.
+     */
+    static <T> List<T> orderByReferences(List<T> entries, Function<T, Set<T>> references) {
+        var remaining = new HashMap<T, Integer>();
+        entries.forEach(e -> remaining.put(e, 0));
+
+        var dependents = new HashMap<T, List<T>>();
+        for (T e : entries) {
+            var refs = new HashSet<>(references.apply(e));
+            refs.removeIf(r -> r.equals(e) || !remaining.containsKey(r));
+            remaining.put(e, refs.size());
+            refs.forEach(r -> dependents.computeIfAbsent(r, k -> new ArrayList<>()).add(e));
+        }
+
+        var queue = new ArrayDeque<T>();
+        entries.forEach(e -> {
+            if (remaining.get(e) == 0) {
+                queue.add(e);
+            }
+        });
+
+        var ordered = new ArrayList<T>(entries.size());
+        while (!queue.isEmpty()) {
+            var next = queue.poll();
+            ordered.add(next);
+            for (T dependent : dependents.getOrDefault(next, List.of())) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        // References within cycles are resolved by the second refresh pass after the providers are initialized
+        entries.stream().filter(e -> remaining.get(e) > 0).forEach(ordered::add);
+        return ordered;
+    }
+
+    private Set<DataStoreEntry> getReferencedEntries(DataStoreEntry entry) {
+        var set = new HashSet<DataStoreEntry>();
+        if (entry.getStoreNode() == null) {
+            return set;
+        }
+
+        for (var uuid : entry.getStoreNode().getReferencedIds()) {
+            index.getEntry(uuid).filter(found -> !found.equals(entry)).ifPresent(set::add);
+        }
+        return set;
     }
 
     public void updateEntry(DataStoreEntry entry, DataStoreEntry newEntry) {
@@ -356,26 +487,13 @@ public abstract class DataStorage {
             listeners.forEach(storageListener -> storageListener.onStoreRemove(toRemove));
         }
 
-        if (entry.getStore() != null) {
-            synchronized (identityStoreEntryMapCache) {
-                identityStoreEntryMapCache.remove(entry.getStore());
-            }
-            synchronized (storeEntryMapCache) {
-                storeEntryMapCache.remove(entry.getStore());
-            }
-        }
-
         var categoryChanged = !entry.getCategoryUuid().equals(newEntry.getCategoryUuid());
 
         entry.applyChanges(newEntry);
         entry.initializeEntry();
 
         if (!sameParent) {
-            if (oldParent.isPresent()) {
-                oldParent.get().setChildrenCache(null);
-            }
             if (newParent.isPresent()) {
-                newParent.get().setChildrenCache(null);
                 newParent.get().setExpanded(true);
             }
             var toAdd = Stream.concat(Stream.of(entry), children.stream()).toArray(DataStoreEntry[]::new);
@@ -384,7 +502,7 @@ public abstract class DataStorage {
 
         if (categoryChanged) {
             listeners.forEach(storageListener -> storageListener.onEntryCategoryChange());
-            listeners.forEach(storageListener -> storageListener.onStoreListUpdate());
+            listeners.forEach(storageListener -> storageListener.onStoreListUpdate(entry));
         }
 
         SecretManager.moveReferences(newEntry.getUuid(), entry.getUuid());
@@ -402,11 +520,15 @@ public abstract class DataStorage {
 
     public void updateCategoryConfig(DataStoreCategory category, DataStoreCategoryConfig config) {
         if (category.setConfig(config)) {
+            // The sync state of all contained entries might have changed
+            queueFullSave();
             // Update git remote if needed
             DataStorage.get().saveAsync();
         }
     }
 
+    protected void queueFullSave() {}
+
     public DataStoreCategory breakOutCategory(DataStoreEntry entry) {
         if (!(entry.getStore() instanceof FixedHierarchyStore) && !(entry.getStore() instanceof GroupStore<?>)) {
             return null;
@@ -460,7 +582,7 @@ public abstract class DataStorage {
         });
 
         listeners.forEach(storageListener -> storageListener.onEntryCategoryChange());
-        listeners.forEach(storageListener -> storageListener.onStoreListUpdate());
+        listeners.forEach(storageListener -> storageListener.onStoreListUpdate(entry));
 
         saveAsync();
         return breakOut;
@@ -517,7 +639,7 @@ public abstract class DataStorage {
         listeners.forEach(storageListener -> storageListener.onEntryCategoryChange());
         deleteStoreCategory(breakOut.get(), false, false);
         entry.setBreakOutCategory(null);
-        listeners.forEach(storageListener -> storageListener.onStoreListUpdate());
+        listeners.forEach(storageListener -> storageListener.onStoreListUpdate(entry));
         saveAsync();
     }
 
@@ -537,13 +659,13 @@ public abstract class DataStorage {
             child.setCategoryUuid(newCategory.getUuid());
         });
         listeners.forEach(storageListener -> storageListener.onEntryCategoryChange());
-        listeners.forEach(storageListener -> storageListener.onStoreListUpdate());
+        listeners.forEach(storageListener -> storageListener.onStoreListUpdate(entry));
         saveAsync();
     }
 
     public void setOrderIndex(DataStoreEntry entry, int index) {
         entry.setOrderIndex(index);
-        listeners.forEach(storageListener -> storageListener.onStoreListUpdate());
+        listeners.forEach(storageListener -> storageListener.onStoreListUpdate(entry));
         saveAsync();
     }
 
@@ -780,15 +902,7 @@ public abstract class DataStorage {
 
         for (var td : toDelete) {
             td.finalizeEntry();
-            this.storeEntriesSet.remove(td);
-            synchronized (identityStoreEntryMapCache) {
-                identityStoreEntryMapCache.remove(td.getStore());
-            }
-            synchronized (storeEntryMapCache) {
-                storeEntryMapCache.remove(td.getStore());
-            }
-            var parent = getDefaultDisplayParent(td);
-            parent.ifPresent(p -> p.setChildrenCache(null));
+            removeStoreEntryInternal(td);
         }
 
         this.listeners.forEach(l -> l.onStoreRemove(toDelete.toArray(DataStoreEntry[]::new)));
@@ -798,7 +912,7 @@ public abstract class DataStorage {
 
     public void addStoreCategory(@NonNull DataStoreCategory cat) {
         cat.setDirectory(getCategoriesDir().resolve(cat.getUuid().toString()));
-        this.storeCategories.add(cat);
+        putStoreCategoryInternal(cat);
         saveAsync();
 
         this.listeners.forEach(l -> l.onCategoryAdd(cat));
@@ -839,10 +953,7 @@ public abstract class DataStorage {
         }
 
         e.setDirectory(getStoresDir().resolve(e.getUuid().toString()));
-        this.storeEntries.put(e, e);
-        displayParent.ifPresent(p -> {
-            p.setChildrenCache(null);
-        });
+        putStoreEntryInternal(e);
         saveAsync();
 
         this.listeners.forEach(l -> l.onStoreAdd(e));
@@ -881,10 +992,7 @@ public abstract class DataStorage {
             }
 
             e.setDirectory(getStoresDir().resolve(e.getUuid().toString()));
-            this.storeEntries.put(e, e);
-            displayParent.ifPresent(p -> {
-                p.setChildrenCache(null);
-            });
+            putStoreEntryInternal(e);
         }
         for (DataStoreEntry e : toAdd) {
             e.refreshStore();
@@ -917,14 +1025,7 @@ public abstract class DataStorage {
 
     public void deleteStoreEntry(@NonNull DataStoreEntry store) {
         store.finalizeEntry();
-        this.storeEntries.remove(store);
-        synchronized (identityStoreEntryMapCache) {
-            identityStoreEntryMapCache.remove(store.getStore());
-        }
-        synchronized (storeEntryMapCache) {
-            storeEntryMapCache.remove(store.getStore());
-        }
-        getDefaultDisplayParent(store).ifPresent(p -> p.setChildrenCache(null));
+        removeStoreEntryInternal(store);
         this.listeners.forEach(l -> l.onStoreRemove(store));
         refreshEntries();
         saveAsync();
@@ -980,7 +1081,7 @@ public abstract class DataStorage {
                 });
             }
 
-            storeCategories.remove(delCat);
+            removeStoreCategoryInternal(delCat);
             this.listeners.forEach(l -> l.onCategoryRemove(delCat));
         }
 
@@ -1033,18 +1134,35 @@ public abstract class DataStorage {
     }
 
     private boolean isParentLoop(DataStoreEntry entry) {
-        var es = new HashSet<DataStoreEntry>();
+        return getParentChain(entry).loop();
+    }
+
+    private DataStorageIndex.ParentChain getParentChain(DataStoreEntry entry) {
+        var cached = index.getParentChain(entry);
+        if (cached != null) {
+            return cached;
+        }
+
+        var generation = index.getHierarchyGeneration();
+        var es = new ArrayList<DataStoreEntry>();
+        es.add(entry);
+        var visited = new HashSet<DataStoreEntry>();
+        visited.add(entry);
+        var loop = false;
 
         DataStoreEntry current = entry;
         while ((current = getDefaultDisplayParent(current).orElse(null)) != null) {
-            if (es.contains(current)) {
-                return true;
+            if (!visited.add(current)) {
+                loop = true;
+                break;
             }
 
-            es.add(current);
+            es.addFirst(current);
         }
 
-        return false;
+        var chain = new DataStorageIndex.ParentChain(List.copyOf(es), loop);
+        index.putParentChain(entry, chain, generation);
+        return chain;
     }
 
     public boolean getEffectiveReadOnlyState(DataStoreEntry entry) {
@@ -1073,16 +1191,14 @@ public abstract class DataStorage {
             return entry;
         }
 
-        var current = entry;
-        Optional<DataStoreEntry> parent;
-        while ((parent = getDefaultDisplayParent(current)).isPresent()) {
-            current = parent.get();
-            if (isRootEntry(current, cat)) {
-                break;
+        var chain = getParentChain(entry);
+        var hierarchy = chain.hierarchy();
+        for (int i = hierarchy.size() - 2; i >= 0; i--) {
+            if (isRootEntry(hierarchy.get(i), cat)) {
+                return hierarchy.get(i);
             }
         }
-
-        return current;
+        return chain.root();
     }
 
     public Optional<DataStoreEntry> getSyntheticParent(DataStoreEntry entry) {
@@ -1103,12 +1219,21 @@ public abstract class DataStorage {
             return Optional.empty();
         }
 
+        var indexed = index.getDisplayParent(entry);
+        var parent = indexed.indexed() ? indexed.value() : computeDisplayParent(entry);
+        return Optional.ofNullable(parent).filter(dataStoreEntry -> storeEntries.get(dataStoreEntry) != null);
+    }
+
+    private DataStoreEntry computeDisplayParent(DataStoreEntry entry) {
+        if (entry.getValidity() == DataStoreEntry.Validity.LOAD_FAILED) {
+            return null;
+        }
+
         try {
             var provider = entry.getProvider();
-            return Optional.ofNullable(provider.getDisplayParent(entry))
-                    .filter(dataStoreEntry -> storeEntries.get(dataStoreEntry) != null);
+            return provider.getDisplayParent(entry);
         } catch (Exception ex) {
-            return Optional.empty();
+            return null;
         }
     }
 
@@ -1137,21 +1262,17 @@ public abstract class DataStorage {
             return entry.getChildrenCache();
         }
 
-        var entries = getStoreEntries();
-        if (!entries.contains(entry)) {
+        if (!storeEntries.containsKey(entry)) {
             return Set.of();
         }
 
-        var children = entries.stream()
-                .filter(other -> {
-                    if (other.getValidity() == DataStoreEntry.Validity.LOAD_FAILED) {
-                        return false;
-                    }
+        if (isParentLoop(entry)) {
+            entry.setChildrenCache(Set.of());
+            return Set.of();
+        }
 
-                    var parent = getDefaultDisplayParent(other);
-                    return parent.isPresent() && parent.get().equals(entry) && !isParentLoop(entry);
-                })
-                .collect(Collectors.toSet());
+        var children = index.getDisplayChildren(entry);
+        children.removeIf(other -> other.getValidity() == DataStoreEntry.Validity.LOAD_FAILED);
         entry.setChildrenCache(children);
         return children;
     }
@@ -1172,20 +1293,24 @@ public abstract class DataStorage {
         return es;
     }
 
+    /**
+     * Returns the display parent hierarchy of an entry, starting with the topmost parent and ending with the entry.
+     * The returned list is cached and can't be modified.
+     */
     public List<DataStoreEntry> getStoreParentHierarchy(DataStoreEntry entry) {
-        var es = new ArrayList<DataStoreEntry>();
-        es.add(entry);
-
-        DataStoreEntry current = entry;
-        while ((current = getDefaultDisplayParent(current).orElse(null)) != null) {
-            if (es.contains(current)) {
-                break;
-            }
+        return getParentChain(entry).hierarchy();
+    }
 
-            es.addFirst(current);
-        }
+    /**
+     * Returns the number of display parents of an entry.
+     */
+    public int getStoreDepth(DataStoreEntry entry) {
+        return getParentChain(entry).depth();
+    }
 
-        return es;
+    public boolean isStoreParent(DataStoreEntry entry, DataStoreEntry parent) {
+        var hierarchy = getParentChain(entry).hierarchy();
+        return hierarchy.subList(0, hierarchy.size() - 1).contains(parent);
     }
 
     public StorePath getStorePath(DataStoreEntry entry) {
@@ -1208,41 +1333,21 @@ public abstract class DataStorage {
 
     public Optional<DataStoreEntry> getStoreEntryIfPresent(@NonNull DataStore store, boolean identityOnly) {
         if (identityOnly) {
-            synchronized (identityStoreEntryMapCache) {
-                var found = identityStoreEntryMapCache.get(store);
-                if (found != null) {
-                    return Optional.of(found);
-                }
-            }
-        } else {
-            synchronized (storeEntryMapCache) {
-                var found = storeEntryMapCache.get(store);
-                if (found != null) {
-                    return Optional.of(found);
-                }
-            }
+            return index.getEntryByStoreIdentity(store);
         }
 
-        var found = storeEntriesSet.stream()
+        var found = index.getEntryByStore(store);
+        if (found.indexed()) {
+            return Optional.ofNullable(found.value());
+        }
+
+        // Stores that can't be hashed are not indexed
+        return storeEntriesSet.stream()
                 .filter(n -> n.getStore() == store
-                        || (!identityOnly
-                                && (n.getStore() != null
-                                        && Objects.equals(
-                                                store.getClass(), n.getStore().getClass())
-                                        && store.equals(n.getStore()))))
+                        || (n.getStore() != null
+                                && Objects.equals(store.getClass(), n.getStore().getClass())
+                                && store.equals(n.getStore())))
                 .findFirst();
-        if (found.isPresent()) {
-            if (identityOnly) {
-                synchronized (identityStoreEntryMapCache) {
-                    identityStoreEntryMapCache.put(store, found.get());
-                }
-            } else {
-                synchronized (storeEntryMapCache) {
-                    storeEntryMapCache.put(store, found.get());
-                }
-            }
-        }
-        return found;
     }
 
     public DataStoreCategory getRootCategory(DataStoreCategory category) {
@@ -1262,21 +1367,11 @@ public abstract class DataStorage {
     }
 
     public Optional<DataStoreCategory> getStoreCategoryIfPresent(UUID uuid) {
-        if (uuid == null) {
-            return Optional.empty();
-        }
-
-        return storeCategories.stream()
-                .filter(n -> {
-                    return Objects.equals(n.getUuid(), uuid);
-                })
-                .findFirst();
+        return index.getCategory(uuid);
     }
 
     public Optional<DataStoreEntry> getStoreEntryIfPresent(@NonNull String name) {
-        return storeEntriesSet.stream()
-                .filter(n -> n.getName().equalsIgnoreCase(name))
-                .findFirst();
+        return index.getEntryByName(name);
     }
 
     public String getStoreEntryDisplayName(DataStoreEntry entry) {
@@ -1308,7 +1403,7 @@ public abstract class DataStorage {
     }
 
     public Optional<DataStoreEntry> getStoreEntryIfPresent(UUID id) {
-        return storeEntriesSet.stream().filter(e -> e.getUuid().equals(id)).findAny();
+        return index.getEntry(id);
     }
 
     public Set<DataStoreEntry> getStoreEntries() {
@@ -0,0 +1,295 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.ext.DataStore;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary lookup structures for the entries and categories of a {@link DataStorage}.
+ * All mutations of the storage contents go through the storage, which keeps this index in sync.
+ */
+class DataStorageIndex {
+
+    private final Map<UUID, DataStoreEntry> entriesById = new ConcurrentHashMap<>();
+    private final Map<UUID, DataStoreCategory> categoriesById = new ConcurrentHashMap<>();
+    private final Map<String, Set<DataStoreEntry>> entriesByName = new HashMap<>();
+    private final Map<DataStore, List<DataStoreEntry>> entriesByStore = new HashMap<>();
+    private final Map<DataStore, DataStoreEntry> entriesByStoreIdentity = new IdentityHashMap<>();
+    private final Map<DataStoreEntry, IndexedKeys> indexedKeys = new HashMap<>();
+    private final Map<DataStoreEntry, DataStoreEntry> displayParents = new HashMap<>();
+    private final Map<DataStoreEntry, Set<DataStoreEntry>> displayChildren = new HashMap<>();
+    private final Map<DataStoreEntry, ParentChain> parentChains = new HashMap<>();
+    private long hierarchyGeneration;
+
+    private static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized void addEntry(DataStoreEntry entry) {
+        entriesById.put(entry.getUuid(), entry);
+        indexKeys(entry);
+        entry.setChildrenCache(null);
+        invalidateHierarchies();
+    }
+
+    public synchronized void removeEntry(DataStoreEntry entry) {
+        entriesById.remove(entry.getUuid(), entry);
+        unindexKeys(entry);
+        var parent = displayParents.remove(entry);
+        if (parent != null) {
+            removeDisplayChild(parent, entry);
+        }
+        invalidateHierarchies();
+    }
+
+    public synchronized boolean isIndexed(DataStoreEntry entry) {
+        return entriesById.get(entry.getUuid()) == entry;
+    }
+
+    public synchronized void setDisplayParent(DataStoreEntry entry, DataStoreEntry parent) {
+        if (!isIndexed(entry)) {
+            return;
+        }
+
+        var hadParent = displayParents.containsKey(entry);
+        var old = displayParents.put(entry, parent);
+        if (hadParent && Objects.equals(old, parent)) {
+            return;
+        }
+
+        if (old != null) {
+            removeDisplayChild(old, entry);
+        }
+        if (parent != null) {
+            displayChildren.computeIfAbsent(parent, k -> new HashSet<>()).add(entry);
+            parent.setChildrenCache(null);
+
+            // Parent loops affect the children of every entry in the loop
+            var visited = new HashSet<DataStoreEntry>();
+            var current = displayParents.get(parent);
+            while (current != null && visited.add(current)) {
+                current.setChildrenCache(null);
+                current = displayParents.get(current);
+            }
+        }
+        invalidateHierarchies();
+    }
+
+    /**
+     * Returns the raw display parent of an entry as computed by its provider.
+     * If the entry is not indexed, the caller has to compute it.
+     */
+    public synchronized Lookup<DataStoreEntry> getDisplayParent(DataStoreEntry entry) {
+        if (!displayParents.containsKey(entry) || !isIndexed(entry)) {
+            return Lookup.notIndexed();
+        }
+
+        return Lookup.of(displayParents.get(entry));
+    }
+
+    public synchronized Set<DataStoreEntry> getDisplayChildren(DataStoreEntry entry) {
+        var found = displayChildren.get(entry);
+        return found != null ? new HashSet<>(found) : new HashSet<>();
+    }
+
+    public synchronized long getHierarchyGeneration() {
+        return hierarchyGeneration;
+    }
+
+    public synchronized ParentChain getParentChain(DataStoreEntry entry) {
+        return parentChains.get(entry);
+    }
+
+    public synchronized void putParentChain(DataStoreEntry entry, ParentChain chain, long generation) {
+        // Discard chains that were computed while the hierarchy changed
+        if (generation != hierarchyGeneration || !isIndexed(entry)) {
+            return;
+        }
+
+        parentChains.put(entry, chain);
+    }
+
+    public synchronized void updateEntryKeys(DataStoreEntry entry) {
+        if (entriesById.get(entry.getUuid()) != entry) {
+            return;
+        }
+
+        var keys = indexedKeys.get(entry);
+        if (keys != null && keys.store() == entry.getStore() && Objects.equals(keys.name(), entry.getName())) {
+            return;
+        }
+
+        unindexKeys(entry);
+        indexKeys(entry);
+    }
+
+    public void addCategory(DataStoreCategory category) {
+        categoriesById.put(category.getUuid(), category);
+    }
+
+    public void removeCategory(DataStoreCategory category) {
+        categoriesById.remove(category.getUuid(), category);
+    }
+
+    public Optional<DataStoreEntry> getEntry(UUID uuid) {
+        if (uuid == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(entriesById.get(uuid));
+    }
+
+    public Optional<DataStoreCategory> getCategory(UUID uuid) {
+        if (uuid == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(categoriesById.get(uuid));
+    }
+
+    public synchronized Optional<DataStoreEntry> getEntryByName(String name) {
+        var found = entriesByName.get(normalizeName(name));
+        if (found == null) {
+            return Optional.empty();
+        }
+
+        return found.stream().findFirst();
+    }
+
+    public synchronized Optional<DataStoreEntry> getEntryByStoreIdentity(DataStore store) {
+        return Optional.ofNullable(entriesByStoreIdentity.get(store));
+    }
+
+    /**
+     * Looks up the entry of a store by equality.
+     * If the store can not be hashed, the caller has to fall back to a scan.
+     */
+    public synchronized Lookup<DataStoreEntry> getEntryByStore(DataStore store) {
+        var identity = entriesByStoreIdentity.get(store);
+        if (identity != null) {
+            return Lookup.of(identity);
+        }
+
+        List<DataStoreEntry> found;
+        try {
+            found = entriesByStore.get(store);
+        } catch (Exception ex) {
+            return Lookup.notIndexed();
+        }
+
+        if (found == null) {
+            return Lookup.of(null);
+        }
+
+        return Lookup.of(found.stream()
+                .filter(e -> e.getStore() != null
+                        && Objects.equals(store.getClass(), e.getStore().getClass())
+                        && store.equals(e.getStore()))
+                .findFirst()
+                .orElse(null));
+    }
+
+    private void indexKeys(DataStoreEntry entry) {
+        var name = entry.getName();
+        var store = entry.getStore();
+        indexedKeys.put(entry, new IndexedKeys(name, store));
+
+        if (name != null) {
+            entriesByName
+                    .computeIfAbsent(normalizeName(name), k -> new LinkedHashSet<>())
+                    .add(entry);
+        }
+
+        if (store != null) {
+            entriesByStoreIdentity.put(store, entry);
+            try {
+                entriesByStore.computeIfAbsent(store, k -> new ArrayList<>(1)).add(entry);
+            } catch (Exception ignored) {
+                // Broken stores can not be hashed, lookups will fall back to a scan
+            }
+        }
+    }
+
+    private void unindexKeys(DataStoreEntry entry) {
+        var keys = indexedKeys.remove(entry);
+        if (keys == null) {
+            return;
+        }
+
+        if (keys.name() != null) {
+            var normalized = normalizeName(keys.name());
+            var set = entriesByName.get(normalized);
+            if (set != null) {
+                set.remove(entry);
+                if (set.isEmpty()) {
+                    entriesByName.remove(normalized);
+                }
+            }
+        }
+
+        if (keys.store() != null) {
+            entriesByStoreIdentity.remove(keys.store(), entry);
+            try {
+                var list = entriesByStore.get(keys.store());
+                if (list != null) {
+                    list.remove(entry);
+                    if (list.isEmpty()) {
+                        entriesByStore.remove(keys.store());
+                    }
+                }
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    private void removeDisplayChild(DataStoreEntry parent, DataStoreEntry child) {
+        var set = displayChildren.get(parent);
+        if (set != null) {
+            set.remove(child);
+            if (set.isEmpty()) {
+                displayChildren.remove(parent);
+            }
+        }
+        parent.setChildrenCache(null);
+    }
+
+    private void invalidateHierarchies() {
+        hierarchyGeneration++;
+        parentChains.clear();
+    }
+
+    private record IndexedKeys(String name, DataStore store) {}
+
+    /**
+     * The result of a lookup that the index can not always answer.
+     * A null value means that the index knows that there is no result.
+     */
+    record Lookup<T>(boolean indexed, T value) {
+
+        private static final Lookup<?> NOT_INDEXED = new Lookup<>(false, null);
+
+        @SuppressWarnings("unchecked")
+        static <T> Lookup<T> notIndexed() {
+            return (Lookup<T>) NOT_INDEXED;
+        }
+
+        static <T> Lookup<T> of(T value) {
+            return new Lookup<>(true, value);
+        }
+    }
+
+    /**
+     * The display parent hierarchy of an entry, starting with the topmost parent and ending with the entry itself.
+     */
+    record ParentChain(List<DataStoreEntry> hierarchy, boolean loop) {
+
+        public DataStoreEntry root() {
+            return hierarchy.getFirst();
+        }
+
+        public int depth() {
+            return hierarchy.size() - 1;
+        }
+    }
+}
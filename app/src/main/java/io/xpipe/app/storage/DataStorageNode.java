@@ -7,6 +7,7 @@ import io.xpipe.app.prefs.AppPrefs;
 import io.xpipe.app.util.EncryptionToken;
 import io.xpipe.core.InPlaceSecretValue;
 import io.xpipe.core.JacksonMapper;
+import io.xpipe.core.UuidHelper;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -14,11 +15,15 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 
 import java.io.CharArrayReader;
 import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.util.*;
 
 @Value
 public class DataStorageNode {
@@ -28,6 +33,15 @@ public class DataStorageNode {
     boolean readableForUser;
     boolean encrypted;
 
+    /**
+     * The ids of all entries this node might reference.
+     * Nodes are not modified after creation, so this is only computed once.
+     */
+    @Getter(lazy = true)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Set<UUID> referencedIds = computeReferencedIds();
+
     private static boolean encryptPerUser(DataStore store) {
         if (DataStorageUserHandler.getInstance().getActiveUser() == null) {
             return false;
@@ -137,6 +151,29 @@ public class DataStorageNode {
         return JacksonMapper.getDefault().treeToValue(getContentNode(), DataStore.class);
     }
 
+    private Set<UUID> computeReferencedIds() {
+        if (contentNode == null) {
+            return Set.of();
+        }
+
+        // Entry references are serialized as their uuid
+        var set = new LinkedHashSet<UUID>();
+        var queue = new ArrayDeque<JsonNode>();
+        queue.add(contentNode);
+        while (!queue.isEmpty()) {
+            var next = queue.poll();
+            if (next.isTextual()) {
+                var text = next.textValue();
+                if (text.length() == 36) {
+                    UuidHelper.parse(text).ifPresent(set::add);
+                }
+            } else if (next.isContainerNode()) {
+                next.forEach(queue::add);
+            }
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
     public boolean hasAccess() {
         // In this case the loading failed
         // We have access to it, we just can't read it
@@ -0,0 +1,345 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.issue.ErrorEventFactory;
+import io.xpipe.app.issue.TrackEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single file copy of the contents of all entry and category directories of a vault.
+ * When the recorded modification time of a directory and the size and modification time of all its files
+ * still match the ones on disk, the directory contents can be read from the snapshot instead of opening every file
+ * individually. Only checking the directory is not enough, as files can also be rewritten in place
+ * and some file systems only have coarse directory timestamps.
+ * The directory layout on disk always stays the source of truth, stale directories are read from disk again.
+ * Only the offsets of the file contents in the snapshot are kept in memory.
+ */
+class DataStorageSnapshot implements AutoCloseable {
+
+    private static final int MAGIC = 0x58505653;
+    private static final int VERSION = 3;
+
+    private final Path file;
+    private final Map<String, DirectoryRecord> directories;
+    private FileChannel channel;
+    private volatile boolean modified;
+
+    private DataStorageSnapshot(Path file, Map<String, DirectoryRecord> directories) {
+        this.file = file;
+        this.directories = new ConcurrentHashMap<>(directories);
+    }
+
+    public static DataStorageSnapshot read(Path file) {
+        if (!Files.exists(file)) {
+            return new DataStorageSnapshot(file, Map.of());
+        }
+
+        // Only read the metadata and close the file right away, so it can be replaced later on
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = readFully(channel, 0, 12);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                TrackEvent.info("Ignoring vault snapshot with unknown format");
+                return new DataStorageSnapshot(file, Map.of());
+            }
+
+            var indexOffset = header.getInt();
+            var index = readFully(channel, indexOffset, (int) (channel.size() - indexOffset));
+            var count = index.getInt();
+            var map = new HashMap<String, DirectoryRecord>(count);
+            for (int i = 0; i < count; i++) {
+                var key = readString(index);
+                var modified = index.getLong();
+                var fileCount = index.getInt();
+                var files = new ArrayList<FileRecord>(fileCount);
+                for (int j = 0; j < fileCount; j++) {
+                    var name = readString(index);
+                    var offset = index.getLong();
+                    var size = index.getInt();
+                    var fileModified = index.getLong();
+                    files.add(new FileRecord(name, offset, size, fileModified, null));
+                }
+                map.put(key, new DirectoryRecord(modified, files));
+            }
+            return new DataStorageSnapshot(file, map);
+        } catch (Exception ex) {
+            ErrorEventFactory.fromThrowable("Unable to read vault snapshot", ex)
+                    .expected()
+                    .omit()
+                    .handle();
+            return new DataStorageSnapshot(file, Map.of());
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+        var buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of vault snapshot");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var length = buffer.getInt();
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        var bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static long getModified(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class)
+                .lastModifiedTime()
+                .toMillis();
+    }
+
+    /**
+     * Reads all files of a directory from disk. The contents are kept until the next snapshot is written.
+     */
+    public static DirectoryRecord readDirectory(Path dir) throws IOException {
+        var modified = getModified(dir);
+        var files = new ArrayList<FileRecord>();
+        try (var s = Files.list(dir)) {
+            for (Path file : s.toList()) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+
+                // Leftover of an interrupted atomic write, the actual file is still intact
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+
+                // Read the time first, so a concurrent change results in a mismatch later on
+                var fileModified = getModified(file);
+                var bytes = Files.readAllBytes(file);
+                files.add(new FileRecord(file.getFileName().toString(), -1, bytes.length, fileModified, bytes));
+            }
+        }
+        return new DirectoryRecord(modified, files);
+    }
+
+    /**
+     * Returns the snapshot record of a directory if it is still up to date, otherwise null.
+     */
+    public DirectoryRecord getValidDirectory(String key, Path dir) {
+        var record = directories.get(key);
+        if (record == null) {
+            return null;
+        }
+
+        try {
+            // Creating or renaming files, which includes our atomic writes, changes the directory modification time
+            if (getModified(dir) != record.modified()) {
+                return null;
+            }
+
+            // Files that are rewritten in place don't change the directory modification time
+            var count = 0;
+            try (var s = Files.newDirectoryStream(dir)) {
+                for (var file : s) {
+                    var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+
+                    var f = record.getFile(file.getFileName().toString());
+                    if (f == null
+                            || f.size() != attributes.size()
+                            || f.modified() != attributes.lastModifiedTime().toMillis()) {
+                        return null;
+                    }
+                    count++;
+                }
+            }
+            return count == record.files().size() ? record : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    public void put(String key, DirectoryRecord record) {
+        directories.put(key, record);
+        modified = true;
+    }
+
+    public void remove(String key) {
+        if (directories.remove(key) != null) {
+            modified = true;
+        }
+    }
+
+    public void retain(Set<String> keys) {
+        if (directories.keySet().retainAll(keys)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Updates the record of a directory with the files that were just written.
+     * Deleted files are passed with null contents.
+     */
+    public void update(String key, Path dir, Map<String, byte[]> written) throws IOException {
+        var existing = directories.get(key);
+        if (existing == null) {
+            put(key, readDirectory(dir));
+            return;
+        }
+
+        var files = new ArrayList<FileRecord>();
+        existing.files().stream()
+                .filter(f -> !written.containsKey(f.name()))
+                .forEach(files::add);
+        for (var e : written.entrySet()) {
+            if (e.getValue() != null) {
+                var fileModified = getModified(dir.resolve(e.getKey()));
+                files.add(new FileRecord(e.getKey(), -1, e.getValue().length, fileModified, e.getValue()));
+            }
+        }
+        put(key, new DirectoryRecord(getModified(dir), files));
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Returns the contents of a file, either from memory or from the snapshot file.
+     */
+    public byte[] readFile(DirectoryRecord record, String name) throws IOException {
+        var f = record.getFile(name);
+        if (f == null) {
+            return null;
+        }
+
+        if (f.content() != null) {
+            return f.content();
+        }
+
+        FileChannel c;
+        synchronized (this) {
+            if (channel == null) {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            c = channel;
+        }
+        return readFully(c, f.offset(), f.size()).array();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    /**
+     * Writes all records into a new snapshot file. Contents that are held in memory are released afterward,
+     * unchanged contents are copied over from the previous snapshot file.
+     */
+    public void write() throws IOException {
+        close();
+        Files.createDirectories(file.getParent());
+        var temp = file.resolveSibling(file.getFileName() + ".tmp");
+        var current = new HashMap<>(directories);
+        var updated = new HashMap<String, DirectoryRecord>(current.size());
+        int indexOffset;
+        try (var previous = Files.exists(file) ? FileChannel.open(file, StandardOpenOption.READ) : null;
+                var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            // The index is written after the contents, its offset is filled in afterward
+            out.writeInt(0);
+
+            for (var e : current.entrySet()) {
+                var files = new ArrayList<FileRecord>(e.getValue().files().size());
+                for (var f : e.getValue().files()) {
+                    var content = f.content();
+                    if (content == null) {
+                        if (previous == null) {
+                            throw new IOException("Missing previous vault snapshot");
+                        }
+                        content = readFully(previous, f.offset(), f.size()).array();
+                    }
+                    files.add(new FileRecord(f.name(), out.size(), content.length, f.modified(), null));
+                    out.write(content);
+                }
+                updated.put(e.getKey(), new DirectoryRecord(e.getValue().modified(), files));
+            }
+
+            indexOffset = out.size();
+            out.writeInt(updated.size());
+            for (var e : updated.entrySet()) {
+                writeString(out, e.getKey());
+                out.writeLong(e.getValue().modified());
+                out.writeInt(e.getValue().files().size());
+                for (var f : e.getValue().files()) {
+                    writeString(out, f.name());
+                    out.writeLong(f.offset());
+                    out.writeInt(f.size());
+                    out.writeLong(f.modified());
+                }
+            }
+        }
+
+        try (var c = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            c.write(ByteBuffer.allocate(4).putInt(0, indexOffset), 8);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // Records that were changed in the meantime keep their contents in memory until the next write
+        var changed = false;
+        for (var e : updated.entrySet()) {
+            if (!directories.replace(e.getKey(), current.get(e.getKey()), e.getValue())) {
+                changed = true;
+            }
+        }
+        modified = changed;
+    }
+
+    /**
+     * A file of a directory. The contents are either located at an offset in the snapshot file
+     * or are held in memory if they have not been written to a snapshot yet.
+     * The size and modification time are used to check whether the file has changed on disk.
+     */
+    public record FileRecord(String name, long offset, int size, long modified, byte[] content) {}
+
+    public record DirectoryRecord(long modified, List<FileRecord> files) {
+
+        public FileRecord getFile(String name) {
+            for (FileRecord f : files) {
+                if (f.name().equals(name)) {
+                    return f;
+                }
+            }
+            return null;
+        }
+    }
+}
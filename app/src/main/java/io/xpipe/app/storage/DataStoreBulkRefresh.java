@@ -0,0 +1,269 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.ext.FixedChildStore;
+import io.xpipe.app.util.FanOutExecutor;
+import io.xpipe.app.util.FixedHierarchyStore;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Validates many entries concurrently and refreshes the children of all fixed hierarchy stores on the way.
+ * An entry is only processed after its parent has been validated successfully,
+ * and the number of concurrent operations below a single parent is limited so that one host is not flooded.
+ */
+public class DataStoreBulkRefresh {
+
+    private final Options options;
+    private final Semaphore permits;
+    private final Map<DataStoreEntry, Semaphore> parentPermits = new ConcurrentHashMap<>();
+    private final Map<DataStoreEntry, List<DataStoreEntry>> waiting = new ConcurrentHashMap<>();
+    private final Set<DataStoreEntry> scheduled = ConcurrentHashMap.newKeySet();
+    private final Queue<FanOutExecutor.Result<DataStoreEntry>> results = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile ExecutorService executor;
+    private Consumer<FanOutExecutor.Result<DataStoreEntry>> listener;
+
+    public DataStoreBulkRefresh(Options options) {
+        this.options = options;
+        this.permits = new Semaphore(Math.max(1, options.getParallelism()));
+    }
+
+    private static String getName(DataStoreEntry entry) {
+        return DataStorage.get().getStoreEntryDisplayName(entry);
+    }
+
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public int getTotal() {
+        return scheduled.size();
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Stops all running operations and skips the entries that have not been started yet.
+     */
+    public void cancel() {
+        cancelled.set(true);
+        var e = executor;
+        if (e != null) {
+            e.shutdownNow();
+        }
+    }
+
+    /**
+     * Processes the entries and their children, the listener is called for every entry once it is finished.
+     */
+    public FanOutExecutor.Summary<DataStoreEntry> run(
+            List<DataStoreEntry> entries, Consumer<FanOutExecutor.Result<DataStoreEntry>> listener)
+            throws InterruptedException {
+        this.listener = listener;
+        var start = System.nanoTime();
+        var selected = new LinkedHashSet<>(entries);
+        if (selected.isEmpty()) {
+            return new FanOutExecutor.Summary<>(List.of(), Duration.ZERO);
+        }
+
+        // Selected entries below another selected entry have to wait for it
+        var roots = new ArrayList<DataStoreEntry>();
+        for (var entry : selected) {
+            var ancestor = findSelectedAncestor(entry, selected);
+            if (ancestor.isPresent()) {
+                waiting.computeIfAbsent(ancestor.get(), k -> new ArrayList<>()).add(entry);
+            } else {
+                roots.add(entry);
+            }
+        }
+
+        try (var e = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bulk-refresh-", 0).factory())) {
+            executor = e;
+            schedule(roots);
+            try {
+                done.await();
+            } catch (InterruptedException ex) {
+                cancel();
+                throw ex;
+            }
+        } finally {
+            executor = null;
+        }
+
+        return new FanOutExecutor.Summary<>(new ArrayList<>(results), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private Optional<DataStoreEntry> findSelectedAncestor(DataStoreEntry entry, Set<DataStoreEntry> selected) {
+        var hierarchy = DataStorage.get().getStoreParentHierarchy(entry);
+        for (int i = hierarchy.size() - 2; i >= 0; i--) {
+            if (selected.contains(hierarchy.get(i))) {
+                return Optional.of(hierarchy.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void schedule(Collection<DataStoreEntry> entries) {
+        var added = entries.stream().filter(scheduled::add).toList();
+        // Count all entries first so that the pending count can't drop to zero in between
+        pending.addAndGet(added.size());
+        for (var entry : added) {
+            try {
+                executor.submit(() -> process(entry));
+            } catch (RejectedExecutionException ex) {
+                skip(entry);
+                finish();
+            }
+        }
+    }
+
+    private void finish() {
+        if (pending.decrementAndGet() == 0) {
+            done.countDown();
+        }
+    }
+
+    private void skip(DataStoreEntry entry) {
+        report(new FanOutExecutor.Result<>(
+                entry, getName(entry), FanOutExecutor.Status.SKIPPED, null, null, Duration.ZERO));
+        skipDependents(entry);
+    }
+
+    private void skipDependents(DataStoreEntry entry) {
+        var dependents = waiting.remove(entry);
+        if (dependents != null) {
+            dependents.forEach(d -> {
+                if (scheduled.add(d)) {
+                    skip(d);
+                }
+            });
+        }
+    }
+
+    private void report(FanOutExecutor.Result<DataStoreEntry> result) {
+        results.add(result);
+        completed.incrementAndGet();
+        listener.accept(result);
+    }
+
+    private void process(DataStoreEntry entry) {
+        try {
+            if (cancelled.get()) {
+                skip(entry);
+                return;
+            }
+
+            var parent = DataStorage.get().getDefaultDisplayParent(entry).orElse(null);
+            var parentPermit = parent != null
+                    ? parentPermits.computeIfAbsent(parent, k -> new Semaphore(Math.max(1, options.getPerParent())))
+                    : null;
+            List<DataStoreEntry> children;
+            try {
+                if (parentPermit != null) {
+                    parentPermit.acquire();
+                }
+                try {
+                    permits.acquire();
+                    try {
+                        children = execute(entry);
+                    } finally {
+                        permits.release();
+                    }
+                } finally {
+                    if (parentPermit != null) {
+                        parentPermit.release();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                skip(entry);
+                return;
+            }
+
+            if (children == null) {
+                skipDependents(entry);
+                return;
+            }
+
+            var next = new ArrayList<>(children);
+            var dependents = waiting.remove(entry);
+            if (dependents != null) {
+                next.addAll(dependents);
+            }
+            schedule(next);
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Validates a single entry and returns the children to process next, or null if the entry failed.
+     */
+    private List<DataStoreEntry> execute(DataStoreEntry entry) throws InterruptedException {
+        var start = System.nanoTime();
+        try {
+            entry.validateOrThrow();
+            var children = List.<DataStoreEntry>of();
+            if (options.isIncludeChildren() && entry.getStore() instanceof FixedHierarchyStore) {
+                DataStorage.get().refreshChildrenOrThrow(entry);
+                children = DataStorage.get().getStoreChildren(entry).stream()
+                        .filter(c -> c.getStore() instanceof FixedChildStore)
+                        .toList();
+            }
+            report(new FanOutExecutor.Result<>(
+                    entry,
+                    getName(entry),
+                    FanOutExecutor.Status.SUCCEEDED,
+                    null,
+                    null,
+                    Duration.ofNanos(System.nanoTime() - start)));
+            return children;
+        } catch (Throwable ex) {
+            if (cancelled.get()) {
+                throw new InterruptedException();
+            }
+
+            report(new FanOutExecutor.Result<>(
+                    entry,
+                    getName(entry),
+                    FanOutExecutor.Status.FAILED,
+                    null,
+                    ex,
+                    Duration.ofNanos(System.nanoTime() - start)));
+            return null;
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Options {
+
+        @Builder.Default
+        int parallelism = 16;
+
+        /**
+         * The maximum number of concurrent operations for entries with the same parent,
+         * e.g. the containers of one host.
+         */
+        @Builder.Default
+        int perParent = 4;
+
+        /**
+         * Whether the children of fixed hierarchy stores are refreshed and validated as well.
+         */
+        @Builder.Default
+        boolean includeChildren = true;
+    }
+}
@@ -1,5 +1,6 @@
 package io.xpipe.app.storage;
 
+import io.xpipe.core.FailableFunction;
 import io.xpipe.core.JacksonMapper;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -73,17 +74,24 @@ public class DataStoreCategory extends StorageElement {
     }
 
     public static Optional<DataStoreCategory> fromDirectory(Path dir) throws IOException {
+        return fromDirectory(dir, name -> {
+            var file = dir.resolve(name);
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        });
+    }
+
+    public static Optional<DataStoreCategory> fromDirectory(
+            Path dir, FailableFunction<String, byte[], IOException> files) throws IOException {
         ObjectMapper mapper = JacksonMapper.getDefault();
 
-        var entryFile = dir.resolve("category.json");
-        var stateFile = dir.resolve("state.json");
-        if (!Files.exists(entryFile)) {
+        var entryBytes = files.apply("category.json");
+        if (entryBytes == null) {
             return Optional.empty();
         }
 
-        var stateJson =
-                Files.exists(stateFile) ? mapper.readTree(stateFile.toFile()) : JsonNodeFactory.instance.objectNode();
-        var json = mapper.readTree(entryFile.toFile());
+        var stateBytes = files.apply("state.json");
+        var stateJson = stateBytes != null ? mapper.readTree(stateBytes) : JsonNodeFactory.instance.objectNode();
+        var json = mapper.readTree(entryBytes);
 
         var uuid = UUID.fromString(json.required("uuid").textValue());
         var parentUuid = Optional.ofNullable(json.get("parentUuid"))
@@ -131,8 +139,14 @@ public class DataStoreCategory extends StorageElement {
             config = config.withColor(color);
         }
 
-        return Optional.of(
-                new DataStoreCategory(dir, uuid, name, lastUsed, lastModified, false, parentUuid, expanded, config));
+        var category =
+                new DataStoreCategory(dir, uuid, name, lastUsed, lastModified, false, parentUuid, expanded, config);
+        // Remember what is on disk so unchanged files are not written again
+        category.recordFileContent("category.json", entryBytes);
+        if (stateBytes != null) {
+            category.recordFileContent("state.json", stateBytes);
+        }
+        return Optional.of(category);
     }
 
     public boolean setConfig(DataStoreCategoryConfig config) {
@@ -204,7 +218,7 @@ public class DataStoreCategory extends StorageElement {
         var entryString = mapper.writeValueAsString(obj);
         var stateString = mapper.writeValueAsString(stateObj);
         FileUtils.forceMkdir(directory.toFile());
-        Files.writeString(directory.resolve("category.json"), entryString);
-        Files.writeString(directory.resolve("state.json"), stateString);
+        writeFileIfChanged("category.json", entryString);
+        writeFileIfChanged("state.json", stateString);
     }
 }
@@ -4,6 +4,7 @@ import io.xpipe.app.ext.*;
 import io.xpipe.app.icon.SystemIconManager;
 import io.xpipe.app.issue.ErrorEventFactory;
 import io.xpipe.app.util.ThreadHelper;
+import io.xpipe.core.FailableFunction;
 import io.xpipe.core.JacksonMapper;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -18,6 +19,7 @@ import lombok.experimental.NonFinal;
 import org.apache.commons.io.FileUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -52,6 +54,10 @@ public class DataStoreEntry extends StorageElement {
     @NonFinal
     DataStoreState storePersistentState;
 
+    /**
+     * The serialized state as read from disk.
+     * Once the state is parsed or set, this is cleared and only materialized again when the entry is saved.
+     */
     @NonFinal
     JsonNode storePersistentStateNode;
 
@@ -65,6 +71,21 @@ public class DataStoreEntry extends StorageElement {
     @NonFinal
     String lastWrittenNotes;
 
+    @NonFinal
+    DataStorageNode lastWrittenStoreNode;
+
+    /**
+     * The node and the state of the referenced entries that the current store was parsed from.
+     * If neither of them changed, parsing the node again would result in the same store.
+     */
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    DataStorageNode parsedStoreNode;
+
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    List<ReferenceState> parsedStoreReferences;
+
     @NonFinal
     String icon;
 
@@ -192,23 +213,26 @@ public class DataStoreEntry extends StorageElement {
     }
 
     public static Optional<DataStoreEntry> fromDirectory(Path dir) throws IOException {
+        return fromDirectory(dir, name -> {
+            var file = dir.resolve(name);
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        });
+    }
+
+    public static Optional<DataStoreEntry> fromDirectory(Path dir, FailableFunction<String, byte[], IOException> files)
+            throws IOException {
         ObjectMapper mapper = JacksonMapper.getDefault();
 
-        var entryFile = dir.resolve("entry.json");
-        var storeFile = dir.resolve("store.json");
-        var stateFile = dir.resolve("state.json");
-        var normalNotesFile = dir.resolve("notes.md");
-        var encryptedNotesFile = dir.resolve("notes.json");
-        if (!Files.exists(entryFile) || !Files.exists(storeFile)) {
+        var entryBytes = files.apply("entry.json");
+        var storeBytes = files.apply("store.json");
+        if (entryBytes == null || storeBytes == null) {
             return Optional.empty();
         }
 
-        if (!Files.exists(stateFile)) {
-            stateFile = entryFile;
-        }
-
-        var json = mapper.readTree(entryFile.toFile());
-        var stateJson = mapper.readTree(stateFile.toFile());
+        var stateFileBytes = files.apply("state.json");
+        var stateBytes = stateFileBytes != null ? stateFileBytes : entryBytes;
+        var json = mapper.readTree(entryBytes);
+        var stateJson = mapper.readTree(stateBytes);
         var uuid = UUID.fromString(json.required("uuid").textValue());
         var categoryUuid = Optional.ofNullable(json.get("categoryUuid"))
                 .map(jsonNode -> UUID.fromString(jsonNode.textValue()))
@@ -277,11 +301,13 @@ public class DataStoreEntry extends StorageElement {
         }
 
         String notes = null;
-        if (Files.exists(normalNotesFile)) {
-            notes = Files.readString(normalNotesFile);
+        var normalNotesBytes = files.apply("notes.md");
+        if (normalNotesBytes != null) {
+            notes = new String(normalNotesBytes, StandardCharsets.UTF_8);
         }
-        if (Files.exists(encryptedNotesFile)) {
-            var node = DataStorageNode.readPossiblyEncryptedNode(mapper.readTree(encryptedNotesFile.toFile()));
+        var encryptedNotesBytes = files.apply("notes.json");
+        if (encryptedNotesBytes != null) {
+            var node = DataStorageNode.readPossiblyEncryptedNode(mapper.readTree(encryptedNotesBytes));
             var mdNode = node.getContentNode().get("markdown");
             notes = mdNode != null ? mdNode.asText() : null;
         }
@@ -291,7 +317,7 @@ public class DataStoreEntry extends StorageElement {
 
         DataStorageNode node;
         try {
-            var fileNode = mapper.readTree(storeFile.toFile());
+            var fileNode = mapper.readTree(storeBytes);
             node = DataStorageNode.readPossiblyEncryptedNode(fileNode);
         } catch (JacksonException ex) {
             ErrorEventFactory.fromThrowable(ex).omit().expected().handle();
@@ -299,7 +325,7 @@ public class DataStoreEntry extends StorageElement {
         }
 
         var store = node.parseStore();
-        return Optional.of(new DataStoreEntry(
+        var entry = new DataStoreEntry(
                 dir,
                 uuid,
                 categoryUuid,
@@ -318,7 +344,16 @@ public class DataStoreEntry extends StorageElement {
                 freeze,
                 pinToTop,
                 orderIndex,
-                breakOutCategory));
+                breakOutCategory);
+        // Remember what is on disk so unchanged files are not written again
+        entry.lastWrittenNotes = notes;
+        entry.lastWrittenStoreNode = node;
+        entry.recordFileContent("entry.json", entryBytes);
+        entry.recordFileContent("store.json", storeBytes);
+        if (stateFileBytes != null) {
+            entry.recordFileContent("state.json", stateFileBytes);
+        }
+        return Optional.of(entry);
     }
 
     public String getEffectiveIconFile() {
@@ -346,6 +381,48 @@ public class DataStoreEntry extends StorageElement {
         }
     }
 
+    @Override
+    public void setName(String name) {
+        super.setName(name);
+        updateStorageIndex();
+    }
+
+    private void updateStorageIndex() {
+        var storage = DataStorage.get();
+        if (storage != null) {
+            storage.onStoreEntryKeyChange(this);
+        }
+    }
+
+    /**
+     * The state of a referenced entry that affects how a store node is parsed.
+     * Entries and stores are compared by identity, as comparing stores by value can be expensive.
+     */
+    private record ReferenceState(DataStoreEntry entry, DataStore store, Validity validity) {
+
+        private static boolean isSame(List<ReferenceState> a, List<ReferenceState> b) {
+            if (a == null || b == null || a.size() != b.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < a.size(); i++) {
+                var ra = a.get(i);
+                var rb = b.get(i);
+                if (ra == null || rb == null) {
+                    if (ra != rb) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                if (ra.entry() != rb.entry() || ra.store() != rb.store() || ra.validity() != rb.validity()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     @Override
     public int hashCode() {
         return getUuid().hashCode();
@@ -416,24 +493,25 @@ public class DataStoreEntry extends StorageElement {
             storePersistentStateNode = null;
         }
 
-        if (storePersistentStateNode == null && storePersistentState == null) {
-            storePersistentState = sds.createDefaultState();
-            storePersistentStateNode = JacksonMapper.getDefault().valueToTree(storePersistentState);
-        } else if (storePersistentState == null) {
+        if (storePersistentState != null) {
+            return (T) storePersistentState;
+        }
+
+        if (storePersistentStateNode != null) {
             storePersistentState =
                     JacksonMapper.getDefault().treeToValue(storePersistentStateNode, sds.getStateClass());
-            if (storePersistentState == null) {
-                storePersistentState = sds.createDefaultState();
-                storePersistentStateNode = JacksonMapper.getDefault().valueToTree(storePersistentState);
-            }
         }
+        if (storePersistentState == null) {
+            storePersistentState = sds.createDefaultState();
+        }
+        storePersistentStateNode = null;
         return (T) storePersistentState;
     }
 
     public void setStorePersistentState(DataStoreState value) {
         var changed = !Objects.equals(storePersistentState, value);
         this.storePersistentState = value;
-        this.storePersistentStateNode = JacksonMapper.getDefault().valueToTree(value);
+        this.storePersistentStateNode = null;
         if (changed) {
             notifyUpdate(false, true);
         }
@@ -509,36 +587,46 @@ public class DataStoreEntry extends StorageElement {
         ObjectNode stateObj = JsonNodeFactory.instance.objectNode();
         stateObj.put("lastUsed", lastUsed.toString());
         stateObj.put("lastModified", lastModified.toString());
-        stateObj.set("persistentState", storePersistentStateNode);
+        // The node is cleared after the state is set, so read it first
+        var currentStateNode = storePersistentStateNode;
+        var currentState = storePersistentState;
+        stateObj.set("persistentState", currentState != null ? mapper.valueToTree(currentState) : currentStateNode);
         stateObj.put("expanded", expanded);
 
         var entryString = mapper.writeValueAsString(obj);
         var stateString = mapper.writeValueAsString(stateObj);
-        var storeString = mapper.writeValueAsString(DataStorageNode.encryptNodeIfNeeded(storeNode));
 
         FileUtils.forceMkdir(directory.toFile());
-        Files.writeString(directory.resolve("state.json"), stateString);
-        Files.writeString(directory.resolve("entry.json"), entryString);
-        Files.writeString(directory.resolve("store.json"), storeString);
+        writeFileIfChanged("state.json", stateString);
+        writeFileIfChanged("entry.json", entryString);
+
+        // Encrypted store data changes on every write, so only write it if the store node was changed
+        var currentStoreNode = storeNode;
+        if (currentStoreNode != lastWrittenStoreNode || !Files.exists(directory.resolve("store.json"))) {
+            var storeString = mapper.writeValueAsString(DataStorageNode.encryptNodeIfNeeded(currentStoreNode));
+            writeFileIfChanged("store.json", storeString);
+            lastWrittenStoreNode = currentStoreNode;
+        }
 
         var encryptNotes = storeNode.isEncrypted();
-        var normalNotesFile = directory.resolve("notes.md");
-        var encryptedNotesFile = directory.resolve("notes.json");
-        if (Files.exists(normalNotesFile) && (notes == null || encryptNotes)) {
-            Files.delete(normalNotesFile);
+        if (notes == null || encryptNotes) {
+            deleteFileIfExists("notes.md");
         }
-        if (Files.exists(encryptedNotesFile) && (notes == null || !encryptNotes)) {
-            Files.delete(encryptedNotesFile);
+        if (notes == null || !encryptNotes) {
+            deleteFileIfExists("notes.json");
         }
         if (notes != null && encryptNotes) {
-            var notesNode = JsonNodeFactory.instance.objectNode();
-            notesNode.put("markdown", notes);
-            var storageNode = DataStorageNode.encryptNodeIfNeeded(new DataStorageNode(
-                    notesNode, storeNode.isPerUser(), storeNode.isReadableForUser(), storeNode.isEncrypted()));
-            var string = mapper.writeValueAsString(storageNode);
-            Files.writeString(encryptedNotesFile, string);
+            // Encrypted notes change on every write, so only write them if the notes were changed
+            if (!notes.equals(lastWrittenNotes) || !Files.exists(directory.resolve("notes.json"))) {
+                var notesNode = JsonNodeFactory.instance.objectNode();
+                notesNode.put("markdown", notes);
+                var storageNode = DataStorageNode.encryptNodeIfNeeded(new DataStorageNode(
+                        notesNode, storeNode.isPerUser(), storeNode.isReadableForUser(), storeNode.isEncrypted()));
+                var string = mapper.writeValueAsString(storageNode);
+                writeFileIfChanged("notes.json", string);
+            }
         } else if (notes != null) {
-            Files.writeString(normalNotesFile, notes);
+            writeFileIfChanged("notes.md", notes);
         }
         lastWrittenNotes = notes;
     }
@@ -564,7 +652,7 @@ public class DataStoreEntry extends StorageElement {
         this.pinToTop = newValue;
         if (changed) {
             notifyUpdate(false, false);
-            dirty = true;
+            markDirty();
         }
     }
 
@@ -586,6 +674,7 @@ public class DataStoreEntry extends StorageElement {
         storePersistentStateNode = e.storePersistentStateNode;
         icon = e.icon;
         categoryUuid = e.categoryUuid;
+        updateStorageIndex();
         notifyUpdate(false, true);
     }
 
@@ -609,13 +698,14 @@ public class DataStoreEntry extends StorageElement {
             lastModified = Instant.now();
         }
         childrenCache = null;
-        dirty = true;
+        markDirty();
+        updateStorageIndex();
         notifyUpdate(false, updateTime);
     }
 
     public void reassignStoreNode() {
         this.storeNode = DataStorageNode.ofNewStore(store);
-        dirty = true;
+        markDirty();
     }
 
     public void validate() {
@@ -649,6 +739,14 @@ public class DataStoreEntry extends StorageElement {
             return;
         }
 
+        var references = getReferenceStates();
+        if (store != null && storeNode == parsedStoreNode && ReferenceState.isSame(references, parsedStoreReferences)) {
+            return;
+        }
+
+        parsedStoreNode = null;
+        parsedStoreReferences = null;
+
         DataStore newStore;
         try {
             newStore = storeNode.parseStore();
@@ -659,10 +757,16 @@ public class DataStoreEntry extends StorageElement {
             newStore = null;
         }
 
+        if (newStore != null) {
+            parsedStoreNode = storeNode;
+            parsedStoreReferences = references;
+        }
+
         if (newStore == null) {
             var changed = store != null;
             store = null;
             validity = Validity.LOAD_FAILED;
+            updateStorageIndex();
             if (changed) {
                 notifyUpdate(false, false);
             }
@@ -674,6 +778,7 @@ public class DataStoreEntry extends StorageElement {
         if (!newComplete) {
             validity = Validity.INCOMPLETE;
             store = newStore;
+            updateStorageIndex();
             if (storeChanged) {
                 notifyUpdate(false, false);
             }
@@ -688,6 +793,7 @@ public class DataStoreEntry extends StorageElement {
         var perUserChanged = isPerUserStore() != newPerUser;
         if (storeChanged) {
             store = newStore;
+            updateStorageIndex();
         }
         validity = Validity.COMPLETE;
         if (storeChanged || perUserChanged) {
@@ -695,6 +801,26 @@ public class DataStoreEntry extends StorageElement {
         }
     }
 
+    private List<ReferenceState> getReferenceStates() {
+        var ids = storeNode.getReferencedIds();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        var storage = DataStorage.get();
+        var list = new ArrayList<ReferenceState>(ids.size());
+        for (var id : ids) {
+            // The own state changes with every refresh
+            if (id.equals(getUuid())) {
+                continue;
+            }
+
+            var e = storage != null ? storage.getStoreEntryIfPresent(id).orElse(null) : null;
+            list.add(e != null ? new ReferenceState(e, e.getStore(), e.getValidity()) : null);
+        }
+        return list;
+    }
+
     public void initializeEntry() {
         if (store instanceof ExpandedLifecycleStore lifecycleStore) {
             try {
@@ -3,11 +3,21 @@ package io.xpipe.app.storage;
 import io.xpipe.app.ext.LocalStore;
 import io.xpipe.app.util.EncryptionKey;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import javax.crypto.SecretKey;
 
 public class ImpersistentStorage extends DataStorage {
 
+    public ImpersistentStorage() {}
+
+    /**
+     * Creates a storage without the application properties, e.g. for benchmarks.
+     */
+    ImpersistentStorage(Path dir) {
+        super(dir);
+    }
+
     @Override
     public void reloadContent() {}
 
@@ -20,19 +30,19 @@ public class ImpersistentStorage extends DataStorage {
     public void load() {
         {
             var cat = DataStoreCategory.createNew(null, ALL_CONNECTIONS_CATEGORY_UUID, "All connections");
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         }
         {
             var cat = DataStoreCategory.createNew(null, ALL_SCRIPTS_CATEGORY_UUID, "All scripts");
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         }
         {
             var cat = DataStoreCategory.createNew(null, ALL_IDENTITIES_CATEGORY_UUID, "All identities");
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         }
         {
             var cat = DataStoreCategory.createNew(null, ALL_MACROS_CATEGORY_UUID, "All macros");
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
         }
         {
             var cat = new DataStoreCategory(
@@ -45,13 +55,13 @@ public class ImpersistentStorage extends DataStorage {
                     ALL_CONNECTIONS_CATEGORY_UUID,
                     true,
                     DataStoreCategoryConfig.empty());
-            storeCategories.add(cat);
+            putStoreCategoryInternal(cat);
             selectedCategory = getStoreCategoryIfPresent(DEFAULT_CATEGORY_UUID).orElseThrow();
         }
 
         var e = DataStoreEntry.createNew(
                 LOCAL_ID, DataStorage.DEFAULT_CATEGORY_UUID, "Local Machine", new LocalStore());
-        storeEntries.put(e, e);
+        putStoreEntryInternal(e);
         e.validate();
     }
 
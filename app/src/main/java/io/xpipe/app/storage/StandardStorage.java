@@ -10,6 +10,8 @@ import io.xpipe.app.util.DocumentationLink;
 import io.xpipe.app.util.EncryptionKey;
 import io.xpipe.app.util.GlobalTimer;
 import io.xpipe.app.util.ThreadHelper;
+import io.xpipe.core.FailableBiFunction;
+import io.xpipe.core.FailableFunction;
 import io.xpipe.core.OsType;
 
 import lombok.Getter;
@@ -21,13 +23,20 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.crypto.SecretKey;
 
 public class StandardStorage extends DataStorage {
 
+    private static final Duration SAVE_DEBOUNCE = Duration.ofMillis(250);
+
     private final Set<Path> directoriesToKeep = new HashSet<>();
 
     @Getter
@@ -44,6 +53,14 @@ public class StandardStorage extends DataStorage {
 
     private boolean saveQueued;
 
+    private final AtomicInteger snapshotHits = new AtomicInteger();
+    private DataStorageSnapshot snapshot;
+
+    // The first save after loading and saves after sync configuration changes go through all elements
+    private volatile boolean fullSaveQueued = true;
+    private volatile boolean leftoversQueued;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
     StandardStorage() {
         this.dataStorageSyncHandler = DataStorageSyncHandler.getInstance();
         this.dataStorageUserHandler = DataStorageUserHandler.getInstance();
@@ -94,39 +111,44 @@ public class StandardStorage extends DataStorage {
         var laterAddedEntries = new HashSet<DataStoreEntry>();
         try {
             var exception = new AtomicReference<Exception>();
-            try (var cats = Files.list(categoriesDir)) {
-                cats.filter(Files::isDirectory).forEach(path -> {
-                    try {
-                        var c = DataStoreCategory.fromDirectory(path);
-                        if (c.isEmpty()) {
-                            return;
-                        }
+            var categoriesStart = System.currentTimeMillis();
+            var loadedCategories = readDirectories(categoriesDir, DataStoreCategory::fromDirectory);
+            logStage("read categories", loadedCategories.size(), categoriesStart);
+            loadedCategories.forEach(loaded -> {
+                try {
+                    // IO exceptions are not expected
+                    // Data corruption and schema changes are expected
+                    if (loaded.exception() != null) {
+                        throw loaded.exception();
+                    }
 
-                        if (initialLoad) {
-                            storeCategories.add(c.get());
-                            return;
-                        }
+                    var c = loaded.value();
+                    if (c.isEmpty()) {
+                        return;
+                    }
 
-                        var existing = getStoreCategoryIfPresent(c.get().getUuid());
-                        if (existing.isPresent()) {
-                            if (existing.get().isChangedForReload(c.get())) {
-                                updateCategory(existing.get(), c.get());
-                            }
-                            return;
-                        }
+                    if (initialLoad) {
+                        putStoreCategoryInternal(c.get());
+                        return;
+                    }
 
-                        addStoreCategory(c.get());
-                    } // IO exceptions are not expected
-                    catch (Exception ex) {
-                        // Data corruption and schema changes are expected
-                        ErrorEventFactory.fromThrowable(ex)
-                                .expected()
-                                .omit()
-                                .build()
-                                .handle();
+                    var existing = getStoreCategoryIfPresent(c.get().getUuid());
+                    if (existing.isPresent()) {
+                        if (existing.get().isChangedForReload(c.get())) {
+                            updateCategory(existing.get(), c.get());
+                        }
+                        return;
                     }
-                });
-            }
+
+                    addStoreCategory(c.get());
+                } catch (Exception ex) {
+                    ErrorEventFactory.fromThrowable(ex)
+                            .expected()
+                            .omit()
+                            .build()
+                            .handle();
+                }
+            });
 
             // Show one exception
             if (exception.get() != null) {
@@ -142,68 +164,72 @@ public class StandardStorage extends DataStorage {
                 }
             }
 
-            try (var dirs = Files.list(storesDir)) {
-                dirs.filter(Files::isDirectory).forEach(path -> {
-                    try {
-                        var entry = DataStoreEntry.fromDirectory(path);
-                        if (entry.isEmpty()) {
-                            return;
-                        }
-
-                        if (initialLoad) {
-                            var foundCat = getStoreCategoryIfPresent(entry.get().getCategoryUuid());
-                            if (foundCat.isEmpty()) {
-                                entry.get().setCategoryUuid(null);
-                            }
+            var storesStart = System.currentTimeMillis();
+            var loadedEntries = readDirectories(storesDir, DataStoreEntry::fromDirectory);
+            logStage("read stores", loadedEntries.size(), storesStart);
+            loadedEntries.forEach(loaded -> {
+                try {
+                    // IO exceptions are not expected
+                    // Data corruption and schema changes are expected
+                    if (loaded.exception() != null) {
+                        throw loaded.exception();
+                    }
 
-                            storeEntries.put(entry.get(), entry.get());
-                            return;
-                        }
+                    var entry = loaded.value();
+                    if (entry.isEmpty()) {
+                        return;
+                    }
 
-                        var existing = getStoreEntryIfPresent(entry.get().getUuid());
-                        if (existing.isPresent()) {
-                            if (existing.get().isChangedForReload(entry.get())) {
-                                updateEntry(existing.get(), entry.get());
-                            }
-                            return;
+                    if (initialLoad) {
+                        var foundCat = getStoreCategoryIfPresent(entry.get().getCategoryUuid());
+                        if (foundCat.isEmpty()) {
+                            entry.get().setCategoryUuid(null);
                         }
 
-                        laterAddedEntries.add(entry.get());
-                        storeEntries.put(entry.get(), entry.get());
-                    } // IO exceptions are not expected
-                    catch (Exception ex) {
-                        // Data corruption and schema changes are expected
+                        putStoreEntryInternal(entry.get(), false);
+                        return;
+                    }
 
-                        // We only keep invalid entries in developer mode as there's no point in keeping them in
-                        // production.
-                        if (AppProperties.get().isDevelopmentEnvironment()) {
-                            directoriesToKeep.add(path);
+                    var existing = getStoreEntryIfPresent(entry.get().getUuid());
+                    if (existing.isPresent()) {
+                        if (existing.get().isChangedForReload(entry.get())) {
+                            updateEntry(existing.get(), entry.get());
                         }
+                        return;
+                    }
 
-                        ErrorEventFactory.fromThrowable(ex)
-                                .expected()
-                                .omit()
-                                .build()
-                                .handle();
+                    laterAddedEntries.add(entry.get());
+                    putStoreEntryInternal(entry.get(), false);
+                } catch (Exception ex) {
+                    // We only keep invalid entries in developer mode as there's no point in keeping them in
+                    // production.
+                    if (AppProperties.get().isDevelopmentEnvironment()) {
+                        directoriesToKeep.add(loaded.path());
                     }
-                });
 
-                // Show one exception
-                if (exception.get() != null) {
-                    ErrorEventFactory.fromThrowable(exception.get()).expected().handle();
+                    ErrorEventFactory.fromThrowable(ex)
+                            .expected()
+                            .omit()
+                            .build()
+                            .handle();
                 }
+            });
 
-                storeEntriesSet.forEach(e -> {
-                    if (e.getCategoryUuid() == null
-                            || getStoreCategoryIfPresent(e.getCategoryUuid()).isEmpty()) {
-                        e.setCategoryUuid(DEFAULT_CATEGORY_UUID);
-                    }
-
-                    if (e.getCategoryUuid() != null && e.getCategoryUuid().equals(ALL_CONNECTIONS_CATEGORY_UUID)) {
-                        e.setCategoryUuid(DEFAULT_CATEGORY_UUID);
-                    }
-                });
+            // Show one exception
+            if (exception.get() != null) {
+                ErrorEventFactory.fromThrowable(exception.get()).expected().handle();
             }
+
+            storeEntriesSet.forEach(e -> {
+                if (e.getCategoryUuid() == null
+                        || getStoreCategoryIfPresent(e.getCategoryUuid()).isEmpty()) {
+                    e.setCategoryUuid(DEFAULT_CATEGORY_UUID);
+                }
+
+                if (e.getCategoryUuid() != null && e.getCategoryUuid().equals(ALL_CONNECTIONS_CATEGORY_UUID)) {
+                    e.setCategoryUuid(DEFAULT_CATEGORY_UUID);
+                }
+            });
         } catch (IOException ex) {
             ErrorEventFactory.fromThrowable(ex).terminal(true).build().handle();
         }
@@ -214,7 +240,7 @@ public class StandardStorage extends DataStorage {
             var local = getStoreEntry(LOCAL_ID);
             if (local.getValidity() == DataStoreEntry.Validity.LOAD_FAILED) {
                 try {
-                    storeEntries.remove(local);
+                    removeStoreEntryInternal(local);
                     local.deleteFromDisk();
                     hasFixedLocal = false;
                 } catch (IOException ex) {
@@ -231,7 +257,7 @@ public class StandardStorage extends DataStorage {
             var e = DataStoreEntry.createNew(
                     LOCAL_ID, DataStorage.DEFAULT_CATEGORY_UUID, "Local Machine", new LocalStore());
             e.setDirectory(getStoresDir().resolve(LOCAL_ID.toString()));
-            storeEntries.put(e, e);
+            putStoreEntryInternal(e);
             e.validate();
         }
 
@@ -241,15 +267,14 @@ public class StandardStorage extends DataStorage {
         }
 
         // Reload stores, this time with all entry refs present
-        // These do however not have a completed validity yet
-        refreshEntries();
-        // Bring entries into completed validity if possible
-        // Needed for chained stores
-        refreshEntries();
+        // Referenced entries are refreshed before the entries referencing them,
+        // so chained stores are brought into completed validity in one pass
+        var refreshStart = System.currentTimeMillis();
+        refreshEntriesInDependencyOrder();
+        logStage("resolve references", storeEntriesSet.size(), refreshStart);
         // Let providers work on complete stores
+        var providersStart = System.currentTimeMillis();
         callProviders();
-        // Update validities after any possible changes
-        refreshEntries();
         // Add any possible missing synthetic parents
         storeEntriesSet.forEach(entry -> {
             var syntheticParent = getSyntheticParent(entry);
@@ -257,26 +282,131 @@ public class StandardStorage extends DataStorage {
                 addStoreEntryIfNotPresent(entry1);
             });
         });
-        // Update validities from synthetic parent changes
-        refreshEntries();
+        // Update validities from provider and synthetic parent changes
+        refreshEntriesInDependencyOrder();
+        logStage("initialize providers", storeEntriesSet.size(), providersStart);
         // Remove user inaccessible entries only when everything is valid, so we can check the parent hierarchies
-        filterPerUserEntries(storeEntries.keySet());
+        filterPerUserEntries();
 
         // Only add new stores if really necessary
         laterAddedEntries.stream()
                 .filter(dataStoreEntry -> storeEntries.containsKey(dataStoreEntry))
                 .forEach(e -> {
-                    storeEntries.remove(e);
+                    removeStoreEntryInternal(e);
                     addStoreEntryIfNotPresent(e);
                 });
 
         deleteLeftovers();
+        // Write the contents that were read from disk to the snapshot, so they don't have to be kept in memory
+        writeSnapshot();
 
         this.dataStorageSyncHandler.afterStorageLoad();
 
         busyIo.unlock();
     }
 
+    private <T> List<DirectoryReadResult<T>> readDirectories(
+            Path dir,
+            FailableBiFunction<Path, FailableFunction<String, byte[], IOException>, Optional<T>, IOException> reader)
+            throws IOException {
+        List<Path> paths;
+        try (var s = Files.list(dir)) {
+            paths = s.filter(Files::isDirectory).toList();
+        }
+
+        if (paths.isEmpty()) {
+            return List.of();
+        }
+
+        // Reading and parsing is independent for every directory, so we can do it in parallel
+        // The results are applied sequentially in the original listing order
+        var threads = Math.min(paths.size(), Math.min(8, Runtime.getRuntime().availableProcessors()));
+        var executor = Executors.newFixedThreadPool(
+                Math.max(threads, 1), r -> ThreadHelper.createPlatformThread("storage-loader", true, r));
+        try {
+            var tasks = paths.stream()
+                    .<Callable<DirectoryReadResult<T>>>map(path -> () -> {
+                        try {
+                            var files = readDirectoryFiles(path);
+                            return new DirectoryReadResult<>(path, reader.apply(path, files), null);
+                        } catch (Exception ex) {
+                            return new DirectoryReadResult<>(path, Optional.empty(), ex);
+                        }
+                    })
+                    .toList();
+            return executor.invokeAll(tasks).stream().map(Future::resultNow).toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + dir, e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Path getSnapshotFile() {
+        return AppProperties.get().getDataDir().resolve("cache").resolve("vault.snapshot");
+    }
+
+    private String getSnapshotKey(Path dir) {
+        return dir.getParent().getFileName() + "/" + dir.getFileName();
+    }
+
+    private FailableFunction<String, byte[], IOException> readDirectoryFiles(Path dir) throws IOException {
+        var key = getSnapshotKey(dir);
+        var record = snapshot.getValidDirectory(key, dir);
+        if (record != null) {
+            snapshotHits.incrementAndGet();
+        } else {
+            record = DataStorageSnapshot.readDirectory(dir);
+            snapshot.put(key, record);
+        }
+
+        var r = record;
+        return name -> snapshot.readFile(r, name);
+    }
+
+    private void updateSnapshotRecord(StorageElement e) {
+        var written = e.drainWrittenFiles();
+        if (written.isEmpty()) {
+            return;
+        }
+
+        var key = getSnapshotKey(e.getDirectory());
+        try {
+            snapshot.update(key, e.getDirectory(), written);
+        } catch (IOException ex) {
+            snapshot.remove(key);
+        }
+    }
+
+    private void writeSnapshot() {
+        var keys = new HashSet<String>();
+        storeCategories.forEach(c -> keys.add(getSnapshotKey(c.getDirectory())));
+        storeEntriesSet.forEach(e -> keys.add(getSnapshotKey(e.getDirectory())));
+        snapshot.retain(keys);
+        if (!snapshot.isModified()) {
+            snapshot.close();
+            return;
+        }
+
+        try {
+            snapshot.write();
+        } catch (Exception ex) {
+            ErrorEventFactory.fromThrowable("Unable to write vault snapshot", ex)
+                    .expected()
+                    .omit()
+                    .handle();
+        }
+    }
+
+    private void logStage(String stage, int count, long start) {
+        TrackEvent.withDebug("Finished vault load stage")
+                .tag("stage", stage)
+                .tag("count", count)
+                .tag("duration", (System.currentTimeMillis() - start) + "ms")
+                .handle();
+    }
+
     @Override
     public SecretKey getVaultKey() {
         return vaultKey;
@@ -316,7 +446,12 @@ public class StandardStorage extends DataStorage {
         }
         dataStorageUserHandler.login();
 
+        // Unchanged directories can be read from the snapshot of the last session
+        snapshot = DataStorageSnapshot.read(getSnapshotFile());
         reloadContent();
+        TrackEvent.withDebug("Finished vault load")
+                .tag("snapshotHits", snapshotHits.get())
+                .handle();
 
         busyIo.unlock();
 
@@ -341,11 +476,35 @@ public class StandardStorage extends DataStorage {
             return;
         }
 
+        // Coalesce bursts of changes into one save operation
+        if (!saveScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
         ThreadHelper.runAsync(() -> {
+            ThreadHelper.sleep(SAVE_DEBOUNCE.toMillis());
+            saveScheduled.set(false);
             save(false);
         });
     }
 
+    @Override
+    protected void queueFullSave() {
+        fullSaveQueued = true;
+    }
+
+    @Override
+    protected void removeStoreEntryInternal(DataStoreEntry e) {
+        super.removeStoreEntryInternal(e);
+        leftoversQueued = true;
+    }
+
+    @Override
+    protected void removeStoreCategoryInternal(DataStoreCategory cat) {
+        super.removeStoreCategoryInternal(cat);
+        leftoversQueued = true;
+    }
+
     public void save(boolean dispose) {
         try {
             // If another save operation is in progress, we have to wait on dispose
@@ -369,6 +528,9 @@ public class StandardStorage extends DataStorage {
         }
 
         this.saveQueued = false;
+        var full = dispose || fullSaveQueued;
+        this.fullSaveQueued = false;
+        var dirtyElements = drainDirtyElements();
 
         this.dataStorageSyncHandler.beforeStorageSave();
 
@@ -385,28 +547,44 @@ public class StandardStorage extends DataStorage {
 
         var exception = new AtomicReference<Exception>();
 
+        // The sync handler is informed about all elements, but only changed elements are written
+        var toWrite = new HashSet<>(dirtyElements);
         storeCategories.forEach(e -> {
+            if (!full && !toWrite.contains(e)) {
+                dataStorageSyncHandler.handleCategory(e, e.hasPersistedFiles(), false);
+                return;
+            }
+
             try {
                 var exists = Files.exists(e.getDirectory());
                 var dirty = e.isDirty();
                 e.writeDataToDisk();
+                updateSnapshotRecord(e);
                 dataStorageSyncHandler.handleCategory(e, exists, dirty);
             } catch (IOException ex) {
                 // IO exceptions are not expected
                 exception.set(ex);
+                e.markDirty();
             } catch (Exception ex) {
                 // Data corruption and schema changes are expected
                 ErrorEventFactory.fromThrowable(ex).expected().omit().build().handle();
+                e.markDirty();
             }
         });
 
         storeEntriesSet.stream()
                 .filter(dataStoreEntry -> dataStoreEntry.shouldSave())
                 .forEach(e -> {
+                    if (!full && !toWrite.contains(e)) {
+                        dataStorageSyncHandler.handleEntry(e, e.hasPersistedFiles(), false);
+                        return;
+                    }
+
                     try {
                         var exists = Files.exists(e.getDirectory());
                         var dirty = e.isDirty();
                         e.writeDataToDisk();
+                        updateSnapshotRecord(e);
                         dataStorageSyncHandler.handleEntry(e, exists, dirty);
                     } catch (Exception ex) {
                         // Data corruption and schema changes are expected
@@ -416,6 +594,8 @@ public class StandardStorage extends DataStorage {
                                 .omit()
                                 .build()
                                 .handle();
+                        // Retry with the next save
+                        e.markDirty();
                     }
                 });
 
@@ -424,7 +604,13 @@ public class StandardStorage extends DataStorage {
             ErrorEventFactory.fromThrowable(exception.get()).expected().handle();
         }
 
-        deleteLeftovers();
+        if (full || leftoversQueued) {
+            leftoversQueued = false;
+            deleteLeftovers();
+        }
+        if (full) {
+            writeSnapshot();
+        }
         dataStorageUserHandler.save();
         dataStorageSyncHandler.afterStorageSave();
         if (dispose) {
@@ -443,14 +629,14 @@ public class StandardStorage extends DataStorage {
         return dataStorageSyncHandler.supportsSync();
     }
 
-    private void filterPerUserEntries(Collection<DataStoreEntry> entries) {
+    private void filterPerUserEntries() {
         var toRemove = getStoreEntries().stream()
                 .filter(dataStoreEntry -> shouldRemoveOtherUserEntry(dataStoreEntry))
                 .toList();
         directoriesToKeep.addAll(toRemove.stream()
                 .map(dataStoreEntry -> dataStoreEntry.getDirectory())
                 .toList());
-        toRemove.forEach(entries::remove);
+        toRemove.forEach(this::removeStoreEntryInternal);
     }
 
     private boolean shouldRemoveOtherUserEntry(DataStoreEntry entry) {
@@ -580,6 +766,8 @@ public class StandardStorage extends DataStorage {
         }
     }
 
+    private record DirectoryReadResult<T>(Path path, Optional<T> value, Exception exception) {}
+
     private void initSystemInfo() throws IOException {
         var file = dir.resolve("systeminfo");
         if (Files.exists(file)) {
@@ -6,11 +6,16 @@ import lombok.experimental.NonFinal;
 import org.apache.commons.io.FileUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class StorageElement {
 
@@ -19,6 +24,12 @@ public abstract class StorageElement {
 
     protected final List<Listener> listeners = new ArrayList<>();
 
+    // Content hashes of the files as they were last read or written
+    private final Map<String, String> fileHashes = new ConcurrentHashMap<>();
+
+    // Files written or deleted since they were last retrieved, deleted files have null contents
+    private final Map<String, byte[]> writtenFiles = new HashMap<>();
+
     @Getter
     protected boolean dirty;
 
@@ -66,14 +77,86 @@ public abstract class StorageElement {
 
     public abstract Path[] getShareableFiles();
 
+    private static String hash(byte[] bytes) {
+        try {
+            var md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected void markDirty() {
+        dirty = true;
+        var storage = DataStorage.get();
+        if (storage != null) {
+            storage.onElementDirty(this);
+        }
+    }
+
+    /**
+     * Returns whether the files of this element have been read from or written to disk before.
+     * This avoids checking the file system for elements that were not changed.
+     */
+    public boolean hasPersistedFiles() {
+        return !fileHashes.isEmpty();
+    }
+
+    protected void recordFileContent(String fileName, byte[] content) {
+        fileHashes.put(fileName, hash(content));
+    }
+
+    protected void writeFileIfChanged(String fileName, String content) throws IOException {
+        var bytes = content.getBytes(StandardCharsets.UTF_8);
+        var hash = hash(bytes);
+        var file = directory.resolve(fileName);
+        if (hash.equals(fileHashes.get(fileName)) && Files.exists(file)) {
+            return;
+        }
+
+        // Write to a temp file first so that an interrupted write never leaves a truncated file behind
+        var temp = directory.resolve(fileName + ".tmp");
+        Files.write(temp, bytes);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        fileHashes.put(fileName, hash);
+        synchronized (writtenFiles) {
+            writtenFiles.put(fileName, bytes);
+        }
+    }
+
+    protected void deleteFileIfExists(String fileName) throws IOException {
+        fileHashes.remove(fileName);
+        if (Files.deleteIfExists(directory.resolve(fileName))) {
+            synchronized (writtenFiles) {
+                writtenFiles.put(fileName, null);
+            }
+        }
+    }
+
+    /**
+     * Returns the files that were written or deleted since the last call, so that their metadata
+     * can be recorded without reading the directory again.
+     */
+    public Map<String, byte[]> drainWrittenFiles() {
+        synchronized (writtenFiles) {
+            var copy = new HashMap<>(writtenFiles);
+            writtenFiles.clear();
+            return copy;
+        }
+    }
+
     public void notifyUpdate(boolean used, boolean modified) {
         if (used) {
             lastUsed = Instant.now();
-            dirty = true;
+            markDirty();
         }
         if (modified) {
             lastModified = Instant.now();
-            dirty = true;
+            markDirty();
         }
         synchronized (listeners) {
             listeners.forEach(l -> l.onUpdate());
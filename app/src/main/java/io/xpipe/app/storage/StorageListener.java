@@ -2,7 +2,7 @@ package io.xpipe.app.storage;
 
 public interface StorageListener {
 
-    void onStoreListUpdate();
+    void onStoreListUpdate(DataStoreEntry... entry);
 
     void onStoreAdd(DataStoreEntry... entry);
 
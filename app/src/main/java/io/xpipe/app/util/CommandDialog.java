@@ -4,39 +4,67 @@ import io.xpipe.app.comp.Comp;
 import io.xpipe.app.comp.base.ModalOverlay;
 import io.xpipe.app.process.CommandControl;
 import io.xpipe.app.process.ProcessOutputException;
+import io.xpipe.core.FailableFunction;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.StackPane;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class CommandDialog {
 
-    public static void runMultipleAndShow(Map<String, CommandControl> cmds) {
-        StringBuilder acc = new StringBuilder();
-        for (var e : cmds.entrySet()) {
-            String out;
-            try {
-                out = e.getValue().readStdoutOrThrow();
-                out = formatOutput(out);
-            } catch (ProcessOutputException ex) {
-                out = ex.getMessage();
-            } catch (Throwable t) {
-                out = ExceptionUtils.getStackTrace(t);
-            }
-
-            acc.append(e.getKey())
-                    .append(" (exit code ")
-                    .append(e.getValue().getExitCode())
-                    .append("):\n")
-                    .append(out)
-                    .append("\n\n");
-        }
-        show(acc.toString());
+    /**
+     * Runs a command for every item in parallel and shows the output of each command as soon as it has finished.
+     */
+    public static <T> FanOutExecutor.Summary<T> runMultipleAndShow(
+            List<T> items,
+            Function<T, String> name,
+            FailableFunction<T, CommandControl, Exception> command,
+            FanOutExecutor.Options options)
+            throws InterruptedException {
+        // Only the new output is appended to the text area, the complete text is never copied again
+        var blocks = FXCollections.observableArrayList("Running on " + items.size() + " systems ...\n\n");
+        show(blocks, 20);
+        var summary = FanOutExecutor.run(
+                items,
+                name,
+                (item, cancellation) -> {
+                    var cc = command.apply(item);
+                    // Interrupting the thread does not stop the remote command on a timeout
+                    cancellation.onCancel(cc::kill);
+                    String out;
+                    try {
+                        out = formatOutput(cc.readStdoutOrThrow());
+                    } catch (ProcessOutputException ex) {
+                        out = ex.getMessage();
+                    }
+                    return "(exit code " + cc.getExitCode() + "):\n" + out;
+                },
+                options,
+                result -> {
+                    var block =
+                            switch (result.getStatus()) {
+                                case SUCCEEDED -> result.getName() + " " + result.getOutput();
+                                case FAILED ->
+                                    result.getName() + " (failed):\n"
+                                            + ExceptionUtils.getStackTrace(result.getError());
+                                case TIMED_OUT ->
+                                    result.getName() + " (timed out after "
+                                            + result.getDuration().toSeconds() + "s)";
+                                case SKIPPED -> result.getName() + " (skipped)";
+                            };
+                    PlatformThread.runLaterIfNeeded(() -> blocks.add(block + "\n\n"));
+                });
+        PlatformThread.runLaterIfNeeded(() -> blocks.add(summary.format()));
+        return summary;
     }
 
     public static void runAndShow(CommandControl cmd) {
@@ -52,6 +80,26 @@ public class CommandDialog {
         show(out);
     }
 
+    private static void show(ObservableList<String> blocks, int rows) {
+        var modal = ModalOverlay.of(
+                "commandOutput",
+                Comp.of(() -> {
+                            var text = new TextArea(String.join("", blocks));
+                            blocks.addListener((ListChangeListener<? super String>) c -> {
+                                while (c.next()) {
+                                    c.getAddedSubList().forEach(text::appendText);
+                                }
+                            });
+                            text.setWrapText(true);
+                            text.setEditable(false);
+                            text.setPrefRowCount(rows);
+                            var sp = new StackPane(text);
+                            return sp;
+                        })
+                        .prefWidth(650));
+        modal.show();
+    }
+
     private static void show(String out) {
         var modal = ModalOverlay.of(
                 "commandOutput",
@@ -0,0 +1,227 @@
+package io.xpipe.app.util;
+
+import io.xpipe.core.FailableBiFunction;
+import io.xpipe.core.FailableFunction;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a task for many items, e.g. connections, with bounded parallelism.
+ * Results are passed to a listener as soon as they are finished, the final summary keeps the order of the items.
+ */
+public class FanOutExecutor {
+
+    public static <T> Summary<T> run(
+            List<T> items,
+            Function<T, String> name,
+            FailableFunction<T, String, Exception> task,
+            Options options,
+            Consumer<Result<T>> listener)
+            throws InterruptedException {
+        return run(items, name, (item, cancellation) -> task.apply(item), options, listener);
+    }
+
+    /**
+     * Runs a task that can register a cancellation handler, which is called when the item times out.
+     */
+    public static <T> Summary<T> run(
+            List<T> items,
+            Function<T, String> name,
+            FailableBiFunction<T, Cancellation, String, Exception> task,
+            Options options,
+            Consumer<Result<T>> listener)
+            throws InterruptedException {
+        var start = System.nanoTime();
+        @SuppressWarnings("unchecked")
+        Result<T>[] results = new Result[items.size()];
+        var failed = new AtomicBoolean();
+        var parallelism = Math.max(1, Math.min(options.getParallelism(), items.size()));
+        try (var workers = Executors.newFixedThreadPool(
+                        parallelism, Thread.ofVirtual().name("fan-out-", 0).factory());
+                var runner = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < items.size(); i++) {
+                var index = i;
+                var item = items.get(i);
+                workers.submit(() -> {
+                    Result<T> result;
+                    if (options.isFailFast() && failed.get()) {
+                        result = new Result<>(item, name.apply(item), Status.SKIPPED, null, null, Duration.ZERO);
+                    } else {
+                        result = execute(item, name.apply(item), task, options.getTimeout(), runner);
+                        if (result.getStatus() != Status.SUCCEEDED) {
+                            failed.set(true);
+                        }
+                    }
+
+                    results[index] = result;
+                    listener.accept(result);
+                });
+            }
+
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Keep waiting, the timeouts are applied per item
+            }
+        }
+
+        return new Summary<>(Arrays.asList(results), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static <T> Result<T> execute(
+            T item,
+            String name,
+            FailableBiFunction<T, Cancellation, String, Exception> task,
+            Duration timeout,
+            ExecutorService runner) {
+        var start = System.nanoTime();
+        var cancellation = new Cancellation();
+        var future = runner.submit(() -> task.apply(item, cancellation));
+        try {
+            var output = timeout != null ? future.get(timeout.toMillis(), TimeUnit.MILLISECONDS) : future.get();
+            return new Result<>(
+                    item, name, Status.SUCCEEDED, output, null, Duration.ofNanos(System.nanoTime() - start));
+        } catch (TimeoutException ex) {
+            // Blocking operations are interrupted, but they might not react to it
+            cancellation.cancel();
+            future.cancel(true);
+            return new Result<>(item, name, Status.TIMED_OUT, null, ex, Duration.ofNanos(System.nanoTime() - start));
+        } catch (ExecutionException ex) {
+            var cause = ex.getCause() != null ? ex.getCause() : ex;
+            return new Result<>(item, name, Status.FAILED, null, cause, Duration.ofNanos(System.nanoTime() - start));
+        } catch (InterruptedException ex) {
+            cancellation.cancel();
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return new Result<>(item, name, Status.FAILED, null, ex, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Stops a running task, e.g. by killing a remote command that would not react to the thread being interrupted.
+     */
+    public static class Cancellation {
+
+        private final List<Runnable> handlers = new ArrayList<>();
+        private boolean cancelled;
+
+        /**
+         * Registers a handler, which is called right away if the task has already been cancelled.
+         */
+        public void onCancel(Runnable handler) {
+            synchronized (this) {
+                if (!cancelled) {
+                    handlers.add(handler);
+                    return;
+                }
+            }
+            handler.run();
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancel() {
+            List<Runnable> toRun;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                toRun = List.copyOf(handlers);
+            }
+
+            for (var handler : toRun) {
+                try {
+                    handler.run();
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+    }
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT,
+        SKIPPED
+    }
+
+    @Value
+    @Builder
+    public static class Options {
+
+        /**
+         * Items are processed one after another unless the caller explicitly opts into parallel execution.
+         */
+        @Builder.Default
+        int parallelism = 1;
+
+        /**
+         * The maximum duration of a single item, or null if there is no limit.
+         */
+        Duration timeout;
+
+        /**
+         * Skips all items that have not started yet once an item has failed.
+         */
+        boolean failFast;
+    }
+
+    @Value
+    public static class Result<T> {
+        T item;
+        String name;
+        Status status;
+        String output;
+        Throwable error;
+        Duration duration;
+    }
+
+    @Value
+    public static class Summary<T> {
+        List<Result<T>> results;
+        Duration duration;
+
+        public long count(Status status) {
+            return results.stream().filter(r -> r.getStatus() == status).count();
+        }
+
+        /**
+         * Returns the first error in item order, with the errors of all other failed items added as suppressed.
+         */
+        public Optional<Throwable> getCombinedError() {
+            var errors = new ArrayList<Throwable>();
+            for (var result : results) {
+                if (result.getError() != null) {
+                    errors.add(result.getError());
+                }
+            }
+
+            if (errors.isEmpty()) {
+                return Optional.empty();
+            }
+
+            var first = errors.getFirst();
+            errors.stream().skip(1).forEach(first::addSuppressed);
+            return Optional.of(first);
+        }
+
+        public String format() {
+            return count(Status.SUCCEEDED) + " succeeded, " + count(Status.FAILED) + " failed, "
+                    + count(Status.TIMED_OUT) + " timed out, " + count(Status.SKIPPED) + " skipped in "
+                    + duration.toSeconds() + "s";
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package io.xpipe.app.util;
 
+import lombok.NonNull;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 public class FixedSizeInputStream extends SimpleFilterInputStream {
 
@@ -28,8 +31,25 @@ public class FixedSizeInputStream extends SimpleFilterInputStream {
         }
     }
 
+    @Override
+    public int read(byte @NonNull [] b, int off, int len) throws IOException {
+        if (count >= size) {
+            return -1;
+        }
+
+        var toRead = (int) Math.min(len, size - count);
+        var read = in.read(b, off, toRead);
+        if (read == -1) {
+            // Pad like the single byte read does
+            Arrays.fill(b, off, off + toRead, (byte) 0);
+            read = toRead;
+        }
+        count += read;
+        return read;
+    }
+
     @Override
     public int available() {
-        return (int) (size - count);
+        return (int) Math.min(Integer.MAX_VALUE, size - count);
     }
 }
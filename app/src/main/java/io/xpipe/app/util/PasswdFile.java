@@ -21,6 +21,12 @@ public class PasswdFile {
         return passwdFile;
     }
 
+    public static PasswdFile of(Map<Integer, String> users) {
+        var passwdFile = new PasswdFile();
+        passwdFile.users.putAll(users);
+        return passwdFile;
+    }
+
     public OptionalInt getUidForUserIfPresent(String name) {
         var found = users.entrySet().stream()
                 .filter(e -> e.getValue().equals(name))
@@ -4,6 +4,7 @@ import io.xpipe.app.ext.ProcessControlProvider;
 import io.xpipe.app.ext.ValidationException;
 import io.xpipe.app.issue.ErrorEventFactory;
 import io.xpipe.app.prefs.AppPrefs;
+import io.xpipe.app.pwman.PasswordManagerResolver;
 import io.xpipe.core.InPlaceSecretValue;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
@@ -126,6 +127,9 @@ public interface SecretRetrievalStrategy {
     @Value
     class PasswordManager implements SecretRetrievalStrategy {
 
+        // To reduce password manager access, cache it for a few seconds
+        public static final Duration CACHE_DURATION = Duration.ofSeconds(10);
+
         String key;
 
         @Override
@@ -147,7 +151,7 @@ public interface SecretRetrievalStrategy {
                         return new SecretQueryResult(null, SecretQueryState.RETRIEVAL_FAILURE);
                     }
 
-                    var r = pm.retrieveCredentials(key);
+                    var r = PasswordManagerResolver.retrieveCredentials(pm, key, cacheDuration());
                     if (r == null || r.getPassword() == null) {
                         return new SecretQueryResult(null, SecretQueryState.RETRIEVAL_FAILURE);
                     }
@@ -170,8 +174,7 @@ public interface SecretRetrievalStrategy {
 
                 @Override
                 public Duration cacheDuration() {
-                    // To reduce password manager access, cache it for a few seconds
-                    return Duration.ofSeconds(10);
+                    return CACHE_DURATION;
                 }
 
                 @Override
@@ -1,12 +1,14 @@
 package io.xpipe.app.util;
 
 import io.xpipe.app.process.ShellControl;
+import io.xpipe.app.process.ShellHostFacts;
 import io.xpipe.core.FailableSupplier;
 
 import lombok.Getter;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 @Getter
@@ -51,7 +53,11 @@ public class ShellControlCache {
     public boolean isApplicationInPath(String app) {
         if (!installedApplications.containsKey(app)) {
             try {
-                var b = CommandSupport.isInPath(shellControl, app);
+                // The host facts already contain the common tools, other tools don't require gathering them
+                var known = ShellHostFacts.isCheckedTool(app)
+                        ? shellControl.view().getHostFacts().flatMap(f -> f.hasTool(app))
+                        : Optional.<Boolean>empty();
+                var b = known.isPresent() ? known.get() : CommandSupport.isInPath(shellControl, app);
                 installedApplications.put(app, b);
             } catch (Exception e) {
                 installedApplications.put(app, false);
@@ -133,6 +133,7 @@ open module io.xpipe.app {
             DownloadMenuProvider,
             RefreshChildrenHubLeafProvider,
             ScanHubBatchProvider,
+            RefreshHubBatchProvider,
             RunCommandInBrowserActionProvider,
             RunCommandInBackgroundActionProvider,
             RunCommandInTerminalActionProvider,
@@ -213,6 +214,9 @@ open module io.xpipe.app {
             ShellStartExchangeImpl,
             ShellStopExchangeImpl,
             ShellExecExchangeImpl,
+            ShellJobStartExchangeImpl,
+            ShellJobQueryExchangeImpl,
+            ShellJobCancelExchangeImpl,
             ConnectionQueryExchangeImpl,
             ConnectionInfoExchangeImpl,
             ConnectionRemoveExchangeImpl,
@@ -233,6 +237,7 @@ open module io.xpipe.app {
             FsReadExchangeImpl,
             FsScriptExchangeImpl,
             FsWriteExchangeImpl,
+            FsUploadExchangeImpl,
             AskpassExchangeImpl,
             TerminalPrepareExchangeImpl,
             TerminalRegisterExchangeImpl,
@@ -241,6 +246,7 @@ open module io.xpipe.app {
             TerminalExternalLaunchExchangeImpl,
             SshLaunchExchangeImpl,
             DaemonVersionExchangeImpl,
+            DaemonMetricsExchangeImpl,
             SecretEncryptExchangeImpl,
             SecretDecryptExchangeImpl;
 }
@@ -0,0 +1,53 @@
+package io.xpipe.app.beacon.impl;
+
+import io.xpipe.beacon.BeaconClientException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FsExchangeHeaderTest {
+
+    @Test
+    public void testNoRange() {
+        Assertions.assertNull(FsReadExchangeImpl.parseRange(null, 100));
+        Assertions.assertNull(FsReadExchangeImpl.parseRange("bytes=-", 100));
+        Assertions.assertNull(FsReadExchangeImpl.parseRange("bytes=0-10,20-30", 100));
+        Assertions.assertNull(FsReadExchangeImpl.parseRange("items=0-10", 100));
+        Assertions.assertNull(FsReadExchangeImpl.parseRange("bytes=99999999999999999999-", 100));
+    }
+
+    @Test
+    public void testClosedRange() {
+        Assertions.assertArrayEquals(new long[] {0, 9}, FsReadExchangeImpl.parseRange("bytes=0-9", 100));
+        Assertions.assertArrayEquals(new long[] {10, 99}, FsReadExchangeImpl.parseRange(" bytes=10-200 ", 100));
+    }
+
+    @Test
+    public void testOpenRange() {
+        Assertions.assertArrayEquals(new long[] {50, 99}, FsReadExchangeImpl.parseRange("bytes=50-", 100));
+    }
+
+    @Test
+    public void testSuffixRange() {
+        Assertions.assertArrayEquals(new long[] {90, 99}, FsReadExchangeImpl.parseRange("bytes=-10", 100));
+        Assertions.assertArrayEquals(new long[] {0, 99}, FsReadExchangeImpl.parseRange("bytes=-500", 100));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        // The caller answers these with 416
+        var beyond = FsReadExchangeImpl.parseRange("bytes=100-", 100);
+        Assertions.assertTrue(beyond[0] >= 100);
+        var reversed = FsReadExchangeImpl.parseRange("bytes=20-10", 100);
+        Assertions.assertTrue(reversed[0] > reversed[1]);
+    }
+
+    @Test
+    public void testContentLength() throws Exception {
+        Assertions.assertEquals(-1, FsUploadExchangeImpl.parseContentLength(null));
+        Assertions.assertEquals(0, FsUploadExchangeImpl.parseContentLength("0"));
+        Assertions.assertEquals(1234, FsUploadExchangeImpl.parseContentLength(" 1234 "));
+        Assertions.assertThrows(BeaconClientException.class, () -> FsUploadExchangeImpl.parseContentLength("abc"));
+        Assertions.assertThrows(BeaconClientException.class, () -> FsUploadExchangeImpl.parseContentLength("-5"));
+    }
+}
@@ -0,0 +1,91 @@
+package io.xpipe.app.hub.comp;
+
+import io.xpipe.app.ext.DataStore;
+import io.xpipe.app.storage.DataStoreEntry;
+import io.xpipe.app.storage.TestStoreEntries;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class StoreSearchIndexTest {
+
+    private final Map<DataStoreEntry, DataStoreEntry> parents = new HashMap<>();
+    private final StoreSearchIndex index = new StoreSearchIndex(e -> Optional.ofNullable(parents.get(e)));
+
+    private DataStoreEntry entry(String name, DataStoreEntry parent) {
+        var e = TestStoreEntries.create(new TestStore(name), name);
+        if (parent != null) {
+            parents.put(e, parent);
+        }
+        index.update(e);
+        return e;
+    }
+
+    @Test
+    public void testNameMatches() {
+        var a = entry("Production Server", null);
+        var b = entry("staging", null);
+
+        var result = index.query("SERVER");
+        Assertions.assertEquals("SERVER", result.getFilter());
+        Assertions.assertTrue(result.matches(a));
+        Assertions.assertFalse(result.matches(b));
+        Assertions.assertEquals(Set.of(a), result.getMatches());
+    }
+
+    @Test
+    public void testGramMatches() {
+        var a = entry("Production", null);
+        var b = entry("product", null);
+
+        Assertions.assertEquals(Set.of(a, b), index.query("DUCT").getMatches());
+        Assertions.assertEquals(Set.of(a), index.query("ductio").getMatches());
+        // Shorter filters than a gram are checked against all entries
+        Assertions.assertEquals(Set.of(a, b), index.query("pr").getMatches());
+        Assertions.assertTrue(index.query("prodprod").getMatches().isEmpty());
+    }
+
+    @Test
+    public void testUuidMatches() {
+        var a = entry("a", null);
+        entry("b", null);
+
+        var result = index.query(a.getUuid().toString().toUpperCase());
+        Assertions.assertEquals(Set.of(a), result.getMatches());
+    }
+
+    @Test
+    public void testSubtreeMatches() {
+        var root = entry("root", null);
+        var middle = entry("middle", root);
+        var leaf = entry("leaf", middle);
+        var sibling = entry("sibling", root);
+
+        var result = index.query("leaf");
+        Assertions.assertEquals(Set.of(leaf), result.getMatches());
+        Assertions.assertEquals(Set.of(leaf, middle, root), result.getSubtreeMatches());
+        Assertions.assertTrue(result.matchesSubtree(root));
+        Assertions.assertFalse(result.matchesSubtree(sibling));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        var a = entry("a", null);
+        Assertions.assertTrue(index.contains(a));
+        // The terms did not change
+        Assertions.assertFalse(index.update(a));
+
+        index.remove(a);
+        Assertions.assertFalse(index.contains(a));
+        Assertions.assertTrue(index.query("a").getMatches().isEmpty());
+        Assertions.assertTrue(index.query(a.getUuid().toString()).getMatches().isEmpty());
+        Assertions.assertTrue(index.update(a));
+    }
+
+    private record TestStore(String value) implements DataStore {}
+}
@@ -0,0 +1,84 @@
+package io.xpipe.app.process;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class CommandPipelineParserTest {
+
+    private static final String MARKER = "XPIPE_PIPELINE_0123456789abcdef";
+
+    private static String out(String output, long exitCode) {
+        return output + "\n" + MARKER + " " + exitCode + "\n";
+    }
+
+    private static String err(String output) {
+        return output + "\n" + MARKER + "\n";
+    }
+
+    @Test
+    public void testSplitsResults() {
+        var stdout = out("first", 0) + out("second\nline", 1) + out("", 127);
+        var stderr = err("") + err("warning") + err("not found");
+        var results = CommandPipelineParser.parse(stdout, stderr, MARKER, 3);
+
+        Assertions.assertEquals(
+                List.of(
+                        new CommandPipeline.Result("first", "", 0),
+                        new CommandPipeline.Result("second\nline", "warning", 1),
+                        new CommandPipeline.Result("", "not found", 127)),
+                results);
+        Assertions.assertTrue(results.get(0).isSuccess());
+        Assertions.assertFalse(results.get(1).isSuccess());
+    }
+
+    @Test
+    public void testOutputWithTrailingNewLines() {
+        var results = CommandPipelineParser.parse(out("value\n\r\n", 0), err("error\n"), MARKER, 1);
+        Assertions.assertEquals(new CommandPipeline.Result("value", "error", 0), results.getFirst());
+    }
+
+    @Test
+    public void testMissingStreams() {
+        var results = CommandPipelineParser.parse(null, null, MARKER, 2);
+        Assertions.assertTrue(results.isEmpty());
+
+        // A missing stderr marker results in empty stderr
+        results = CommandPipelineParser.parse(out("a", 0), "", MARKER, 1);
+        Assertions.assertEquals(new CommandPipeline.Result("a", "", 0), results.getFirst());
+    }
+
+    @Test
+    public void testOutputEndsEarly() {
+        var results = CommandPipelineParser.parse(out("a", 0) + "partial", err("") + "partial", MARKER, 3);
+        Assertions.assertEquals(1, results.size());
+
+        // The exit code of the last marker has been cut off
+        results = CommandPipelineParser.parse(out("a", 0) + "b\n" + MARKER, err(""), MARKER, 2);
+        Assertions.assertEquals(1, results.size());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testCombinedScript() throws Exception {
+        var commands = List.of("echo one", "echo two >&2; exit 3", "cd /; pwd", "printf 'no newline'");
+        var script = CommandPipeline.createScript(commands, MARKER);
+        var process = new ProcessBuilder("/bin/sh", "-c", script).start();
+        var stdout = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        var stderr = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+        process.waitFor();
+
+        var results = CommandPipelineParser.parse(stdout, stderr, MARKER, commands.size());
+        Assertions.assertEquals(
+                List.of(
+                        new CommandPipeline.Result("one", "", 0),
+                        new CommandPipeline.Result("", "two", 3),
+                        new CommandPipeline.Result("/", "", 0),
+                        new CommandPipeline.Result("no newline", "", 0)),
+                results);
+    }
+}
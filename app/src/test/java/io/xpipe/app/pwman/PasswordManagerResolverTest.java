@@ -0,0 +1,189 @@
+package io.xpipe.app.pwman;
+
+import io.xpipe.app.util.GlobalTimer;
+import io.xpipe.core.InPlaceSecretValue;
+import io.xpipe.core.JacksonMapper;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class PasswordManagerResolverTest {
+
+    private static final Duration CACHE = Duration.ofMinutes(1);
+
+    @BeforeAll
+    public static void setup() {
+        GlobalTimer.init();
+    }
+
+    @AfterAll
+    public static void teardown() {
+        GlobalTimer.reset();
+    }
+
+    private static PasswordManager.CredentialResult result(String password) {
+        return new PasswordManager.CredentialResult("user", InPlaceSecretValue.of(password));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareLookup() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var pm = new TestPasswordManager(key -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return result("secret");
+        });
+
+        var results = Collections.synchronizedList(new ArrayList<PasswordManager.CredentialResult>());
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 5; i++) {
+            var t = new Thread(() -> results.add(PasswordManagerResolver.retrieveCredentials(pm, "key", null)));
+            threads.add(t);
+            t.start();
+            if (i == 0) {
+                entered.await();
+            }
+        }
+
+        // Wait until all other threads are waiting for the running lookup
+        for (var t : threads.subList(1, threads.size())) {
+            while (t.getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+        }
+        release.countDown();
+        for (var t : threads) {
+            t.join();
+        }
+
+        Assertions.assertEquals(1, pm.calls.get());
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertTrue(results.stream().allMatch(r -> r == results.getFirst()));
+    }
+
+    @Test
+    public void testResultsAreCached() {
+        var pm = new TestPasswordManager(key -> result("secret"));
+        PasswordManagerResolver.retrieveCredentials(pm, "key", CACHE);
+        PasswordManagerResolver.retrieveCredentials(pm, "key", CACHE);
+        Assertions.assertEquals(1, pm.calls.get());
+
+        PasswordManagerResolver.retrieveCredentials(pm, "other", CACHE);
+        Assertions.assertEquals(2, pm.calls.get());
+    }
+
+    @Test
+    public void testUncachedWithoutDuration() {
+        var pm = new TestPasswordManager(key -> result("secret"));
+        PasswordManagerResolver.retrieveCredentials(pm, "key", null);
+        PasswordManagerResolver.retrieveCredentials(pm, "key", null);
+        Assertions.assertEquals(2, pm.calls.get());
+    }
+
+    @Test
+    public void testMissingPasswordsAreNotCached() {
+        var pm = new TestPasswordManager(key -> new PasswordManager.CredentialResult("user", null));
+        PasswordManagerResolver.retrieveCredentials(pm, "key", CACHE);
+        PasswordManagerResolver.retrieveCredentials(pm, "key", CACHE);
+        Assertions.assertEquals(2, pm.calls.get());
+    }
+
+    @Test
+    public void testFailuresAreRetried() {
+        var fail = new AtomicInteger(1);
+        var pm = new TestPasswordManager(key -> {
+            // Errors have to release the lookup just like exceptions
+            if (fail.getAndDecrement() > 0) {
+                throw new AssertionError("failed");
+            }
+            return result("secret");
+        });
+
+        Assertions.assertThrows(
+                AssertionError.class, () -> PasswordManagerResolver.retrieveCredentials(pm, "key", CACHE));
+        var r = PasswordManagerResolver.retrieveCredentials(pm, "key", CACHE);
+        Assertions.assertNotNull(r.getPassword());
+        Assertions.assertEquals(2, pm.calls.get());
+    }
+
+    @Test
+    public void testPrefetch() {
+        var pm = new TestPasswordManager(key -> result(key));
+        PasswordManagerResolver.prefetch(pm, List.of("a", "b", "a"), CACHE);
+        Assertions.assertEquals(1, pm.bulkCalls.get());
+        Assertions.assertEquals(2, pm.calls.get());
+
+        PasswordManagerResolver.retrieveCredentials(pm, "a", CACHE);
+        PasswordManagerResolver.retrieveCredentials(pm, "b", CACHE);
+        Assertions.assertEquals(2, pm.calls.get());
+
+        // Already known keys are not requested again
+        PasswordManagerResolver.prefetch(pm, List.of("a", "c"), CACHE);
+        Assertions.assertEquals(2, pm.bulkCalls.get());
+        Assertions.assertEquals(3, pm.calls.get());
+    }
+
+    @Test
+    public void testCollectKeys() throws Exception {
+        var node = JacksonMapper.getDefault().readTree("""
+                {
+                  "host": "localhost",
+                  "password": {"type": "passwordManager", "key": "first"},
+                  "gateway": {
+                    "identity": {"type": "passwordManager", "key": "second"},
+                    "other": {"type": "inPlace"}
+                  },
+                  "list": [{"type": "passwordManager", "key": "third"}]
+                }
+                """);
+        var keys = new LinkedHashSet<String>();
+        PasswordManagerResolver.collectKeys(node, keys);
+        Assertions.assertEquals(List.of("first", "second", "third"), List.copyOf(keys));
+    }
+
+    private static final class TestPasswordManager implements PasswordManager {
+
+        private final Function<String, CredentialResult> lookup;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger bulkCalls = new AtomicInteger();
+
+        private TestPasswordManager(Function<String, CredentialResult> lookup) {
+            this.lookup = lookup;
+        }
+
+        @Override
+        public CredentialResult retrieveCredentials(String key) {
+            calls.incrementAndGet();
+            return lookup.apply(key);
+        }
+
+        @Override
+        public Map<String, CredentialResult> retrieveCredentials(List<String> keys) {
+            bulkCalls.incrementAndGet();
+            return PasswordManager.super.retrieveCredentials(keys);
+        }
+
+        @Override
+        public String getKeyPlaceholder() {
+            return "key";
+        }
+
+        @Override
+        public String getWebsite() {
+            return "https://example.com";
+        }
+    }
+}
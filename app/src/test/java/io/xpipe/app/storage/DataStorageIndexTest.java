@@ -0,0 +1,129 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.ext.DataStore;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class DataStorageIndexTest {
+
+    private static DataStoreEntry entry(DataStore store) {
+        return TestStoreEntries.create(store);
+    }
+
+    @Test
+    public void testLookupById() {
+        var index = new DataStorageIndex();
+        var e = entry(new TestStore("a"));
+        index.addEntry(e);
+        Assertions.assertEquals(e, index.getEntry(e.getUuid()).orElseThrow());
+        Assertions.assertTrue(index.getEntry(UUID.randomUUID()).isEmpty());
+        Assertions.assertTrue(index.getEntry(null).isEmpty());
+
+        index.removeEntry(e);
+        Assertions.assertTrue(index.getEntry(e.getUuid()).isEmpty());
+        Assertions.assertFalse(index.isIndexed(e));
+    }
+
+    @Test
+    public void testLookupByName() {
+        var index = new DataStorageIndex();
+        var e = entry(new TestStore("a"));
+        index.addEntry(e);
+        Assertions.assertEquals(e, index.getEntryByName(e.getName().toUpperCase()).orElseThrow());
+        Assertions.assertTrue(index.getEntryByName("other").isEmpty());
+    }
+
+    @Test
+    public void testLookupByStore() {
+        var index = new DataStorageIndex();
+        var store = new TestStore("a");
+        var e = entry(store);
+        index.addEntry(e);
+
+        var identity = index.getEntryByStore(store);
+        Assertions.assertTrue(identity.indexed());
+        Assertions.assertEquals(e, identity.value());
+
+        var equal = index.getEntryByStore(new TestStore("a"));
+        Assertions.assertTrue(equal.indexed());
+        Assertions.assertEquals(e, equal.value());
+
+        var missing = index.getEntryByStore(new TestStore("b"));
+        Assertions.assertTrue(missing.indexed());
+        Assertions.assertNull(missing.value());
+    }
+
+    @Test
+    public void testUnhashableStore() {
+        var index = new DataStorageIndex();
+        var store = new BrokenStore();
+        var e = entry(store);
+        index.addEntry(e);
+
+        // Identity lookups still work, other lookups have to fall back to a scan
+        Assertions.assertEquals(e, index.getEntryByStore(store).value());
+        Assertions.assertFalse(index.getEntryByStore(new BrokenStore()).indexed());
+    }
+
+    @Test
+    public void testDisplayParents() {
+        var index = new DataStorageIndex();
+        var parent = entry(new TestStore("parent"));
+        var child = entry(new TestStore("child"));
+        index.addEntry(parent);
+        index.addEntry(child);
+        Assertions.assertFalse(index.getDisplayParent(child).indexed());
+
+        index.setDisplayParent(parent, null);
+        index.setDisplayParent(child, parent);
+        Assertions.assertTrue(index.getDisplayParent(parent).indexed());
+        Assertions.assertNull(index.getDisplayParent(parent).value());
+        Assertions.assertEquals(parent, index.getDisplayParent(child).value());
+        Assertions.assertEquals(Set.of(child), index.getDisplayChildren(parent));
+
+        index.removeEntry(child);
+        Assertions.assertEquals(Set.of(), index.getDisplayChildren(parent));
+        Assertions.assertFalse(index.getDisplayParent(child).indexed());
+    }
+
+    @Test
+    public void testParentChainsAreInvalidated() {
+        var index = new DataStorageIndex();
+        var e = entry(new TestStore("a"));
+        index.addEntry(e);
+
+        var generation = index.getHierarchyGeneration();
+        var chain = new DataStorageIndex.ParentChain(List.of(e), false);
+        index.putParentChain(e, chain, generation);
+        Assertions.assertEquals(chain, index.getParentChain(e));
+        Assertions.assertEquals(e, chain.root());
+        Assertions.assertEquals(0, chain.depth());
+
+        index.addEntry(entry(new TestStore("b")));
+        Assertions.assertNull(index.getParentChain(e));
+
+        // Chains computed for an older generation are discarded
+        index.putParentChain(e, chain, generation);
+        Assertions.assertNull(index.getParentChain(e));
+    }
+
+    private record TestStore(String value) implements DataStore {}
+
+    private static final class BrokenStore implements DataStore {
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof BrokenStore;
+        }
+
+        @Override
+        public int hashCode() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.xpipe.app.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DataStorageOrderTest {
+
+    private static List<String> order(List<String> entries, Map<String, Set<String>> references) {
+        return DataStorage.orderByReferences(entries, e -> references.getOrDefault(e, Set.of()));
+    }
+
+    @Test
+    public void testReferencedEntriesFirst() {
+        var ordered = order(List.of("c", "b", "a"), Map.of("c", Set.of("b"), "b", Set.of("a")));
+        Assertions.assertEquals(List.of("a", "b", "c"), ordered);
+    }
+
+    @Test
+    public void testMultipleReferences() {
+        var ordered = order(List.of("d", "c", "b", "a"), Map.of("d", Set.of("b", "c"), "c", Set.of("a")));
+        Assertions.assertEquals(4, ordered.size());
+        Assertions.assertTrue(ordered.indexOf("a") < ordered.indexOf("c"));
+        Assertions.assertTrue(ordered.indexOf("b") < ordered.indexOf("d"));
+        Assertions.assertTrue(ordered.indexOf("c") < ordered.indexOf("d"));
+    }
+
+    @Test
+    public void testMissingAndSelfReferencesAreIgnored() {
+        var ordered = order(List.of("b", "a"), Map.of("a", Set.of("a"), "b", Set.of("missing")));
+        Assertions.assertEquals(List.of("b", "a"), ordered);
+    }
+
+    @Test
+    public void testCyclesAreIncludedOnce() {
+        var ordered = order(
+                List.of("x", "a", "b", "c"), Map.of("a", Set.of("b"), "b", Set.of("a"), "c", Set.of("a")));
+        Assertions.assertEquals(List.of("x", "a", "b", "c"), ordered);
+    }
+}
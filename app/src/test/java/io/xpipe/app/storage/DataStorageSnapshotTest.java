@@ -0,0 +1,138 @@
+package io.xpipe.app.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Set;
+
+public class DataStorageSnapshotTest {
+
+    @TempDir
+    Path temp;
+
+    private Path createDirectory(String name, String content) throws Exception {
+        var dir = Files.createDirectories(temp.resolve("stores").resolve(name));
+        Files.writeString(dir.resolve("entry.json"), content);
+        Files.writeString(dir.resolve("store.json"), "{}");
+        return dir;
+    }
+
+    private static String read(DataStorageSnapshot snapshot, DataStorageSnapshot.DirectoryRecord r, String name)
+            throws Exception {
+        return new String(snapshot.readFile(r, name), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        var dir = createDirectory("a", "{\"a\":1}");
+        var file = temp.resolve("vault.snapshot");
+        var snapshot = DataStorageSnapshot.read(file);
+        snapshot.put("stores/a", DataStorageSnapshot.readDirectory(dir));
+        Assertions.assertTrue(snapshot.isModified());
+        snapshot.write();
+        Assertions.assertFalse(snapshot.isModified());
+
+        var read = DataStorageSnapshot.read(file);
+        var record = read.getValidDirectory("stores/a", dir);
+        Assertions.assertNotNull(record);
+        Assertions.assertNull(record.getFile("entry.json").content());
+        Assertions.assertEquals("{\"a\":1}", read(read, record, "entry.json"));
+        Assertions.assertEquals("{}", read(read, record, "store.json"));
+        Assertions.assertNull(read.readFile(record, "missing.json"));
+        read.close();
+
+        // The file can be replaced after closing
+        Files.delete(file);
+    }
+
+    @Test
+    public void testUpdateKeepsUnchangedFiles() throws Exception {
+        var dir = createDirectory("a", "{\"a\":1}");
+        var file = temp.resolve("vault.snapshot");
+        var snapshot = DataStorageSnapshot.read(file);
+        snapshot.put("stores/a", DataStorageSnapshot.readDirectory(dir));
+        snapshot.write();
+
+        // The storage writes the files before updating the snapshot
+        Files.writeString(dir.resolve("entry.json"), "{\"a\":2}");
+        Files.delete(dir.resolve("store.json"));
+        var written = new HashMap<String, byte[]>();
+        written.put("entry.json", "{\"a\":2}".getBytes(StandardCharsets.UTF_8));
+        written.put("store.json", null);
+        snapshot.update("stores/a", dir, written);
+        Assertions.assertTrue(snapshot.isModified());
+        snapshot.write();
+
+        var read = DataStorageSnapshot.read(file);
+        var record = read.getValidDirectory("stores/a", dir);
+        Assertions.assertNotNull(record);
+        Assertions.assertEquals("{\"a\":2}", read(read, record, "entry.json"));
+        Assertions.assertNull(record.getFile("store.json"));
+        read.close();
+    }
+
+    @Test
+    public void testInPlaceChangesAreDetected() throws Exception {
+        var dir = createDirectory("a", "{\"a\":1}");
+        var snapshot = DataStorageSnapshot.read(temp.resolve("vault.snapshot"));
+        snapshot.put("stores/a", DataStorageSnapshot.readDirectory(dir));
+        Assertions.assertNotNull(snapshot.getValidDirectory("stores/a", dir));
+
+        // Rewrite a file without changing the directory, like a coarse directory timestamp would
+        var dirModified = Files.getLastModifiedTime(dir);
+        var entry = dir.resolve("entry.json");
+        Files.writeString(entry, "{\"a\":2}");
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(Files.getLastModifiedTime(entry).toMillis() + 5000));
+        Files.setLastModifiedTime(dir, dirModified);
+        Assertions.assertNull(snapshot.getValidDirectory("stores/a", dir));
+
+        // A changed size is also detected if the modification time happens to be the same
+        snapshot.put("stores/a", DataStorageSnapshot.readDirectory(dir));
+        var fileModified = Files.getLastModifiedTime(entry);
+        Files.writeString(entry, "{\"a\":20}");
+        Files.setLastModifiedTime(entry, fileModified);
+        Files.setLastModifiedTime(dir, dirModified);
+        Assertions.assertNull(snapshot.getValidDirectory("stores/a", dir));
+
+        // Additional files are detected as well
+        snapshot.put("stores/a", DataStorageSnapshot.readDirectory(dir));
+        Files.writeString(dir.resolve("notes.md"), "notes");
+        Files.setLastModifiedTime(dir, dirModified);
+        Assertions.assertNull(snapshot.getValidDirectory("stores/a", dir));
+    }
+
+    @Test
+    public void testRetain() throws Exception {
+        var a = createDirectory("a", "a");
+        var b = createDirectory("b", "b");
+        var file = temp.resolve("vault.snapshot");
+        var snapshot = DataStorageSnapshot.read(file);
+        snapshot.put("stores/a", DataStorageSnapshot.readDirectory(a));
+        snapshot.put("stores/b", DataStorageSnapshot.readDirectory(b));
+        snapshot.write();
+
+        snapshot.retain(Set.of("stores/b"));
+        Assertions.assertTrue(snapshot.isModified());
+        snapshot.write();
+
+        var read = DataStorageSnapshot.read(file);
+        Assertions.assertNull(read.getValidDirectory("stores/a", a));
+        Assertions.assertEquals("b", read(read, read.getValidDirectory("stores/b", b), "entry.json"));
+        read.close();
+    }
+
+    @Test
+    public void testTempFilesAreRemoved() throws Exception {
+        var dir = createDirectory("a", "a");
+        Files.writeString(dir.resolve("entry.json.tmp"), "partial");
+        var record = DataStorageSnapshot.readDirectory(dir);
+        Assertions.assertNull(record.getFile("entry.json.tmp"));
+        Assertions.assertFalse(Files.exists(dir.resolve("entry.json.tmp")));
+    }
+}
@@ -0,0 +1,41 @@
+package io.xpipe.app.storage;
+
+import io.xpipe.app.ext.DataStore;
+import io.xpipe.app.ext.DataStoreProviders;
+
+import lombok.SneakyThrows;
+
+import java.util.ArrayList;
+
+/**
+ * Creates entries for tests that don't start the whole application.
+ */
+public class TestStoreEntries {
+
+    @SneakyThrows
+    private static synchronized void initProviders() {
+        if (DataStoreProviders.getAll() != null) {
+            return;
+        }
+
+        // The providers are normally loaded from the module layer on startup
+        var field = DataStoreProviders.class.getDeclaredField("ALL");
+        field.setAccessible(true);
+        field.set(null, new ArrayList<>());
+    }
+
+    public static DataStoreEntry create(DataStore store) {
+        initProviders();
+        return DataStoreEntry.createTempWrapper(store);
+    }
+
+    @SneakyThrows
+    public static DataStoreEntry create(DataStore store, String name) {
+        var entry = create(store);
+        // Renaming an entry regularly saves the storage, which does not exist here
+        var field = StorageElement.class.getDeclaredField("name");
+        field.setAccessible(true);
+        field.set(entry, name);
+        return entry;
+    }
+}
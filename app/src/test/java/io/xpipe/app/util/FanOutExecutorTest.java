@@ -0,0 +1,145 @@
+package io.xpipe.app.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FanOutExecutorTest {
+
+    private static final List<Integer> ITEMS = List.of(0, 1, 2, 3, 4, 5, 6, 7);
+
+    @Test
+    public void testResultsKeepItemOrder() throws Exception {
+        var reported = new ConcurrentLinkedQueue<Integer>();
+        var summary = FanOutExecutor.run(
+                ITEMS,
+                item -> "item " + item,
+                item -> {
+                    // Later items finish first
+                    Thread.sleep((ITEMS.size() - item) * 5L);
+                    return "out" + item;
+                },
+                FanOutExecutor.Options.builder().parallelism(ITEMS.size()).build(),
+                result -> reported.add(result.getItem()));
+
+        Assertions.assertEquals(ITEMS.size(), reported.size());
+        Assertions.assertEquals(
+                ITEMS, summary.getResults().stream().map(FanOutExecutor.Result::getItem).toList());
+        Assertions.assertEquals("out3", summary.getResults().get(3).getOutput());
+        Assertions.assertEquals(ITEMS.size(), summary.count(FanOutExecutor.Status.SUCCEEDED));
+        Assertions.assertTrue(summary.getCombinedError().isEmpty());
+    }
+
+    @Test
+    public void testParallelismIsBounded() throws Exception {
+        var running = new AtomicInteger();
+        var max = new AtomicInteger();
+        FanOutExecutor.run(
+                ITEMS,
+                item -> "item " + item,
+                item -> {
+                    max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    return null;
+                },
+                FanOutExecutor.Options.builder().parallelism(2).build(),
+                result -> {});
+        Assertions.assertTrue(max.get() <= 2);
+    }
+
+    @Test
+    public void testSequentialByDefault() throws Exception {
+        var running = new AtomicInteger();
+        var max = new AtomicInteger();
+        FanOutExecutor.run(
+                ITEMS,
+                item -> "item " + item,
+                item -> {
+                    max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return null;
+                },
+                FanOutExecutor.Options.builder().build(),
+                result -> {});
+        Assertions.assertEquals(1, max.get());
+    }
+
+    @Test
+    public void testFailFastSkipsRemainingItems() throws Exception {
+        var summary = FanOutExecutor.run(
+                ITEMS,
+                item -> "item " + item,
+                item -> {
+                    if (item == 1) {
+                        throw new IllegalStateException("failed " + item);
+                    }
+                    return null;
+                },
+                FanOutExecutor.Options.builder().failFast(true).build(),
+                result -> {});
+
+        Assertions.assertEquals(FanOutExecutor.Status.SUCCEEDED, summary.getResults().get(0).getStatus());
+        Assertions.assertEquals(FanOutExecutor.Status.FAILED, summary.getResults().get(1).getStatus());
+        Assertions.assertEquals(ITEMS.size() - 2, summary.count(FanOutExecutor.Status.SKIPPED));
+        Assertions.assertEquals("failed 1", summary.getCombinedError().orElseThrow().getMessage());
+    }
+
+    @Test
+    public void testContinueOnError() throws Exception {
+        var summary = FanOutExecutor.run(
+                ITEMS,
+                item -> "item " + item,
+                item -> {
+                    if (item % 2 == 0) {
+                        throw new IllegalStateException("failed " + item);
+                    }
+                    return null;
+                },
+                FanOutExecutor.Options.builder().parallelism(3).build(),
+                result -> {});
+
+        Assertions.assertEquals(4, summary.count(FanOutExecutor.Status.FAILED));
+        Assertions.assertEquals(4, summary.count(FanOutExecutor.Status.SUCCEEDED));
+        Assertions.assertEquals(0, summary.count(FanOutExecutor.Status.SKIPPED));
+
+        // The first error in item order contains all others
+        var error = summary.getCombinedError().orElseThrow();
+        Assertions.assertEquals("failed 0", error.getMessage());
+        Assertions.assertEquals(3, error.getSuppressed().length);
+    }
+
+    @Test
+    public void testTimeoutCallsCancellationHandler() throws Exception {
+        var cancelled = new CountDownLatch(1);
+        var summary = FanOutExecutor.run(
+                List.of(0),
+                item -> "item " + item,
+                (item, cancellation) -> {
+                    // A remote command would not react to the interrupt, only to being killed
+                    var blocker = new CountDownLatch(1);
+                    cancellation.onCancel(() -> {
+                        cancelled.countDown();
+                        blocker.countDown();
+                    });
+                    while (blocker.getCount() > 0) {
+                        try {
+                            blocker.await();
+                        } catch (InterruptedException ignored) {
+                        }
+                    }
+                    return null;
+                },
+                FanOutExecutor.Options.builder().timeout(Duration.ofMillis(50)).build(),
+                result -> {});
+
+        Assertions.assertEquals(FanOutExecutor.Status.TIMED_OUT, summary.getResults().getFirst().getStatus());
+        Assertions.assertEquals(0, cancelled.getCount());
+    }
+}
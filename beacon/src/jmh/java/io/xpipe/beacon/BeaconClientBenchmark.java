@@ -0,0 +1,70 @@
+package io.xpipe.beacon;
+
+import io.xpipe.beacon.api.DaemonVersionExchange;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures request round trips against a local server, once with a new client for every request and once with a
+ * client that is reused and can therefore keep its connection alive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeaconClientBenchmark {
+
+    private static final byte[] RESPONSE = """
+            {"version":"1.0","canonicalVersion":"1.0","buildVersion":"1.0","jvmVersion":"24","plan":"community"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private DaemonVersionExchange exchange;
+    private BeaconClient reused;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/daemon/version", e -> {
+            try (e) {
+                e.getRequestBody().readAllBytes();
+                e.getResponseHeaders().add("Content-Type", "application/json");
+                e.sendResponseHeaders(200, RESPONSE.length);
+                e.getResponseBody().write(RESPONSE);
+            }
+        });
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.start();
+
+        exchange = new DaemonVersionExchange();
+        reused = new BeaconClient(server.getAddress().getPort());
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public DaemonVersionExchange.Response reusedClient() throws Exception {
+        return reused.performRequest(exchange, "{}");
+    }
+
+    @Benchmark
+    public DaemonVersionExchange.Response clientPerRequest() throws Exception {
+        // Every new client has to open a new connection
+        var client = new BeaconClient(server.getAddress().getPort());
+        return client.performRequest(exchange, "{}");
+    }
+}
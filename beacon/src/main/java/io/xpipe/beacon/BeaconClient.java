@@ -3,24 +3,35 @@ package io.xpipe.beacon;
 import io.xpipe.beacon.api.HandshakeExchange;
 import io.xpipe.core.JacksonMapper;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.SneakyThrows;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Optional;
 
 public class BeaconClient {
 
     private final int port;
+    // A single client keeps its connections alive and reuses them for subsequent requests
+    private final HttpClient client;
     private String token;
+    private boolean compactEncoding;
 
     public BeaconClient(int port) {
         this.port = port;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
     }
 
     public static BeaconClient establishConnection(int port, BeaconClientInformation information) throws Exception {
@@ -29,8 +40,10 @@ public class BeaconClient {
         HandshakeExchange.Response response = client.performRequest(HandshakeExchange.Request.builder()
                 .client(information)
                 .auth(BeaconAuthMethod.Local.builder().authFileContent(auth).build())
+                .compactEncoding(true)
                 .build());
         client.token = response.getSessionToken();
+        client.compactEncoding = response.isCompactEncoding();
         return client;
     }
 
@@ -51,10 +64,7 @@ public class BeaconClient {
             System.out.println(content);
         }
 
-        var client = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
-        HttpResponse<String> response;
+        HttpResponse<InputStream> response;
         try {
             // Use direct IP to prevent DNS lookups and potential blocks (e.g. portmaster)
             var uri = URI.create("http://127.0.0.1:" + port + prov.getPath());
@@ -65,34 +75,42 @@ public class BeaconClient {
             var httpRequest = builder.uri(uri)
                     .POST(HttpRequest.BodyPublishers.ofString(content))
                     .build();
-            response = client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            response = client.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
         } catch (Exception ex) {
             throw new BeaconConnectorException("Couldn't send request", ex);
         }
 
-        if (BeaconConfig.printMessages()) {
-            System.out.println("Received raw response:");
-            System.out.println(response.body());
-        }
+        // The body is parsed while it is being received, it is only fully buffered when it has to be printed
+        try (var body = response.body()) {
+            var in = body;
+            if (BeaconConfig.printMessages()) {
+                var bytes = body.readAllBytes();
+                System.out.println("Received raw response:");
+                System.out.println(new String(bytes, StandardCharsets.UTF_8));
+                in = new ByteArrayInputStream(bytes);
+            }
 
-        var se = parseServerError(response);
-        if (se.isPresent()) {
-            se.get().throwError();
-        }
+            var se = parseServerError(response.statusCode(), in);
+            if (se.isPresent()) {
+                se.get().throwError();
+            }
 
-        var ce = parseClientError(response);
-        if (ce.isPresent()) {
-            throw ce.get().throwException();
-        }
+            var ce = parseClientError(response.statusCode(), in);
+            if (ce.isPresent()) {
+                throw ce.get().throwException();
+            }
 
-        try {
-            var reader = JacksonMapper.getDefault().readerFor(prov.getResponseClass());
             var emptyResponseClass = prov.getResponseClass().getDeclaredFields().length == 0;
-            var body = response.body();
-            if (emptyResponseClass && body.isBlank()) {
-                return createDefaultResponse(prov);
+            if (emptyResponseClass) {
+                var bytes = in.readAllBytes();
+                if (new String(bytes, StandardCharsets.UTF_8).isBlank()) {
+                    return createDefaultResponse(prov);
+                }
+                in = new ByteArrayInputStream(bytes);
             }
-            var v = (RES) reader.readValue(body);
+
+            var reader = JacksonMapper.getDefault().readerFor(prov.getResponseClass());
+            var v = (RES) reader.readValue(in);
             return v;
         } catch (IOException ex) {
             throw new BeaconConnectorException("Couldn't parse response", ex);
@@ -122,31 +140,42 @@ public class BeaconClient {
                     "Sending request to server of type " + req.getClass().getName());
         }
 
-        return performRequest(prov.get(), node.toPrettyString());
+        String content;
+        try {
+            content = compactEncoding
+                    ? JacksonMapper.getDefault()
+                            .writer()
+                            .without(SerializationFeature.INDENT_OUTPUT)
+                            .writeValueAsString(node)
+                    : node.toPrettyString();
+        } catch (IOException ex) {
+            throw new BeaconConnectorException("Couldn't serialize request", ex);
+        }
+        return performRequest(prov.get(), content);
     }
 
-    private Optional<BeaconClientErrorResponse> parseClientError(HttpResponse<String> response)
+    private Optional<BeaconClientErrorResponse> parseClientError(int statusCode, InputStream body)
             throws BeaconConnectorException {
-        if (response.statusCode() < 400 || response.statusCode() > 499) {
+        if (statusCode < 400 || statusCode > 499) {
             return Optional.empty();
         }
 
         try {
-            var v = JacksonMapper.getDefault().readValue(response.body(), BeaconClientErrorResponse.class);
+            var v = JacksonMapper.getDefault().readValue(body, BeaconClientErrorResponse.class);
             return Optional.of(v);
         } catch (IOException ex) {
             throw new BeaconConnectorException("Couldn't parse client error message", ex);
         }
     }
 
-    private Optional<BeaconServerErrorResponse> parseServerError(HttpResponse<String> response)
+    private Optional<BeaconServerErrorResponse> parseServerError(int statusCode, InputStream body)
             throws BeaconConnectorException {
-        if (response.statusCode() < 500 || response.statusCode() > 599) {
+        if (statusCode < 500 || statusCode > 599) {
             return Optional.empty();
         }
 
         try {
-            var v = JacksonMapper.getDefault().readValue(response.body(), BeaconServerErrorResponse.class);
+            var v = JacksonMapper.getDefault().readValue(body, BeaconServerErrorResponse.class);
             return Optional.of(v);
         } catch (IOException ex) {
             throw new BeaconConnectorException("Couldn't parse client error message", ex);
@@ -74,6 +74,14 @@ public abstract class BeaconInterface<T> {
         return null;
     }
 
+    /**
+     * The amount of requests to this endpoint that are handled at the same time.
+     * Additional requests are queued until a slot becomes available.
+     */
+    public int getMaxConcurrentRequests() {
+        return 16;
+    }
+
     public static class Loader implements ModuleLayerLoader {
 
         @Override
@@ -8,6 +8,8 @@ import lombok.NonNull;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
 
+import java.util.List;
+
 public class ActionExchange extends BeaconInterface<ActionExchange.Request> {
 
     @Override
@@ -23,10 +25,46 @@ public class ActionExchange extends BeaconInterface<ActionExchange.Request> {
         JsonNode action;
 
         boolean confirm;
+
+        /**
+         * The amount of connections an action for multiple connections is executed on at the same time.
+         * By default, the action is executed for one connection after another.
+         */
+        Integer parallelism;
+
+        /**
+         * The maximum amount of milliseconds the action may take per connection.
+         */
+        Long timeout;
+
+        /**
+         * Whether to continue with the remaining connections after the action failed for one.
+         */
+        boolean continueOnError;
     }
 
     @Jacksonized
     @Builder
     @Value
-    public static class Response {}
+    public static class Response {
+        /**
+         * The outcome per connection if the action was executed for multiple connections.
+         */
+        List<Result> results;
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Result {
+        @NonNull
+        String connection;
+
+        @NonNull
+        String status;
+
+        String error;
+
+        long duration;
+    }
 }
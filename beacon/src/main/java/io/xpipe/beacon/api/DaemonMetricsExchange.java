@@ -0,0 +1,79 @@
+package io.xpipe.beacon.api;
+
+import io.xpipe.beacon.BeaconInterface;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+import java.util.UUID;
+
+public class DaemonMetricsExchange extends BeaconInterface<DaemonMetricsExchange.Request> {
+
+    @Override
+    public String getPath() {
+        return "/daemon/metrics";
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Request {}
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Response {
+
+        /**
+         * The upper bounds of the latency buckets in milliseconds. Every endpoint has one more bucket for all
+         * requests that exceeded the largest bound.
+         */
+        @NonNull
+        List<Long> bucketBounds;
+
+        @NonNull
+        List<Endpoint> endpoints;
+
+        @NonNull
+        List<ShellPool> shellPools;
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Endpoint {
+
+        @NonNull
+        String path;
+
+        long requests;
+        long failures;
+        long rejected;
+        int active;
+        int queued;
+        long totalMillis;
+        long maxMillis;
+
+        @NonNull
+        List<Long> buckets;
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class ShellPool {
+
+        @NonNull
+        UUID connection;
+
+        int size;
+        int idle;
+        int waiting;
+        long checkouts;
+        long started;
+        long evicted;
+    }
+}
@@ -0,0 +1,34 @@
+package io.xpipe.beacon.api;
+
+import io.xpipe.beacon.BeaconInterface;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Writes the raw request body directly into a remote file without storing it as a blob first.
+ * The target is specified with the connection and path query parameters, the body requires a Content-Length.
+ */
+public class FsUploadExchange extends BeaconInterface<FsUploadExchange.Request> {
+
+    @Override
+    public String getPath() {
+        return "/fs/upload";
+    }
+
+    @Override
+    public boolean readRawRequestBody() {
+        return true;
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Request {}
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Response {}
+}
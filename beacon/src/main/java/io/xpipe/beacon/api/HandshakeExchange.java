@@ -35,6 +35,11 @@ public class HandshakeExchange extends BeaconInterface<HandshakeExchange.Request
 
         @NonNull
         BeaconClientInformation client;
+
+        /**
+         * Requests responses to be sent without any formatting whitespace.
+         */
+        boolean compactEncoding;
     }
 
     @Jacksonized
@@ -43,5 +48,7 @@ public class HandshakeExchange extends BeaconInterface<HandshakeExchange.Request
     public static class Response {
         @NonNull
         String sessionToken;
+
+        boolean compactEncoding;
     }
 }
@@ -25,6 +25,11 @@ public class ShellExecExchange extends BeaconInterface<ShellExecExchange.Request
 
         @NonNull
         String command;
+
+        /**
+         * Sends the output as newline-delimited frames while the command is running instead of a single response.
+         */
+        boolean stream;
     }
 
     @Jacksonized
@@ -39,4 +44,20 @@ public class ShellExecExchange extends BeaconInterface<ShellExecExchange.Request
         @NonNull
         String stderr;
     }
+
+    /**
+     * A single line of a streamed response.
+     * The type is either stdout, stderr, exit or error. Only exit frames contain an exit code.
+     */
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Frame {
+        @NonNull
+        String type;
+
+        String data;
+
+        Long exitCode;
+    }
 }
@@ -0,0 +1,31 @@
+package io.xpipe.beacon.api;
+
+import io.xpipe.beacon.BeaconInterface;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.UUID;
+
+public class ShellJobCancelExchange extends BeaconInterface<ShellJobCancelExchange.Request> {
+
+    @Override
+    public String getPath() {
+        return "/shell/job/cancel";
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Request {
+        @NonNull
+        UUID job;
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Response {}
+}
@@ -0,0 +1,59 @@
+package io.xpipe.beacon.api;
+
+import io.xpipe.beacon.BeaconInterface;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.UUID;
+
+public class ShellJobQueryExchange extends BeaconInterface<ShellJobQueryExchange.Request> {
+
+    @Override
+    public String getPath() {
+        return "/shell/job/query";
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Request {
+        @NonNull
+        UUID job;
+
+        /**
+         * The amount of milliseconds to wait for the job to finish before returning.
+         */
+        long wait;
+    }
+
+    /**
+     * The result of a job. Once a finished job has been queried, it is removed.
+     * If the output was too large, only its beginning is included and the complete output is available as a blob.
+     * Output blobs are deleted ten minutes after the job has been removed.
+     * Finished jobs that are never queried are removed after ten minutes,
+     * and running jobs that are not queried for an hour are cancelled.
+     */
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Response {
+        boolean running;
+
+        Long exitCode;
+
+        String error;
+
+        @NonNull
+        String stdout;
+
+        @NonNull
+        String stderr;
+
+        UUID stdoutBlob;
+
+        UUID stderrBlob;
+    }
+}
@@ -0,0 +1,37 @@
+package io.xpipe.beacon.api;
+
+import io.xpipe.beacon.BeaconInterface;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.UUID;
+
+public class ShellJobStartExchange extends BeaconInterface<ShellJobStartExchange.Request> {
+
+    @Override
+    public String getPath() {
+        return "/shell/job/start";
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Request {
+        @NonNull
+        UUID connection;
+
+        @NonNull
+        String command;
+    }
+
+    @Jacksonized
+    @Builder
+    @Value
+    public static class Response {
+        @NonNull
+        UUID job;
+    }
+}
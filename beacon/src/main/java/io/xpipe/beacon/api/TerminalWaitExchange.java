@@ -16,6 +16,12 @@ public class TerminalWaitExchange extends BeaconInterface<TerminalWaitExchange.R
         return "/terminal/wait";
     }
 
+    @Override
+    public int getMaxConcurrentRequests() {
+        // Every open terminal launch waits here until the terminal has started
+        return 64;
+    }
+
     @Jacksonized
     @Builder
     @Value
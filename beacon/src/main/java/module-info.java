@@ -29,6 +29,9 @@ open module io.xpipe.beacon {
             ShellStartExchange,
             ShellStopExchange,
             ShellExecExchange,
+            ShellJobStartExchange,
+            ShellJobQueryExchange,
+            ShellJobCancelExchange,
             DaemonModeExchange,
             DaemonStatusExchange,
             DaemonFocusExchange,
@@ -55,8 +58,10 @@ open module io.xpipe.beacon {
             FsReadExchange,
             FsBlobExchange,
             FsWriteExchange,
+            FsUploadExchange,
             FsScriptExchange,
             DaemonVersionExchange,
+            DaemonMetricsExchange,
             SecretEncryptExchange,
             SecretDecryptExchange;
 }
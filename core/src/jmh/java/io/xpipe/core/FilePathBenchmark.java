@@ -0,0 +1,97 @@
+package io.xpipe.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures path operations as they happen in file listings and transfers,
+ * where freshly created paths are joined, relativized, and looked up in sets of known paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilePathBenchmark {
+
+    @Param({"1000", "100000"})
+    public int paths;
+
+    private List<String> names;
+    private List<String> fileNames;
+    private Set<FilePath> known;
+    private FilePath directory;
+    private FilePath base;
+    private FilePath first;
+    private FilePath second;
+    private int index;
+
+    @Setup
+    public void setup() {
+        names = new ArrayList<>(paths);
+        fileNames = new ArrayList<>(paths);
+        known = new HashSet<>(paths);
+        for (int i = 0; i < paths; i++) {
+            // Spread the files over multiple directories like in a larger repository
+            var fileName = "File" + i + ".java";
+            var name = "/home/user/projects/repository/src/main/java/package" + (i % 100) + "/" + fileName;
+            names.add(name);
+            fileNames.add(fileName);
+            known.add(FilePath.of(name));
+        }
+        directory = FilePath.of("/home/user/projects/repository/src/main/java/package0");
+        base = FilePath.of("/home/user/projects/repository/");
+        first = FilePath.of("/home/user/projects/repository/src/");
+        second = FilePath.of("/home/user/projects/repository/src");
+    }
+
+    private int next() {
+        index = (index + 1) % paths;
+        return index;
+    }
+
+    @Benchmark
+    public boolean lookupNewPath() {
+        return known.contains(FilePath.of(names.get(next())));
+    }
+
+    @Benchmark
+    public boolean equalsCached() {
+        return first.equals(second);
+    }
+
+    @Benchmark
+    public boolean equalsNewPath() {
+        var name = names.get(next());
+        return FilePath.of(name).equals(FilePath.of(name + "/"));
+    }
+
+    @Benchmark
+    public FilePath parentCached() {
+        return first.getParent();
+    }
+
+    @Benchmark
+    public FilePath parentNewPath() {
+        return FilePath.of(names.get(next())).getParent();
+    }
+
+    @Benchmark
+    public FilePath join() {
+        return directory.join(fileNames.get(next()));
+    }
+
+    @Benchmark
+    public FilePath joinParent() {
+        // Children of the same directory share the parent instance
+        return directory.join(fileNames.get(next())).getParent();
+    }
+
+    @Benchmark
+    public FilePath relativize() {
+        return FilePath.of(names.get(next())).relativize(base);
+    }
+}
@@ -12,6 +12,19 @@ public final class FilePath {
 
     private FilePath normalized;
     private List<String> split;
+    private FilePath parent;
+
+    /**
+     * The start and end index of every non-empty component in the value.
+     * The components are located once, so that the file name and canonical form can be computed without splitting.
+     */
+    private int[] offsets;
+
+    /**
+     * The normalized path without a trailing slash, which is used for equality checks.
+     * It is computed once and then cached, so comparisons and hashing don't allocate.
+     */
+    private String canonical;
 
     private FilePath(@NonNull String value) {
         this.value = value;
@@ -41,19 +54,77 @@ public final class FilePath {
         return path != null ? new FilePath(path.toString()) : null;
     }
 
+    private String canonical() {
+        if (canonical != null) {
+            return canonical;
+        }
+
+        // Equivalent to normalize().removeTrailingSlash() without creating the intermediate paths
+        var backslash = value.indexOf('\\') != -1;
+        var separator = backslash ? '\\' : '/';
+        var o = offsets();
+        var b = new StringBuilder(value.length());
+        if (!backslash && value.startsWith("/")) {
+            b.append('/');
+        }
+        for (int i = 0; i < o.length; i += 2) {
+            if (i > 0) {
+                b.append(separator);
+            }
+            b.append(value, o[i], o[i + 1]);
+        }
+        var c = b.toString();
+        canonical = c;
+        return c;
+    }
+
+    private int[] offsets() {
+        if (offsets != null) {
+            return offsets;
+        }
+
+        var count = 0;
+        var o = new int[8];
+        var start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            var separator = i == value.length() || value.charAt(i) == '/' || value.charAt(i) == '\\';
+            if (!separator) {
+                if (start == -1) {
+                    start = i;
+                }
+                continue;
+            }
+
+            if (start != -1) {
+                if (count + 2 > o.length) {
+                    o = Arrays.copyOf(o, o.length * 2);
+                }
+                o[count++] = start;
+                o[count++] = i;
+                start = -1;
+            }
+        }
+        var r = Arrays.copyOf(o, count);
+        offsets = r;
+        return r;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hashCode(value);
+        // Consistent with equals, so logically equal paths end up in the same bucket
+        return canonical().hashCode();
     }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
         FilePath filePath = (FilePath) o;
-        return Objects.equals(
-                normalize().removeTrailingSlash().value, filePath.normalize().removeTrailingSlash().value);
+        return value.equals(filePath.value) || canonical().equals(filePath.canonical());
     }
 
     public String toString() {
@@ -104,16 +175,12 @@ public final class FilePath {
     }
 
     public String getFileName() {
-        var split = split();
-        if (split.size() == 0) {
-            return "";
-        }
-        var components = split.stream().filter(s -> !s.isEmpty()).toList();
-        if (components.size() == 0) {
+        var o = offsets();
+        if (o.length == 0) {
             return "";
         }
 
-        return components.getLast();
+        return value.substring(o[o.length - 2], o[o.length - 1]);
     }
 
     public FilePath getBaseName() {
@@ -136,7 +203,15 @@ public final class FilePath {
 
     public FilePath join(String... parts) {
         var joined = String.join("/", parts);
-        return FilePath.of(value + "/" + joined).normalize();
+        var r = FilePath.of(value + "/" + joined).normalize();
+        // Children of the same directory share this path as their parent, including its cached values
+        if (r != this && r.parent == null && r.offsets().length > 2) {
+            var parentLength = r.value.length() - r.getFileName().length() - 1;
+            if (parentLength == value.length() && r.value.startsWith(value)) {
+                r.parent = this;
+            }
+        }
+        return r;
     }
 
     public boolean isAbsolute() {
@@ -152,16 +227,21 @@ public final class FilePath {
     }
 
     public FilePath getParent() {
-        var split = split();
-        if (split.size() == 0) {
-            return this;
+        if (parent != null) {
+            return parent;
         }
 
-        if (split.size() == 1) {
-            return value.startsWith("/") && !value.equals("/") ? FilePath.of("/") : this;
+        var split = split();
+        FilePath p;
+        if (split.size() == 0) {
+            p = this;
+        } else if (split.size() == 1) {
+            p = value.startsWith("/") && !value.equals("/") ? FilePath.of("/") : this;
+        } else {
+            p = FilePath.of(value.substring(0, value.length() - getFileName().length() - 1));
         }
-
-        return FilePath.of(value.substring(0, value.length() - getFileName().length() - 1));
+        parent = p;
+        return p;
     }
 
     public boolean startsWith(String start) {
@@ -173,9 +253,12 @@ public final class FilePath {
     }
 
     public FilePath relativize(FilePath base) {
-        return FilePath.of(normalize()
-                .toString()
-                .substring(base.normalize().toDirectory().toString().length()));
+        // Same length as base.normalize().toDirectory() without creating that path
+        var baseValue = base.normalize().toString();
+        var baseLength = baseValue.endsWith("/") || baseValue.endsWith("\\")
+                ? baseValue.length()
+                : baseValue.length() + 1;
+        return FilePath.of(normalize().toString().substring(baseLength));
     }
 
     public FilePath normalize() {
@@ -198,10 +281,14 @@ public final class FilePath {
             return split;
         }
 
-        var ar = value.split("[\\\\/]");
-        var l = Arrays.stream(ar).filter(s -> !s.isEmpty()).toList();
-        split = l;
-        return l;
+        var o = offsets();
+        var l = new ArrayList<String>(o.length / 2);
+        for (int i = 0; i < o.length; i += 2) {
+            l.add(value.substring(o[i], o[i + 1]));
+        }
+        var unmodifiable = Collections.unmodifiableList(l);
+        split = unmodifiable;
+        return unmodifiable;
     }
 
     public FilePath toUnix() {
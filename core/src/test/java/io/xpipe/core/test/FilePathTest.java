@@ -0,0 +1,119 @@
+package io.xpipe.core.test;
+
+import io.xpipe.core.FilePath;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class FilePathTest {
+
+    private static void assertEqualPaths(String a, String b) {
+        var pa = FilePath.of(a);
+        var pb = FilePath.of(b);
+        Assertions.assertEquals(pa, pb, a + " and " + b);
+        Assertions.assertEquals(pb, pa, b + " and " + a);
+        Assertions.assertEquals(pa.hashCode(), pb.hashCode(), a + " and " + b);
+    }
+
+    private static void assertDifferentPaths(String a, String b) {
+        Assertions.assertNotEquals(FilePath.of(a), FilePath.of(b), a + " and " + b);
+    }
+
+    @Test
+    public void testTrailingSlashes() {
+        assertEqualPaths("/usr/bin", "/usr/bin/");
+        assertEqualPaths("/usr/bin/", "/usr//bin//");
+        assertEqualPaths("relative/dir", "relative/dir/");
+        assertEqualPaths("C:\\Users", "C:\\Users\\");
+    }
+
+    @Test
+    public void testUnixRoots() {
+        assertEqualPaths("/", "/");
+        assertEqualPaths("/", "//");
+        assertDifferentPaths("/", "/usr");
+    }
+
+    @Test
+    public void testWindowsRoots() {
+        assertEqualPaths("C:\\", "C:\\");
+        assertEqualPaths("C:\\", "C:");
+        assertEqualPaths("C:\\", "C:\\\\");
+        assertDifferentPaths("C:\\", "D:\\");
+        assertDifferentPaths("C:\\", "C:\\Windows");
+    }
+
+    @Test
+    public void testBackslashRoots() {
+        assertEqualPaths("\\", "\\");
+        assertEqualPaths("\\\\server\\share", "\\\\server\\share\\");
+        assertEqualPaths("C:\\Users\\user", "C:/Users\\user");
+    }
+
+    @Test
+    public void testDifferentPaths() {
+        assertDifferentPaths("/usr/bin", "usr/bin");
+        assertDifferentPaths("/usr/bin", "/usr/bin2");
+        assertDifferentPaths("/usr/bin", "/usr");
+        Assertions.assertNotEquals(FilePath.of("/usr"), "/usr");
+        Assertions.assertNotEquals(FilePath.of("/usr"), null);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/", "/usr/bin", "/usr/bin/", "relative/dir/", "C:\\", "C:\\Users\\", "~/.ssh"})
+    public void testConsistentWithNormalizedForm(String path) {
+        // Equality is defined by the normalized path without a trailing slash
+        var p = FilePath.of(path);
+        var normalized = p.normalize().removeTrailingSlash();
+        Assertions.assertEquals(p, normalized);
+        Assertions.assertEquals(p.hashCode(), normalized.hashCode());
+    }
+
+    @Test
+    public void testHashSetLookup() {
+        var set = new HashSet<FilePath>();
+        for (var s : List.of("/", "/usr/", "C:\\", "C:\\Users\\")) {
+            set.add(FilePath.of(s));
+        }
+
+        Assertions.assertTrue(set.contains(FilePath.of("//")));
+        Assertions.assertTrue(set.contains(FilePath.of("/usr")));
+        Assertions.assertTrue(set.contains(FilePath.of("C:")));
+        Assertions.assertTrue(set.contains(FilePath.of("C:\\Users")));
+        Assertions.assertFalse(set.contains(FilePath.of("/usr/bin")));
+    }
+
+    @Test
+    public void testParentIsCached() {
+        var p = FilePath.of("/usr/bin/bash");
+        Assertions.assertSame(p.getParent(), p.getParent());
+        Assertions.assertEquals(FilePath.of("/usr/bin"), p.getParent());
+        Assertions.assertEquals(FilePath.of("/"), FilePath.of("/usr").getParent());
+    }
+
+    @Test
+    public void testJoinedChildrenShareParent() {
+        var dir = FilePath.of("/usr/bin");
+        Assertions.assertSame(dir, dir.join("bash").getParent());
+        Assertions.assertSame(dir, dir.join("sh").getParent());
+        // The parent string differs here, so the parent is computed as before
+        var slash = FilePath.of("/usr/bin/");
+        Assertions.assertEquals("/usr/bin", slash.join("bash").getParent().toString());
+        Assertions.assertEquals("/usr/bin", dir.join("lib/x").getParent().getParent().toString());
+    }
+
+    @Test
+    public void testComponents() {
+        var p = FilePath.of("C:\\Users//user\\file.txt");
+        Assertions.assertEquals(List.of("C:", "Users", "user", "file.txt"), p.split());
+        Assertions.assertEquals("file.txt", p.getFileName());
+        Assertions.assertEquals("", FilePath.of("/").getFileName());
+        Assertions.assertEquals(
+                FilePath.of("sub/file"), FilePath.of("/home/sub/file").relativize(FilePath.of("/home")));
+    }
+}
@@ -3,15 +3,13 @@ package io.xpipe.ext.base.script;
 import io.xpipe.app.action.ActionProvider;
 import io.xpipe.app.ext.ShellStore;
 import io.xpipe.app.hub.action.MultiStoreAction;
-import io.xpipe.app.process.CommandControl;
 import io.xpipe.app.storage.DataStoreEntryRef;
 import io.xpipe.app.util.CommandDialog;
+import io.xpipe.app.util.FanOutExecutor;
 
 import lombok.experimental.SuperBuilder;
 import lombok.extern.jackson.Jacksonized;
 
-import java.util.LinkedHashMap;
-
 public class RunHubBatchScriptActionProvider implements ActionProvider {
 
     @Override
@@ -27,14 +25,16 @@ public class RunHubBatchScriptActionProvider implements ActionProvider {
 
         @Override
         public void executeImpl() throws Exception {
-            var map = new LinkedHashMap<String, CommandControl>();
-            for (DataStoreEntryRef<ShellStore> ref : refs) {
-                var sc = ref.getStore().getOrStartSession();
-                var script = scriptStore.getStore().assembleScriptChain(sc);
-                var cmd = sc.command(script);
-                map.put(ref.get().getName(), cmd);
-            }
-            CommandDialog.runMultipleAndShow(map);
+            // Connecting and running happens per system so that slow systems don't hold up the others
+            CommandDialog.runMultipleAndShow(
+                    refs,
+                    ref -> ref.get().getName(),
+                    ref -> {
+                        var sc = ref.getStore().getOrStartSession();
+                        var script = scriptStore.getStore().assembleScriptChain(sc);
+                        return sc.command(script);
+                    },
+                    FanOutExecutor.Options.builder().parallelism(16).build());
         }
 
         @Override